@@ -0,0 +1,41 @@
+package Benchmarks;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de benchmarks.jar. Acepta las mismas opciones que JMH y,
+ * si no se indican, corre todas las mediciones del paquete y guarda los
+ * resultados en JSON en benchmarks-AAAAMMDD-HHMMSS.json, para comparar una
+ * versión con otra.
+ *
+ * <p>Ejemplo: {@code java -jar jmh/target/benchmarks.jar TickBenchmark -p particles=1000}</p>
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Corre las mediciones.
+     *
+     * @param args Las opciones de JMH.
+     * @throws Exception Si las opciones no son válidas o una medición falla.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (options.getIncludes().isEmpty()) {
+            builder.include("Benchmarks\\..*");
+        }
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!options.getResult().hasValue()) {
+            builder.result("benchmarks-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        }
+        new Runner(builder.build()).run();
+    }
+}
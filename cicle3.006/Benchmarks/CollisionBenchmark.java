@@ -0,0 +1,47 @@
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mide la fase de colisiones con cien mil partículas y distintas cantidades
+ * de demonios y agujeros. Cada iteración empieza con partículas nuevas, porque
+ * los choques las transfieren y las atrapan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CollisionBenchmark {
+    @Param({"100000"})
+    public int particles;
+
+    @Param({"1", "100", "10000"})
+    public int demons;
+
+    @Param({"0", "100", "10000"})
+    public int holes;
+
+    private CollisionProbe probe;
+
+    /**
+     * Genera el escenario antes de cada iteración.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        probe = new ScenarioGenerator(7, 2000, 2000).probe(particles, demons, holes);
+        probe.collide();
+    }
+
+    /**
+     * Resuelve los choques de todas las partículas activas.
+     *
+     * @return Las partículas que siguen activas.
+     */
+    @Benchmark
+    public int collide() {
+        return probe.collide();
+    }
+}
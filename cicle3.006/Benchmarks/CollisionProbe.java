@@ -0,0 +1,36 @@
+package Benchmarks;
+
+import MaxWellContainer.*;
+import java.util.List;
+
+/**
+ * Motor que expone la fase de colisiones para medirla sin el movimiento.
+ */
+public class CollisionProbe extends SimulationEngine {
+
+    /**
+     * Constructor para crear el motor sobre listas sueltas.
+     *
+     * @param width     El ancho de cada mitad del contenedor.
+     * @param height    La altura del contenedor.
+     * @param particles Las partículas.
+     * @param demons    Los demonios.
+     * @param holes     Los agujeros.
+     */
+    public CollisionProbe(int width, int height, List<Particle> particles, List<Demon> demons, List<Hole> holes) {
+        super(width, height, particles, demons, holes);
+    }
+
+    /**
+     * Resuelve una vez los choques de todas las partículas activas, sin moverlas.
+     *
+     * @return La cantidad de partículas que siguen activas.
+     */
+    public int collide() {
+        if (!loaded) {
+            load();
+        }
+        checkCollisions();
+        return store.liveCount();
+    }
+}
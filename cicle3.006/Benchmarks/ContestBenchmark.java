@@ -0,0 +1,48 @@
+package Benchmarks;
+
+import MaxWellContainer.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mide {@link MaxwellContest#solve} con contenedores de ancho y alto primos
+ * grandes y muchas partículas en el lado equivocado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContestBenchmark {
+    @Param({"10", "100", "1000"})
+    public int particles;
+
+    @Param({"1009x1013", "999983x1000003"})
+    public String size;
+
+    private int width;
+    private int height;
+    private int[][] data;
+
+    /**
+     * Genera la entrada una vez por medición.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] parts = size.split("x");
+        width = Integer.parseInt(parts[0]);
+        height = Integer.parseInt(parts[1]);
+        data = new ScenarioGenerator(11, width, height).contest(particles);
+    }
+
+    /**
+     * Resuelve la entrada.
+     *
+     * @return El tiempo mínimo calculado.
+     */
+    @Benchmark
+    public double solve() {
+        return MaxwellContest.solve(width, height, height / 2, particles / 2, particles - particles / 2, data);
+    }
+}
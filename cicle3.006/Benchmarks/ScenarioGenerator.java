@@ -0,0 +1,161 @@
+package Benchmarks;
+
+import MaxWellContainer.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generador de escenarios reproducibles para las mediciones.
+ *
+ * <p>Con la misma semilla produce siempre las mismas partículas, demonios y
+ * agujeros, así que dos versiones del simulador se miden sobre los mismos
+ * datos. Todas las partículas empiezan en el lado equivocado (las rojas a la
+ * derecha y las azules a la izquierda), como exige el contenedor.</p>
+ */
+public class ScenarioGenerator {
+    public static final String NORMAL = "normal"; // Solo partículas normales
+    public static final String FLYING = "flying"; // Solo partículas voladoras
+    public static final String MIXED = "mixed"; // Los cuatro tipos por turnos
+
+    private static final String[] TYPES = {"normal", "flying", "rotator", "ephemeral"};
+    private static final int DIAMETER = 5; // Diámetro de las partículas del contenedor
+    private static final int MAX_SPEED = 6;
+
+    private Random random;
+    private int width; // Ancho de cada mitad del contenedor
+    private int height;
+
+    /**
+     * Constructor para crear un generador.
+     *
+     * @param seed   La semilla de los números aleatorios.
+     * @param width  El ancho de cada mitad del contenedor.
+     * @param height La altura del contenedor.
+     */
+    public ScenarioGenerator(long seed, int width, int height) {
+        this.random = new Random(seed);
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Crea un contenedor sin dibujar con partículas de los tipos de una mezcla,
+     * mitad rojas y mitad azules, y un demonio en la mitad de la altura.
+     *
+     * @param count La cantidad de partículas.
+     * @param mix   {@link #NORMAL}, {@link #FLYING} o {@link #MIXED}.
+     * @return El contenedor.
+     */
+    public MaxwellContainer container(int count, String mix) {
+        MaxwellContainer container = new MaxwellContainer(height, width);
+        container.addDemon(height / 2);
+        for (int i = 0; i < count; i++) {
+            int[] row = particle(i % 2 == 0);
+            container.addParticle(typeOf(i, mix), "p" + i, row[4] == 1, row[0], row[1], row[2], row[3]);
+        }
+        return container;
+    }
+
+    /**
+     * Crea un escenario por lotes con partículas normales.
+     *
+     * @param count La cantidad de partículas.
+     * @param ticks Los ticks a simular.
+     * @return El escenario.
+     */
+    public Scenario scenario(int count, int ticks) {
+        int red = count / 2;
+        int[][] data = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int[] row = particle(i < red);
+            data[i] = new int[]{row[0], row[1], row[2], row[3]};
+        }
+        return new Scenario(width, height, height / 2, red, count - red, data, ticks);
+    }
+
+    /**
+     * Crea un motor de prueba con partículas, demonios y agujeros sueltos,
+     * para medir solo las colisiones.
+     *
+     * @param particles La cantidad de partículas.
+     * @param demons    La cantidad de demonios, repartidos a lo alto de la línea.
+     * @param holes     La cantidad de agujeros, con capacidad de sobra.
+     * @return El motor listo para {@link CollisionProbe#collide()}.
+     */
+    public CollisionProbe probe(int particles, int demons, int holes) {
+        MaxwellContainer owner = new MaxwellContainer(height, width);
+        List<Particle> particleList = new ArrayList<>(particles);
+        for (int i = 0; i < particles; i++) {
+            int[] row = particle(i % 2 == 0);
+            particleList.add(new Particle(width + row[0], row[1], "p" + i, row[4] == 1, DIAMETER, row[2], row[3], row[0]));
+        }
+
+        List<Demon> demonList = new ArrayList<>(demons);
+        for (int k = 0; k < demons; k++) {
+            demonList.add(new Demon(width - 5, 1 + random.nextInt(height - 1), "black", 10, 10, owner));
+        }
+
+        List<Hole> holeList = new ArrayList<>(holes);
+        for (int k = 0; k < holes; k++) {
+            int px = random.nextInt(2 * width) - width;
+            holeList.add(new Hole(width + px, random.nextInt(height), "black", 10, particles, px));
+        }
+        return new CollisionProbe(width, height, particleList, demonList, holeList);
+    }
+
+    /**
+     * Crea una entrada difícil para {@link MaxwellContest#solve}: todas las
+     * partículas en el lado equivocado, con velocidades que no dividen al
+     * ancho ni al alto, para que ninguna búsqueda termine pronto.
+     *
+     * @param count La cantidad de partículas; la primera mitad son rojas.
+     * @return Las filas (x, y, vx, vy).
+     */
+    public int[][] contest(int count) {
+        int red = count / 2;
+        int[][] data = new int[count][];
+        for (int i = 0; i < count; i++) {
+            int px = 1 + random.nextInt(width - 1);
+            int vx = 1 + 2 * random.nextInt(MAX_SPEED);
+            int vy = 1 + 2 * random.nextInt(MAX_SPEED);
+            data[i] = i < red
+                ? new int[]{px, random.nextInt(height), -vx, vy}
+                : new int[]{-px, random.nextInt(height), vx, -vy};
+        }
+        return data;
+    }
+
+    /**
+     * Genera una partícula en el lado equivocado con velocidad distinta de cero.
+     *
+     * @param red Indica si la partícula es roja.
+     * @return La fila (px, py, vx, vy, 1 si es roja).
+     */
+    private int[] particle(boolean red) {
+        int margin = width - DIAMETER;
+        int px = red ? random.nextInt(margin) : -1 - random.nextInt(margin);
+        int py = DIAMETER + random.nextInt(height - 2 * DIAMETER);
+        int vx = speed();
+        int vy = speed();
+        return new int[]{px, py, vx, vy, red ? 1 : 0};
+    }
+
+    /**
+     * Genera una velocidad entre -MAX_SPEED y MAX_SPEED, sin el cero.
+     */
+    private int speed() {
+        int value = 1 + random.nextInt(MAX_SPEED);
+        return random.nextBoolean() ? value : -value;
+    }
+
+    /**
+     * Obtiene el tipo de la partícula i según la mezcla.
+     */
+    private static String typeOf(int i, String mix) {
+        if (MIXED.equals(mix)) {
+            return TYPES[i % TYPES.length];
+        }
+        return FLYING.equals(mix) ? FLYING : NORMAL;
+    }
+}
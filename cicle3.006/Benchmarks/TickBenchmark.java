@@ -0,0 +1,48 @@
+package Benchmarks;
+
+import MaxWellContainer.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Mide un tick del contenedor sin dibujar, de 10^2 a 10^6 partículas y con
+ * distintas mezclas de tipos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TickBenchmark {
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int particles;
+
+    @Param({ScenarioGenerator.NORMAL, ScenarioGenerator.MIXED})
+    public String mix;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private MaxwellContainer container;
+
+    /**
+     * Crea el contenedor una vez por medición.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        container = new ScenarioGenerator(42, 2000, 2000).container(particles, mix);
+        container.setParallelism(threads);
+    }
+
+    /**
+     * Simula un tick.
+     *
+     * @return Si se alcanzó el objetivo, para que el tick no se descarte.
+     */
+    @Benchmark
+    public boolean tick() {
+        container.run(1);
+        return container.isGoal();
+    }
+}
@@ -0,0 +1,143 @@
+package MaxWellContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Simula muchos escenarios independientes a la vez, sin lienzo.
+ *
+ * <p>Cada escenario es una tarea de un {@link ForkJoinPool}, cuyos hilos se
+ * roban trabajo entre sí, así que un escenario largo no deja a los demás
+ * esperando. Los escenarios se piden al iterador a medida que hay cupo: nunca
+ * hay más de {@code window} contenedores vivos a la vez, de modo que la memoria
+ * no crece con el tamaño del lote. Cada resultado se entrega apenas termina su
+ * escenario, en el orden en que terminan y de a uno por vez.</p>
+ */
+public class BatchRunner {
+    private ForkJoinPool pool;
+    private int window; // Máximo de escenarios en curso a la vez
+    private Semaphore slots; // Cupos libres para nuevos escenarios
+    private RuntimeException failure; // Primer error de una simulación o del consumidor de resultados
+
+    /**
+     * Constructor para crear un ejecutor por lotes.
+     *
+     * @param threads El número de hilos, al menos 1.
+     * @param window  El máximo de escenarios en memoria a la vez, al menos 1.
+     */
+    public BatchRunner(int threads, int window) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser al menos 1");
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("La ventana de escenarios debe ser al menos 1");
+        }
+        this.pool = new ForkJoinPool(threads);
+        this.window = window;
+        this.slots = new Semaphore(window);
+    }
+
+    /**
+     * Simula todos los escenarios del iterador y entrega cada resultado al
+     * consumidor apenas está listo. Retorna cuando se entregaron todos. Un
+     * escenario con datos inválidos da un resultado fallido con su error;
+     * cualquier otro error de una simulación o del consumidor se relanza al
+     * terminar el lote.
+     *
+     * @param scenarios Los escenarios a simular; se recorren a medida que hay cupo.
+     * @param sink      Recibe los resultados, nunca desde dos hilos a la vez.
+     */
+    public void run(Iterator<Scenario> scenarios, Consumer<ScenarioResult> sink) {
+        failure = null;
+        int index = 0;
+        while (scenarios.hasNext()) {
+            slots.acquireUninterruptibly();
+            Scenario scenario = scenarios.next();
+            int position = index++;
+            pool.execute(() -> {
+                try {
+                    ScenarioResult result = simulate(position, scenario);
+                    deliver(result, sink);
+                } catch (RuntimeException e) {
+                    // Un error que no viene de los datos es un defecto: se relanza al final
+                    fail(e);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+
+        // Cuando se recuperan todos los cupos ya no queda ningún escenario en curso
+        slots.acquireUninterruptibly(window);
+        slots.release(window);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Simula una lista de escenarios y retorna los resultados en el orden de la lista.
+     *
+     * @param scenarios Los escenarios a simular.
+     * @return Los resultados, uno por escenario.
+     */
+    public List<ScenarioResult> runAll(List<Scenario> scenarios) {
+        ScenarioResult[] results = new ScenarioResult[scenarios.size()];
+        run(scenarios.iterator(), result -> results[result.getIndex()] = result);
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * Detiene los hilos del ejecutor.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Simula un escenario: busca el primer tick en que se cumple el objetivo y
+     * sigue hasta completar los ticks pedidos.
+     */
+    private static ScenarioResult simulate(int index, Scenario scenario) {
+        try {
+            int ticks = scenario.getTicks();
+            if (ticks <= 0) {
+                throw new IllegalArgumentException("El escenario debe simular al menos un tick");
+            }
+            MaxwellContainer container = scenario.create();
+            int goalTick = container.runFindingGoal(ticks);
+
+            return new ScenarioResult(index, true, goalTick,
+                container.particles(""), container.holes(""), container.transfers());
+        } catch (IllegalArgumentException e) {
+            // Datos mal formados, por ejemplo una fila de partícula incompleta
+            return new ScenarioResult(index, e);
+        }
+    }
+
+    /**
+     * Entrega un resultado al consumidor, de a un hilo por vez.
+     */
+    private synchronized void deliver(ScenarioResult result, Consumer<ScenarioResult> sink) {
+        if (failure != null) return;
+        try {
+            sink.accept(result);
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Guarda el primer error para relanzarlo cuando termine el lote.
+     */
+    private synchronized void fail(RuntimeException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package MaxWellContainer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Destino que escribe los registros en un archivo binario. Cada registro ocupa
+ * {@link #RECORD_SIZE} bytes, en big endian: tick (long), id, x, y (int) y
+ * tipo (byte), de modo que se puede leer con un {@link java.io.DataInputStream}.
+ */
+public class BinaryEventSink implements EventSink {
+    public static final int RECORD_SIZE = 8 + 4 + 4 + 4 + 1;
+
+    private DataOutputStream out;
+
+    /**
+     * Constructor para crear un destino sobre un archivo, que se reemplaza si existe.
+     *
+     * @param path La ruta del archivo.
+     * @throws IOException Si el archivo no se puede crear.
+     */
+    public BinaryEventSink(String path) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path), 1 << 16));
+    }
+
+    /**
+     * Escribe un registro en el archivo.
+     */
+    @Override
+    public void accept(long tick, int id, int x, int y, byte kind) throws IOException {
+        out.writeLong(tick);
+        out.writeInt(id);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeByte(kind);
+    }
+
+    /**
+     * Escribe en el archivo lo que quedó en memoria.
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
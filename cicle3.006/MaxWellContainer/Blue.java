@@ -47,6 +47,41 @@ public class Blue extends Demon {
         }
     }
 
+    /**
+     * Transfiere una partícula del almacén del motor solo si es azul.
+     *
+     * @param store Almacén de partículas.
+     * @param i     Índice de la partícula en el almacén.
+     */
+    @Override
+    public void transferParticle(ParticleStore store, int i) {
+        if (store.isTransferred(i) || store.isRed(i)) {
+            return;
+        }
+
+        int midPoint = getContainer().getWidth();
+        if (store.getX(i) < midPoint) {
+            // Mover la partícula al lado derecho
+            store.setPosition(i, store.getX(i) + 20, store.getY(i));
+            store.setSpeedX(i, Math.abs(store.getSpeedX(i)));
+            store.setTransferred(i);
+        }
+    }
+
+    /**
+     * Indica si el demonio podría transferir una partícula azul que pasa por el lado izquierdo.
+     *
+     * @param store Almacén de partículas.
+     * @param i     Índice de la partícula en el almacén.
+     * @param minX  Menor posición en X que tomará la partícula.
+     * @param maxX  Mayor posición en X que tomará la partícula.
+     * @return true si algún choque podría transferir la partícula.
+     */
+    @Override
+    public boolean mayAffect(ParticleStore store, int i, int minX, int maxX) {
+        return !store.isTransferred(i) && !store.isRed(i) && minX < getContainer().getWidth();
+    }
+
     /**
      * Verifica colisión con partículas (mismo comportamiento que el demonio base).
      * Se mantiene igual ya que la detección de colisiones no cambia.
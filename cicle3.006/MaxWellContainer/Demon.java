@@ -12,6 +12,7 @@ import Shapes.*;
 public class Demon extends Rectangle {
     protected int speedY; // Velocidad vertical (píxeles por movimiento)
     protected MaxwellContainer container; // Referencia al contenedor padre
+    private boolean removed; // Indica si el contenedor eliminó el demonio
 
     /**
      * Constructor para crear un demonio en posición específica.
@@ -29,6 +30,23 @@ public class Demon extends Rectangle {
         this.container = container;
     }
 
+    /**
+     * Marca el demonio como eliminado del contenedor. Las listas lo sacan
+     * después, todos de una vez.
+     */
+    public void markRemoved() {
+        this.removed = true;
+    }
+
+    /**
+     * Indica si el contenedor eliminó el demonio.
+     * 
+     * @return true si el demonio fue eliminado
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+
     /**
      * Mueve el demonio verticalmente dentro del contenedor con efecto rebote.
      * 
@@ -36,14 +54,22 @@ public class Demon extends Rectangle {
      */
     public void move(int containerHeight) {
         erase(); // Limpia la posición anterior
+        step(containerHeight);
+        draw(); // Dibuja en nueva posición
+    }
+
+    /**
+     * Avanza el demonio un tick sin dibujarlo.
+     * 
+     * @param containerHeight Altura total del contenedor para límite de rebote
+     */
+    public void step(int containerHeight) {
         yPosition += speedY; // Actualiza posición
         
         // Lógica de rebote en bordes superior/inferior
         if (yPosition <= 0 || yPosition + height >= containerHeight) {
             speedY = -speedY; // Invierte dirección
         }
-
-        draw(); // Dibuja en nueva posición
     }
 
     /**
@@ -53,17 +79,35 @@ public class Demon extends Rectangle {
      * @return true si hay superposición entre sus áreas, false en caso contrario
      */
     public boolean collidesWith(Particle particle) {
+        return collidesWith(particle.getXPosition(), particle.getYPosition(), particle.getDiameter() / 2);
+    }
+
+    /**
+     * Detecta colisión entre el demonio y una partícula del almacén del motor.
+     * 
+     * @param store Almacén de partículas
+     * @param i Índice de la partícula en el almacén
+     * @return true si hay superposición entre sus áreas, false en caso contrario
+     */
+    public boolean collidesWith(ParticleStore store, int i) {
+        return collidesWith(store.getX(i), store.getY(i), store.getDiameter() / 2);
+    }
+
+    /**
+     * Detecta colisión entre el demonio y un círculo dado por su centro y radio.
+     * 
+     * @param particleCenterX Posición X del centro de la partícula
+     * @param particleCenterY Posición Y del centro de la partícula
+     * @param radius Radio de la partícula
+     * @return true si hay superposición entre sus áreas, false en caso contrario
+     */
+    public boolean collidesWith(int particleCenterX, int particleCenterY, int radius) {
         // Área del demonio (considerando centro como referencia)
         int demonLeft = xPosition - width;
         int demonRight = xPosition + width;
         int demonTop = yPosition - height;
         int demonBottom = yPosition + height;
     
-        // Posición y radio de la partícula
-        int particleCenterX = particle.getXPosition();
-        int particleCenterY = particle.getYPosition();
-        int radius = particle.getDiameter() / 2;
-    
         // Verifica superposición en ambos ejes
         boolean collisionX = (particleCenterX + radius >= demonLeft) && 
                            (particleCenterX - radius <= demonRight);
@@ -109,6 +153,66 @@ public class Demon extends Rectangle {
         }
     }
 
+    /**
+     * Transfiere una partícula del almacén del motor al lado correspondiente.
+     * Aplica la misma regla que {@link #transferParticle(Particle)}.
+     * 
+     * @param store Almacén de partículas
+     * @param i Índice de la partícula en el almacén
+     */
+    public void transferParticle(ParticleStore store, int i) {
+        int midPoint = this.container.getWidth(); // Punto medio del contenedor
+    
+        // Evita transferencias múltiples
+        if (store.isTransferred(i)) {
+            return;
+        }
+    
+        int x = store.getX(i);
+        boolean isRed = store.isRed(i);
+        if ((isRed && x >= midPoint) || (!isRed && x <= midPoint)) {
+            store.setPosition(i, isRed ? x - 15 : x + 15, store.getY(i));
+            store.setSpeedX(i, -store.getSpeedX(i));
+            store.setTransferred(i);
+        }
+    }
+
+    /**
+     * Indica si el demonio podría hacer algo con una partícula cuyo centro se
+     * mueve entre minX y maxX. Se usa para saber qué partículas pueden
+     * adelantarse sin simular sus choques.
+     * 
+     * @param store Almacén de partículas
+     * @param i Índice de la partícula en el almacén
+     * @param minX Menor posición en X que tomará la partícula
+     * @param maxX Mayor posición en X que tomará la partícula
+     * @return true si algún choque podría transferir la partícula
+     */
+    public boolean mayAffect(ParticleStore store, int i, int minX, int maxX) {
+        if (store.isTransferred(i)) return false;
+
+        int midPoint = this.container.getWidth();
+        return store.isRed(i) ? maxX >= midPoint : minX <= midPoint;
+    }
+
+    /**
+     * Obtiene la velocidad vertical del demonio.
+     * 
+     * @return La velocidad en Y
+     */
+    public int getSpeedY() {
+        return speedY;
+    }
+
+    /**
+     * Indica si el demonio sigue participando en la simulación.
+     * 
+     * @return true para el demonio normal, que nunca desaparece
+     */
+    public boolean isActive() {
+        return true;
+    }
+
     /**
      * Obtiene la posición vertical actual del demonio.
      * 
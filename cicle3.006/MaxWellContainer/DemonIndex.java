@@ -0,0 +1,401 @@
+package MaxWellContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Índice de los demonios ordenado por su posición en Y.
+ *
+ * <p>Todos los demonios están sobre la línea divisoria, así que solo las
+ * partículas dentro de la franja que cubren pueden chocar con alguno, y solo
+ * con los que están a unas pocas filas de distancia. El índice guarda los
+ * demonios en un árbol por Y: buscar, eliminar y encontrar el más cercano a
+ * una fila cuesta O(log n), y un demonio que se mueve solo cambia su propia
+ * entrada. Entre demonios que cubren la misma fila se conserva el orden de
+ * inserción, que es el orden en que se aplican a una partícula.</p>
+ *
+ * <p>Un demonio que deja de participar (un débil que ya desapareció) se
+ * retira con {@link #retire(Demon)}: sigue contando para las consultas de
+ * posiciones, pero sale del árbol que usan las colisiones y de la franja.</p>
+ */
+public class DemonIndex {
+    private static final Comparator<Slot> BY_ORDER = Comparator.comparingLong(slot -> slot.order);
+
+    private boolean valid; // Indica si el índice refleja la lista de demonios
+    private int radius; // Radio de las partículas
+    private TreeMap<Integer, List<Slot>> byY; // Demonios de cada posición en Y, en orden de inserción
+    private TreeMap<Integer, List<Slot>> activeByY; // Igual, solo con los demonios que siguen participando
+    private Map<Demon, Slot> slots; // Entrada de cada demonio
+    private TreeMap<Integer, Integer> lefts; // Cantidad de demonios con cada borde izquierdo de franja
+    private TreeMap<Integer, Integer> rights; // Cantidad de demonios con cada borde derecho de franja
+    private TreeMap<Integer, Integer> heights; // Cantidad de demonios con cada altura
+    private int bandLeft; // Menor X del centro de una partícula que puede tocar un demonio
+    private int bandRight; // Mayor X del centro de una partícula que puede tocar un demonio
+    private int reach; // Mayor distancia en Y a la que un demonio toca una partícula
+    private long nextOrder; // Orden de inserción del siguiente demonio
+    private int moving; // Demonios activos con velocidad vertical
+    private int[] positions; // Posiciones en Y ordenadas, o null si hay que armarlas
+    private Slot[] found; // Resultado de la última búsqueda por rango
+    private int foundCount;
+
+    /**
+     * Entrada de un demonio en el índice.
+     */
+    private static class Slot {
+        private final Demon demon;
+        private final long order; // Orden de inserción
+        private int y; // Posición con la que está guardado
+        private boolean active; // Indica si está en el árbol de las colisiones
+
+        private Slot(Demon demon, long order) {
+            this.demon = demon;
+            this.order = order;
+            this.y = demon.getYPosition();
+            this.active = true;
+        }
+    }
+
+    /**
+     * Constructor para crear un índice vacío, que se construye en el primer uso.
+     */
+    public DemonIndex() {
+        this.valid = false;
+        this.byY = new TreeMap<>();
+        this.activeByY = new TreeMap<>();
+        this.slots = new IdentityHashMap<>();
+        this.lefts = new TreeMap<>();
+        this.rights = new TreeMap<>();
+        this.heights = new TreeMap<>();
+        this.found = new Slot[4];
+    }
+
+    /**
+     * Marca el índice como desactualizado; se reconstruye en el siguiente uso.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Indica si el índice refleja la lista actual de demonios.
+     *
+     * @return true si no hace falta reconstruirlo.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Reconstruye el índice a partir de la lista de demonios.
+     *
+     * @param demons Los demonios del contenedor, en orden de inserción.
+     * @param radius El radio de las partículas.
+     */
+    public void rebuild(List<Demon> demons, int radius) {
+        this.radius = radius;
+        byY.clear();
+        activeByY.clear();
+        slots.clear();
+        lefts.clear();
+        rights.clear();
+        heights.clear();
+        nextOrder = 0;
+        moving = 0;
+        positions = null;
+        valid = true;
+        for (Demon demon : demons) {
+            add(demon);
+            if (!demon.isActive()) {
+                retire(demon);
+            }
+        }
+        refresh();
+    }
+
+    /**
+     * Agrega un demonio insertado al final de la lista. Si el índice está
+     * desactualizado no hace nada: la reconstrucción lo incluirá.
+     *
+     * @param demon El demonio agregado.
+     */
+    public void add(Demon demon) {
+        if (!valid) return;
+
+        Slot slot = new Slot(demon, nextOrder++);
+        slots.put(demon, slot);
+        link(byY, slot);
+        link(activeByY, slot);
+        counted(demon, 1);
+        positions = null;
+    }
+
+    /**
+     * Quita un demonio del índice.
+     *
+     * @param demon El demonio quitado de la lista.
+     */
+    public void remove(Demon demon) {
+        if (!valid) return;
+
+        Slot slot = slots.remove(demon);
+        if (slot == null) return;
+        unlink(byY, slot);
+        if (slot.active) {
+            unlink(activeByY, slot);
+            counted(demon, -1);
+        }
+        positions = null;
+    }
+
+    /**
+     * Saca a un demonio que dejó de participar del árbol de las colisiones y
+     * de la franja. Sigue apareciendo en las posiciones y en las búsquedas.
+     *
+     * @param demon El demonio retirado.
+     */
+    public void retire(Demon demon) {
+        if (!valid) return;
+
+        Slot slot = slots.get(demon);
+        if (slot == null || !slot.active) return;
+        unlink(activeByY, slot);
+        slot.active = false;
+        counted(demon, -1);
+    }
+
+    /**
+     * Actualiza la entrada de un demonio que cambió de posición en Y.
+     *
+     * @param demon El demonio que se movió.
+     */
+    public void moved(Demon demon) {
+        if (!valid) return;
+
+        Slot slot = slots.get(demon);
+        if (slot == null || slot.y == demon.getYPosition()) return;
+
+        unlink(byY, slot);
+        if (slot.active) {
+            unlink(activeByY, slot);
+        }
+        slot.y = demon.getYPosition();
+        link(byY, slot);
+        if (slot.active) {
+            link(activeByY, slot);
+        }
+        positions = null;
+    }
+
+    /**
+     * Obtiene el primer demonio insertado que está exactamente en una posición.
+     *
+     * @param y La posición en Y.
+     * @return El demonio, o null si no hay ninguno en esa posición.
+     */
+    public Demon first(int y) {
+        List<Slot> row = byY.get(y);
+        return row == null ? null : row.get(0).demon;
+    }
+
+    /**
+     * Obtiene el demonio más cercano a una posición. Si dos quedan a la misma
+     * distancia, gana el de menor Y.
+     *
+     * @param y La posición en Y.
+     * @return El demonio, o null si no hay demonios.
+     */
+    public Demon nearest(int y) {
+        Integer below = byY.floorKey(y);
+        Integer above = byY.ceilingKey(y);
+        if (below == null && above == null) return null;
+        if (below == null) return first(above);
+        if (above == null || y - below <= above - y) return first(below);
+        return first(above);
+    }
+
+    /**
+     * Obtiene las posiciones en Y de todos los demonios, de menor a mayor.
+     * El arreglo se reutiliza mientras el índice no cambie y no debe modificarse.
+     *
+     * @return Las posiciones ordenadas.
+     */
+    public int[] positions() {
+        if (positions == null) {
+            int[] result = new int[slots.size()];
+            int next = 0;
+            for (Map.Entry<Integer, List<Slot>> entry : byY.entrySet()) {
+                for (int k = 0; k < entry.getValue().size(); k++) {
+                    result[next++] = entry.getKey();
+                }
+            }
+            positions = result;
+        }
+        return positions;
+    }
+
+    /**
+     * Obtiene la mayor distancia en Y a la que un demonio puede tocar el centro de una partícula.
+     *
+     * @return La altura del demonio más alto más el radio, o -1 si no hay demonios activos.
+     */
+    public int getReach() {
+        return reach;
+    }
+
+    /**
+     * Indica si algún demonio tiene velocidad vertical.
+     *
+     * @return true si hay demonios activos que se mueven.
+     */
+    public boolean hasMoving() {
+        return moving > 0;
+    }
+
+    /**
+     * Indica si algún demonio está lo bastante cerca en Y para tocar una partícula.
+     * Se puede consultar desde varios hilos mientras nadie modifique el índice.
+     *
+     * @param y La posición en Y de la partícula.
+     * @return true si hay algún demonio a menos del alcance.
+     */
+    public boolean hasNear(int y) {
+        if (reach < 0) return false;
+        Integer key = activeByY.ceilingKey(y - reach);
+        return key != null && key <= y + reach;
+    }
+
+    /**
+     * Busca los demonios activos con posición en Y entre minY y maxY, en orden de
+     * inserción. El resultado se lee con {@link #foundAt(int)} y se pierde en
+     * la siguiente búsqueda.
+     *
+     * @param minY La menor posición en Y.
+     * @param maxY La mayor posición en Y.
+     * @return La cantidad de demonios encontrados.
+     */
+    public int near(int minY, int maxY) {
+        foundCount = 0;
+        if (minY > maxY) return 0;
+        for (List<Slot> row : activeByY.subMap(minY, true, maxY, true).values()) {
+            for (Slot slot : row) {
+                if (foundCount == found.length) {
+                    found = Arrays.copyOf(found, 2 * foundCount);
+                }
+                found[foundCount++] = slot;
+            }
+        }
+        if (foundCount > 1) {
+            Arrays.sort(found, 0, foundCount, BY_ORDER);
+        }
+        return foundCount;
+    }
+
+    /**
+     * Obtiene un demonio del resultado de la última búsqueda.
+     *
+     * @param n La posición en el resultado, entre 0 y la cantidad encontrada - 1.
+     * @return El demonio.
+     */
+    public Demon foundAt(int n) {
+        return found[n].demon;
+    }
+
+    /**
+     * Indica si una partícula con centro en x está dentro de la franja de los demonios.
+     *
+     * @param x La posición en X de la partícula.
+     * @return true si algún demonio podría tocarla en esa X.
+     */
+    public boolean inBand(int x) {
+        return x >= bandLeft && x <= bandRight;
+    }
+
+    /**
+     * Indica si algún punto con X entre minX y maxX cae en la franja de los demonios.
+     *
+     * @param minX La menor posición en X del rango.
+     * @param maxX La mayor posición en X del rango.
+     * @return true si el rango toca la franja.
+     */
+    public boolean touchesBand(int minX, int maxX) {
+        return minX <= bandRight && maxX >= bandLeft;
+    }
+
+    /**
+     * Obtiene la menor X del centro de una partícula que puede tocar un demonio.
+     *
+     * @return El borde izquierdo de la franja, o Integer.MAX_VALUE si no hay demonios.
+     */
+    public int getBandLeft() {
+        return bandLeft;
+    }
+
+    /**
+     * Obtiene la mayor X del centro de una partícula que puede tocar un demonio.
+     *
+     * @return El borde derecho de la franja, o Integer.MIN_VALUE si no hay demonios.
+     */
+    public int getBandRight() {
+        return bandRight;
+    }
+
+    /**
+     * Guarda una entrada en un árbol, detrás de las insertadas antes que ella.
+     */
+    private static void link(TreeMap<Integer, List<Slot>> tree, Slot slot) {
+        List<Slot> row = tree.computeIfAbsent(slot.y, y -> new ArrayList<>(1));
+        int at = row.size();
+        while (at > 0 && row.get(at - 1).order > slot.order) {
+            at--;
+        }
+        row.add(at, slot);
+    }
+
+    /**
+     * Quita una entrada de un árbol, borrando la posición si queda vacía.
+     */
+    private static void unlink(TreeMap<Integer, List<Slot>> tree, Slot slot) {
+        List<Slot> row = tree.get(slot.y);
+        row.remove(slot);
+        if (row.isEmpty()) {
+            tree.remove(slot.y);
+        }
+    }
+
+    /**
+     * Suma o resta un demonio activo de los conteos de la franja y del alcance.
+     */
+    private void counted(Demon demon, int delta) {
+        count(lefts, demon.getXPosition() - demon.getWidth() - radius, delta);
+        count(rights, demon.getXPosition() + demon.getWidth() + radius, delta);
+        count(heights, demon.getHeight(), delta);
+        if (demon.getSpeedY() != 0) moving += delta;
+        refresh();
+    }
+
+    /**
+     * Recalcula la franja y el alcance a partir de los conteos.
+     */
+    private void refresh() {
+        bandLeft = lefts.isEmpty() ? Integer.MAX_VALUE : lefts.firstKey();
+        bandRight = rights.isEmpty() ? Integer.MIN_VALUE : rights.lastKey();
+        reach = heights.isEmpty() ? -1 : heights.lastKey() + radius;
+    }
+
+    /**
+     * Suma delta a la cantidad de demonios con un valor, quitando los valores que quedan en cero.
+     */
+    private static void count(TreeMap<Integer, Integer> counts, int key, int delta) {
+        int total = counts.getOrDefault(key, 0) + delta;
+        if (total == 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, total);
+        }
+    }
+}
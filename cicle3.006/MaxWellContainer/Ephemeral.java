@@ -26,7 +26,7 @@ public class Ephemeral extends Particle {
     }
 
     /**
-     * Mueve la partícula y maneja las colisiones con pérdida de velocidad.
+     * Mueve la partícula y la oculta si desapareció durante el movimiento.
      *
      * @param containerWidth  El ancho del contenedor.
      * @param containerHeight La altura del contenedor.
@@ -36,7 +36,23 @@ public class Ephemeral extends Particle {
     public void move(int containerWidth, int containerHeight, int lineX) {
         if (!isActive) return; // Si la partícula está inactiva, no hacer nada
 
-        erase(); // Borra la partícula de su posición actual.
+        super.move(containerWidth, containerHeight, lineX);
+
+        if (!isActive) {
+            makeInvisible();
+        }
+    }
+
+    /**
+     * Avanza la partícula un tick, manejando las colisiones con pérdida de velocidad.
+     *
+     * @param containerWidth  El ancho del contenedor.
+     * @param containerHeight La altura del contenedor.
+     * @param lineX           La posición en X de la línea divisoria.
+     */
+    @Override
+    public void step(int containerWidth, int containerHeight, int lineX) {
+        if (!isActive) return;
 
         // Actualiza la posición de la partícula según su velocidad.
         int newX = getXPosition() + getSpeedX();
@@ -64,7 +80,7 @@ public class Ephemeral extends Particle {
         }
 
         // Mover la partícula (el padre maneja el rebote)
-        super.move(containerWidth, containerHeight, lineX);
+        super.step(containerWidth, containerHeight, lineX);
 
         // Verificar si la partícula debe desaparecer
         checkIfShouldDisappear();
@@ -90,67 +106,34 @@ public class Ephemeral extends Particle {
             newSpeedY++;
         }
 
-        // Actualizar las velocidades (necesitaríamos setters en la clase padre)
-        // Como la clase Particle no tiene setters para speedX y speedY,
-        // necesitamos acceder directamente a los campos o modificar la clase padre
-        // Para este ejemplo, asumiremos que hay métodos para establecer la velocidad
         setSpeedX(newSpeedX);
         setSpeedY(newSpeedY);
     }
 
     /**
      * Verifica si la partícula debe desaparecer (velocidad 0,0).
-     * Si es así, la marca como inactiva y la borra de la pantalla.
+     * Si es así, la marca como inactiva; quien la dibuja se encarga de ocultarla.
      */
     private void checkIfShouldDisappear() {
         if (getSpeedX() == 0 && getSpeedY() == 0) {
-            erase();
-            isActive = false;
+            disappear();
         }
     }
 
     /**
-     * Indica si la partícula está activa (no ha desaparecido).
-     *
-     * @return true si la partícula está activa, false si ha desaparecido.
+     * Marca la partícula como desaparecida.
      */
-    public boolean isActive() {
-        return isActive;
+    void disappear() {
+        isActive = false;
     }
 
-    // Métodos para establecer la velocidad (necesarios porque la clase padre no los tiene)
-    // Estos deberían estar en la clase Particle, pero los añadimos aquí
-    // En una implementación real, sería mejor añadirlos a la clase padre
-    
     /**
-     * Establece la velocidad en el eje X.
-     * @param speedX La nueva velocidad en el eje X.
-     */
-    public void setSpeedX(int speedX) {
-        // Esto asume que speedX es accesible o hay un método para cambiarlo
-        // En una implementación real, la clase Particle debería tener este setter
-        // Usamos reflexión para acceder al campo privado de la clase padre
-        try {
-            java.lang.reflect.Field field = Particle.class.getDeclaredField("speedX");
-            field.setAccessible(true);
-            field.set(this, speedX);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Establece la velocidad en el eje Y.
-     * @param speedY La nueva velocidad en el eje Y.
+     * Indica si la partícula está activa (no ha desaparecido ni fue atrapada).
+     *
+     * @return true si la partícula está activa, false si ha desaparecido.
      */
-    public void setSpeedY(int speedY) {
-        // Similar al método setSpeedX
-        try {
-            java.lang.reflect.Field field = Particle.class.getDeclaredField("speedY");
-            field.setAccessible(true);
-            field.set(this, speedY);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+    @Override
+    public boolean isActive() {
+        return isActive && super.isActive();
     }
 }
@@ -0,0 +1,408 @@
+package MaxWellContainer;
+
+import java.util.List;
+
+/**
+ * Motor de simulación dirigido por eventos. Da exactamente el mismo resultado
+ * que {@link SimulationEngine}, pero en lugar de revisar todas las partículas
+ * en cada tick solo atiende a las que tienen algo que hacer.
+ *
+ * <p>Entre un rebote y el siguiente una partícula avanza en línea recta, así
+ * que su posición se puede calcular en cualquier tick sin simularla. Para cada
+ * partícula se calcula el primer tick en que rebota contra un borde o la línea
+ * divisoria, entra a la franja de los demonios o alcanza un agujero con
+ * capacidad; ese tick se guarda en una cola de prioridad ordenada por tick y
+ * por índice. En cada tick con eventos se mueven solo esas partículas con las
+ * reglas normales (incluido el intercambio de velocidades de {@link Rotator} y
+ * la desaceleración de {@link Ephemeral}) y se resuelven sus choques en el
+ * mismo orden que el motor por ticks. Los agujeros candidatos se buscan en la
+ * {@link HoleGrid}, solo junto a las celdas que cruza el tramo recto, así que
+ * el costo crece con el número de eventos, no con partículas por ticks ni
+ * con eventos por agujeros.</p>
+ *
+ * <p>Mientras algún agujero móvil se está moviendo, los contactos cambian en
+ * cada tick y el motor avanza tick por tick como el motor base.</p>
+ */
+public class EventEngine extends SimulationEngine {
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private long[] since; // Tick en que es válido el estado guardado de cada partícula
+    private long[] eventTick; // Montículo de eventos: tick de cada evento
+    private int[] eventParticle; // Montículo de eventos: partícula de cada evento
+    private int events; // Cantidad de eventos en el montículo
+    private int[] batch; // Partículas con evento en el tick que se procesa
+    private boolean demonsMove; // Indica si algún demonio tiene velocidad
+    private long demonTick; // Tick hasta el que se movieron los demonios
+    private long processed; // Eventos atendidos desde la creación del motor
+    private long current; // Tick de los eventos que se están atendiendo
+    private long logged; // Último tick cuyas posiciones ya están en el registro
+
+    /**
+     * Constructor para crear un motor por eventos sobre las entidades de un contenedor.
+     *
+     * @param width     El ancho de cada mitad del contenedor.
+     * @param height    La altura del contenedor.
+     * @param particles Las partículas del contenedor.
+     * @param demons    Los demonios del contenedor.
+     * @param holes     Los agujeros del contenedor.
+     */
+    public EventEngine(int width, int height, List<Particle> particles, List<Demon> demons, List<Hole> holes) {
+        super(width, height, particles, demons, holes);
+        this.processed = 0;
+    }
+
+    /**
+     * Avanza la simulación un número de ticks atendiendo solo los eventos.
+     *
+     * @param ticks El número de ticks a simular.
+     */
+    @Override
+    public void run(int ticks) {
+        prepare();
+
+        long end = this.ticks + ticks;
+        while (this.ticks < end && hasMovingHoles()) {
+            advance();
+        }
+        if (this.ticks < end) {
+            simulate(end);
+        }
+        sync();
+    }
+
+    /**
+     * Obtiene el número de eventos atendidos por este motor.
+     *
+     * @return Los eventos procesados.
+     */
+    public long getEvents() {
+        return processed;
+    }
+
+    /**
+     * Simula hasta el tick end procesando la cola de eventos.
+     */
+    private void simulate(long end) {
+        ensureDemonIndex();
+        ensureGrid();
+
+        int size = store.size();
+        since = new long[size];
+        eventTick = new long[size];
+        eventParticle = new int[size];
+        batch = new int[size];
+        events = 0;
+        demonsMove = false;
+        for (Demon demon : demons) {
+            demonsMove |= demon.getSpeedY() != 0;
+        }
+        demonTick = ticks;
+        logged = ticks;
+
+        for (int i = 0; i < size; i++) {
+            if (store.isActive(i)) {
+                since[i] = ticks;
+                schedule(i, ticks, end);
+            }
+        }
+
+        while (events > 0 && eventTick[0] <= end) {
+            // La cola entrega las partículas del mismo tick en orden de índice
+            long tick = eventTick[0];
+            int count = 0;
+            while (events > 0 && eventTick[0] == tick) {
+                batch[count++] = pop();
+            }
+
+            logUntil(tick - 1);
+            process(tick, count);
+            logUntil(tick);
+            for (int n = 0; n < count; n++) {
+                if (store.isActive(batch[n])) {
+                    schedule(batch[n], tick, end);
+                }
+            }
+            processed += count;
+        }
+
+        moveDemons(end);
+        logUntil(end);
+        for (int i = 0; i < size; i++) {
+            if (store.isActive(i)) {
+                drift(i, end);
+            }
+        }
+        ticks = end;
+        since = null;
+        eventTick = null;
+        eventParticle = null;
+        batch = null;
+    }
+
+    /**
+     * Atiende las partículas con evento en un tick: las mueve con las reglas
+     * normales y resuelve sus choques, primero con demonios y luego con agujeros.
+     */
+    private void process(long tick, int count) {
+        current = tick;
+        moveDemons(tick);
+        for (int n = 0; n < count; n++) {
+            int i = batch[n];
+            drift(i, tick - 1);
+            store.step(i, 2 * width, height, width);
+            since[i] = tick;
+        }
+
+        ensureDemonIndex();
+        for (int n = 0; n < count; n++) {
+            if (nearDemon(batch[n])) {
+                resolveDemons(batch[n]);
+            }
+        }
+        for (int n = 0; n < count; n++) {
+            if (nearHole(batch[n])) {
+                resolveHoles(batch[n]);
+            }
+        }
+        compact();
+    }
+
+    /**
+     * Obtiene el tick de los eventos que se están atendiendo.
+     *
+     * @return El número del tick en curso.
+     */
+    @Override
+    protected long currentTick() {
+        // Fuera de la cola de eventos se avanza tick por tick, como el motor base
+        return since != null ? current : super.currentTick();
+    }
+
+    /**
+     * Registra la posición de cada partícula activa al final de cada tick
+     * que falta hasta el dado, igual que el motor por ticks. Entre eventos
+     * cada partícula avanza en línea recta, así que su posición sale de su
+     * último estado sin moverla.
+     */
+    private void logUntil(long tick) {
+        if (log == null) return;
+
+        for (long t = logged + 1; t <= tick; t++) {
+            for (int n = 0; n < store.liveCount(); n++) {
+                int i = store.liveAt(n);
+                long elapsed = t - since[i];
+                log.record(t, store.getId(i),
+                    (int) (store.getX(i) + elapsed * store.getSpeedX(i)),
+                    (int) (store.getY(i) + elapsed * store.getSpeedY(i)), EventLog.MOVE);
+            }
+        }
+        logged = Math.max(logged, tick);
+    }
+
+    /**
+     * Lleva una partícula en línea recta hasta un tick anterior a su próximo evento.
+     */
+    private void drift(int i, long tick) {
+        long elapsed = tick - since[i];
+        if (elapsed <= 0) return;
+
+        store.setPosition(i,
+            (int) (store.getX(i) + elapsed * store.getSpeedX(i)),
+            (int) (store.getY(i) + elapsed * store.getSpeedY(i)));
+        since[i] = tick;
+    }
+
+    /**
+     * Pone los demonios en su posición del tick dado.
+     */
+    private void moveDemons(long tick) {
+        if (demonsMove && tick > demonTick) {
+            skipObstacles(tick - demonTick);
+        }
+        demonTick = tick;
+    }
+
+    /**
+     * Calcula el próximo evento de una partícula y lo agrega a la cola si
+     * ocurre antes del final de la corrida.
+     */
+    private void schedule(int i, long now, long end) {
+        long next = nextEvent(i);
+        if (next != NEVER && now + next <= end) {
+            push(now + next, i);
+        }
+    }
+
+    /**
+     * Calcula en cuántos ticks la partícula rebota, entra a la franja de los
+     * demonios o alcanza un agujero, suponiendo que hasta entonces avanza en
+     * línea recta.
+     */
+    private long nextEvent(int i) {
+        int x = store.getX(i);
+        int y = store.getY(i);
+        int vx = store.getSpeedX(i);
+        int vy = store.getSpeedY(i);
+        byte type = store.getType(i);
+
+        // El rotador y la efímera cambian de velocidad con cualquier choque,
+        // aunque sea sobre un eje en el que no se mueven
+        boolean strict = type == ParticleStore.ROTATOR || type == ParticleStore.EPHEMERAL;
+        if (type == ParticleStore.EPHEMERAL && vx == 0 && vy == 0) return 1;
+
+        long next = Math.min(firstBounce(x, vx, 2 * width, width, strict), firstBounce(y, vy, height, -1, strict));
+        next = Math.min(next, firstInBand(x, vx));
+        if (type != ParticleStore.FLYING) {
+            // Solo los agujeros junto a las celdas que cruza el tramo recto
+            long span = next == NEVER ? 0 : next;
+            int found = grid.along(x, y, span * vx, span * vy);
+            for (int n = 0; n < found; n++) {
+                Hole hole = holes.get(grid.candidate(n));
+                if (hole.getRemainingCapacity() > 0) {
+                    next = Math.min(next, firstReach(hole, x, y, vx, vy, next));
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Calcula el primer tick en que el movimiento sobre un eje choca con un
+     * borde o con la línea divisoria, con las mismas condiciones del almacén.
+     *
+     * @param lineX La línea divisoria, o -1 en el eje Y.
+     */
+    private long firstBounce(int position, int speed, int size, int lineX, boolean strict) {
+        int diameter = store.getDiameter();
+        if (speed == 0) {
+            boolean collides = position <= 0 || position + diameter >= size || position == lineX;
+            return strict && collides ? 1 : NEVER;
+        }
+
+        long next;
+        if (speed > 0) {
+            if (position + speed <= 0) return 1;
+            next = Math.max(1, ceilDiv(size - diameter - position, speed));
+            if (lineX >= 0 && position <= lineX) {
+                next = Math.min(next, Math.max(1, ceilDiv(lineX - position, speed)));
+            }
+        } else {
+            if (position + speed + diameter >= size) return 1;
+            next = Math.max(1, ceilDiv(position, -speed));
+            if (lineX >= 0 && position >= lineX) {
+                next = Math.min(next, Math.max(1, ceilDiv(position - lineX, -speed)));
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Calcula el primer tick en que la partícula queda dentro de la franja de
+     * los demonios. Mientras está dentro, el evento es el tick siguiente.
+     */
+    private long firstInBand(int x, int speed) {
+        int left = demonIndex.getBandLeft();
+        int right = demonIndex.getBandRight();
+        if (left > right) return NEVER;
+
+        if (speed == 0) {
+            return x >= left && x <= right ? 1 : NEVER;
+        }
+        long next;
+        if (speed > 0) {
+            if (x > right) return NEVER;
+            next = Math.max(1, ceilDiv(left - x, speed));
+            return x + next * speed <= right ? next : NEVER;
+        }
+        if (x < left) return NEVER;
+        next = Math.max(1, ceilDiv(x - right, -speed));
+        return x + next * speed >= left ? next : NEVER;
+    }
+
+    /**
+     * Calcula el primer tick, hasta limit, en que la partícula queda dentro del
+     * radio de un agujero. Resuelve la ecuación cuadrática de la distancia y
+     * confirma con enteros los ticks vecinos a la raíz.
+     */
+    private long firstReach(Hole hole, int x, int y, int vx, int vy, long limit) {
+        if (vx == 0 && vy == 0) {
+            return hole.covers(x, y) ? 1 : NEVER;
+        }
+
+        long dx = x - hole.getXPosition();
+        long dy = y - hole.getYPosition();
+        long radius = hole.getDiameter() / 2;
+        long a = (long) vx * vx + (long) vy * vy;
+        long b = 2 * (dx * vx + dy * vy);
+        long c = dx * dx + dy * dy - radius * radius;
+        double discriminant = (double) b * b - 4.0 * a * c;
+        if (discriminant < 0) return NEVER;
+
+        double root = Math.sqrt(discriminant);
+        double enter = (-b - root) / (2.0 * a);
+        double leave = (-b + root) / (2.0 * a);
+        if (leave < 0) return NEVER;
+
+        long from = Math.max(1, (long) Math.floor(enter) - 1);
+        long to = Math.min(limit, (long) Math.ceil(leave) + 1);
+        for (long k = from; k <= to; k++) {
+            if (hole.covers((int) (x + k * vx), (int) (y + k * vy))) return k;
+        }
+        return NEVER;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+
+    /**
+     * Agrega un evento al montículo.
+     */
+    private void push(long tick, int i) {
+        int slot = events++;
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (!before(tick, i, eventTick[parent], eventParticle[parent])) break;
+
+            eventTick[slot] = eventTick[parent];
+            eventParticle[slot] = eventParticle[parent];
+            slot = parent;
+        }
+        eventTick[slot] = tick;
+        eventParticle[slot] = i;
+    }
+
+    /**
+     * Saca el evento más próximo del montículo.
+     *
+     * @return La partícula del evento.
+     */
+    private int pop() {
+        int first = eventParticle[0];
+        long tick = eventTick[--events];
+        int i = eventParticle[events];
+
+        int slot = 0;
+        while (2 * slot + 1 < events) {
+            int child = 2 * slot + 1;
+            if (child + 1 < events && before(eventTick[child + 1], eventParticle[child + 1], eventTick[child], eventParticle[child])) {
+                child++;
+            }
+            if (!before(eventTick[child], eventParticle[child], tick, i)) break;
+
+            eventTick[slot] = eventTick[child];
+            eventParticle[slot] = eventParticle[child];
+            slot = child;
+        }
+        eventTick[slot] = tick;
+        eventParticle[slot] = i;
+        return first;
+    }
+
+    /**
+     * Indica si un evento va antes que otro: primero por tick y luego por índice.
+     */
+    private static boolean before(long tick, int i, long otherTick, int other) {
+        return tick < otherTick || (tick == otherTick && i < other);
+    }
+}
@@ -0,0 +1,183 @@
+package MaxWellContainer;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de eventos de la simulación que no frena el tick.
+ *
+ * <p>Los registros se guardan en un anillo de arreglos primitivos reservado
+ * de antemano (tick, id, x, y, tipo), así que registrar un evento no crea
+ * objetos ni formatea texto. Un hilo aparte vacía el anillo hacia un
+ * {@link EventSink}, por ejemplo un {@link BinaryEventSink}. Solo el hilo de
+ * la simulación escribe y solo el hilo del registro lee; cada uno publica su
+ * avance con una escritura ordenada, sin candados. Si el anillo se llena, la
+ * simulación espera a que el hilo lo vacíe en lugar de perder registros.</p>
+ *
+ * <p>El registro está apagado mientras el motor no tenga uno asignado: la
+ * simulación solo revisa si la referencia es nula.</p>
+ */
+public class EventLog {
+    public static final byte MOVE = 0; // Posición de una partícula al final de un tick
+    public static final byte TRANSFER = 1; // Un demonio pasó la partícula al otro lado
+    public static final byte TRAP = 2; // Un agujero atrapó la partícula
+    private static final long IDLE_NANOS = 1_000_000; // Espera del hilo cuando no hay registros
+    private static final long FULL_NANOS = 10_000; // Espera de la simulación cuando el anillo está lleno
+
+    private long[] ticks;
+    private int[] ids;
+    private int[] xs;
+    private int[] ys;
+    private byte[] kinds;
+    private int mask; // Capacidad - 1; la capacidad es potencia de dos
+    private AtomicLong head; // Siguiente registro que leerá el hilo
+    private AtomicLong tail; // Siguiente registro que escribirá la simulación
+    private long headCache; // Última lectura de head hecha por la simulación
+    private volatile boolean closed;
+    private EventSink sink;
+    private IOException error; // Primer error del destino
+    private Thread drainer;
+
+    /**
+     * Constructor para crear un registro y arrancar su hilo.
+     *
+     * @param sink     El destino de los registros.
+     * @param capacity La cantidad de registros del anillo; se redondea a potencia de dos.
+     */
+    public EventLog(EventSink sink, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos 1");
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.ticks = new long[size];
+        this.ids = new int[size];
+        this.xs = new int[size];
+        this.ys = new int[size];
+        this.kinds = new byte[size];
+        this.mask = size - 1;
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+        this.sink = sink;
+        this.drainer = new Thread(this::drain, "event-log");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Agrega un registro al anillo. Solo puede llamarse desde un hilo.
+     *
+     * @param tick El tick en que ocurrió el evento.
+     * @param id   El identificador de la partícula.
+     * @param x    La posición en X de la partícula.
+     * @param y    La posición en Y de la partícula.
+     * @param kind El tipo de evento.
+     */
+    public void record(long tick, int id, int x, int y, byte kind) {
+        long t = tail.get();
+        if (t - headCache > mask) {
+            headCache = head.get();
+            while (t - headCache > mask) {
+                LockSupport.parkNanos(FULL_NANOS);
+                headCache = head.get();
+            }
+        }
+
+        int slot = (int) (t & mask);
+        ticks[slot] = tick;
+        ids[slot] = id;
+        xs[slot] = x;
+        ys[slot] = y;
+        kinds[slot] = kind;
+        tail.lazySet(t + 1);
+    }
+
+    /**
+     * Obtiene el número de registros agregados desde que se creó el registro.
+     *
+     * @return Los registros agregados.
+     */
+    public long getRecorded() {
+        return tail.get();
+    }
+
+    /**
+     * Espera a que el hilo escriba todos los registros, cierra el destino y
+     * detiene el hilo.
+     *
+     * @throws IOException Si el destino falló al escribir o al cerrarse.
+     */
+    public void close() throws IOException {
+        closed = true;
+        boolean interrupted = false;
+        while (drainer.isAlive()) {
+            try {
+                drainer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Ciclo del hilo del registro: entrega al destino todo lo publicado y
+     * espera cuando no hay nada. Si el destino falla, los registros se
+     * descartan para que la simulación no quede esperando.
+     */
+    private void drain() {
+        boolean dirty = false;
+        while (true) {
+            boolean done = closed;
+            long h = head.get();
+            long t = tail.get();
+            if (h == t) {
+                if (dirty) {
+                    flush();
+                    dirty = false;
+                }
+                if (done) break;
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+
+            for (; h < t; h++) {
+                int slot = (int) (h & mask);
+                if (error == null) {
+                    try {
+                        sink.accept(ticks[slot], ids[slot], xs[slot], ys[slot], kinds[slot]);
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+            }
+            head.lazySet(t);
+            dirty = true;
+        }
+
+        try {
+            sink.close();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Pide al destino que escriba lo pendiente.
+     */
+    private void flush() {
+        if (error != null) return;
+        try {
+            sink.flush();
+        } catch (IOException e) {
+            error = e;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package MaxWellContainer;
+
+import java.io.IOException;
+
+/**
+ * Destino de los registros de un {@link EventLog}. El hilo del registro lo
+ * llama siempre desde el mismo hilo, así que no necesita sincronización.
+ */
+public interface EventSink {
+    /**
+     * Recibe un registro.
+     *
+     * @param tick El tick en que ocurrió el evento.
+     * @param id   El identificador de la partícula.
+     * @param x    La posición en X de la partícula.
+     * @param y    La posición en Y de la partícula.
+     * @param kind El tipo de evento ({@link EventLog#MOVE}, {@link EventLog#TRANSFER} o {@link EventLog#TRAP}).
+     * @throws IOException Si el destino no puede escribir el registro.
+     */
+    void accept(long tick, int id, int x, int y, byte kind) throws IOException;
+
+    /**
+     * Escribe lo que el destino tenga pendiente. Se llama cada vez que el
+     * registro queda vacío.
+     *
+     * @throws IOException Si el destino no puede escribir.
+     */
+    default void flush() throws IOException {
+    }
+
+    /**
+     * Cierra el destino. Se llama una sola vez, después del último registro.
+     *
+     * @throws IOException Si el destino no se puede cerrar.
+     */
+    default void close() throws IOException {
+    }
+}
@@ -78,9 +78,7 @@ public class Flying extends Particle {
      * @return true si está sobre el agujero, false en caso contrario.
      */
     private boolean isOverHole(Hole hole) {
-        double distance = Math.sqrt(Math.pow(getXPosition() - hole.getXPosition(), 2) + 
-                          Math.pow(getYPosition() - hole.getYPosition(), 2));
-        return distance <= hole.getDiameter() / 2;
+        return hole.covers(getXPosition(), getYPosition());
     }
 
     /**
@@ -1,7 +1,5 @@
 package MaxWellContainer;
 import Shapes.*;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Clase que representa un agujero en el contenedor de Maxwell.
@@ -11,7 +9,6 @@ import java.util.List;
 public class Hole extends Circle {
     private int capacity; // Capacidad máxima de partículas que el agujero puede atrapar.
     private int remainingCapacity; // Capacidad restante del agujero.
-    private List<Particle> trappedParticles; // Lista de partículas atrapadas en el agujero.
     private int originalX; // Almacena la coordenada X original (puede ser negativa)
 
     /**
@@ -28,7 +25,6 @@ public class Hole extends Circle {
         super(x, y, color, diameter);
         this.capacity = capacity;
         this.remainingCapacity = capacity;
-        this.trappedParticles = new ArrayList<>();
         this.originalX = originalX;
     }
 
@@ -50,21 +46,46 @@ public class Hole extends Circle {
      * @param particle La partícula que se intenta atrapar
      */
     public void trapParticle(Particle particle) {
-        // No atrapar partículas voladoras
-        if (particle instanceof Flying) return;
+        // No atrapar partículas voladoras ni las que ya salieron de la simulación
+        if (particle instanceof Flying || !particle.isActive()) return;
         
-        if (trappedParticles.size() < capacity) {
-            double distance = Math.sqrt(Math.pow(particle.getXPosition() - xPosition, 2) 
-                                + Math.pow(particle.getYPosition() - yPosition, 2));
-                
-            if (distance <= diameter / 2) {
-                trappedParticles.add(particle);
-                remainingCapacity--;
-                particle.makeInvisible();
-            }
+        if (remainingCapacity > 0 && covers(particle.getXPosition(), particle.getYPosition())) {
+            remainingCapacity--;
+            particle.trap();
         }
     }
 
+    /**
+     * Intenta atrapar una partícula del almacén del motor, con las mismas reglas
+     * que {@link #trapParticle(Particle)}.
+     *
+     * @param store El almacén de partículas
+     * @param i El índice de la partícula en el almacén
+     */
+    public void trapParticle(ParticleStore store, int i) {
+        if (store.getType(i) == ParticleStore.FLYING || !store.isActive(i)) return;
+
+        if (remainingCapacity > 0 && covers(store.getX(i), store.getY(i))) {
+            remainingCapacity--;
+            store.trap(i);
+        }
+    }
+
+    /**
+     * Indica si un punto está dentro del área de influencia del agujero.
+     * Compara distancias al cuadrado con enteros, sin raíces.
+     *
+     * @param x La posición en X del punto
+     * @param y La posición en Y del punto
+     * @return true si el punto está a lo sumo a un radio del agujero
+     */
+    public boolean covers(int x, int y) {
+        long dx = x - xPosition;
+        long dy = y - yPosition;
+        long radius = diameter / 2;
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
     /**
      * Obtiene la capacidad restante del agujero.
      *
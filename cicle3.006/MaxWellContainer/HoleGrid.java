@@ -0,0 +1,293 @@
+package MaxWellContainer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Rejilla uniforme sobre el contenedor que agrupa los agujeros por celda.
+ *
+ * <p>Una partícula solo puede caer en un agujero cuyo centro esté a menos de
+ * un radio de distancia, así que basta con revisar los agujeros de su celda y
+ * de las ocho vecinas. Los agujeros móviles se cambian de celda a medida que
+ * se mueven, sin reconstruir la rejilla, y los que se llenan se retiran.</p>
+ */
+public class HoleGrid {
+    private static final int MIN_CELL_SIZE = 16;
+    private static final int MAX_CELLS_PER_HOLE = 4;
+
+    private boolean valid; // Indica si la rejilla refleja la lista de agujeros
+    private int cellSize;
+    private int columns;
+    private int rows;
+    private int[][] cells; // Índices de agujeros por celda, en orden de inserción
+    private int[] counts; // Cantidad de agujeros en cada celda
+    private int[] cellOf; // Celda actual de cada agujero, o -1 si ya está lleno
+    private int[] candidates; // Memoria reutilizada para las consultas
+    private int[] seen; // Última consulta en que se encontró cada agujero, para no repetirlo
+    private int query; // Número de la consulta en curso de along
+
+    /**
+     * Constructor para crear una rejilla vacía, que se construye en el primer uso.
+     */
+    public HoleGrid() {
+        this.valid = false;
+        this.candidates = new int[8];
+    }
+
+    /**
+     * Marca la rejilla como desactualizada; se reconstruye en la siguiente consulta.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Indica si la rejilla refleja la lista actual de agujeros.
+     *
+     * @return true si no hace falta reconstruirla.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Reconstruye la rejilla a partir de la lista de agujeros.
+     *
+     * @param holes           Los agujeros del contenedor.
+     * @param containerWidth  El ancho total del contenedor.
+     * @param containerHeight La altura del contenedor.
+     */
+    public void rebuild(List<Hole> holes, int containerWidth, int containerHeight) {
+        // Celdas al menos del radio del agujero más grande, y no más de unas
+        // pocas por agujero para que la rejilla no crezca con el área
+        cellSize = MIN_CELL_SIZE;
+        for (Hole hole : holes) {
+            cellSize = Math.max(cellSize, hole.getDiameter() / 2);
+        }
+        long maxCells = Math.max(MAX_CELLS_PER_HOLE * (long) holes.size(), 1024);
+        double area = (double) containerWidth * containerHeight;
+        cellSize = Math.max(cellSize, (int) Math.ceil(Math.sqrt(area / maxCells)));
+        columns = Math.max(1, (containerWidth + cellSize - 1) / cellSize);
+        rows = Math.max(1, (containerHeight + cellSize - 1) / cellSize);
+        cells = new int[columns * rows][];
+        counts = new int[columns * rows];
+        cellOf = new int[holes.size()];
+        seen = new int[holes.size()];
+        query = 0;
+
+        for (int k = 0; k < holes.size(); k++) {
+            Hole hole = holes.get(k);
+            if (hole.getRemainingCapacity() == 0) {
+                cellOf[k] = -1;
+                continue;
+            }
+            int cell = cellAt(hole.getXPosition(), hole.getYPosition());
+            insert(cell, k);
+            cellOf[k] = cell;
+        }
+        valid = true;
+    }
+
+    /**
+     * Actualiza la celda de un agujero que cambió de posición.
+     *
+     * @param k    El índice del agujero en la lista del contenedor.
+     * @param hole El agujero.
+     */
+    public void moved(int k, Hole hole) {
+        if (cellOf[k] < 0) return;
+
+        int cell = cellAt(hole.getXPosition(), hole.getYPosition());
+        if (cell == cellOf[k]) return;
+
+        remove(cellOf[k], k);
+        insert(cell, k);
+        cellOf[k] = cell;
+    }
+
+    /**
+     * Saca de la rejilla un agujero que se llenó, porque ya no puede atrapar
+     * ninguna partícula.
+     *
+     * @param k El índice del agujero en la lista del contenedor.
+     */
+    public void retire(int k) {
+        if (cellOf[k] < 0) return;
+
+        remove(cellOf[k], k);
+        cellOf[k] = -1;
+    }
+
+    /**
+     * Obtiene los agujeros que podrían atrapar una partícula en (x, y), en el
+     * orden en que se agregaron al contenedor.
+     *
+     * @param x La posición en X de la partícula.
+     * @param y La posición en Y de la partícula.
+     * @return La cantidad de candidatos; sus índices quedan en {@link #candidate(int)}.
+     */
+    public int near(int x, int y) {
+        int column = clamp(Math.floorDiv(x, cellSize), columns);
+        int row = clamp(Math.floorDiv(y, cellSize), rows);
+        int found = 0;
+
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                int cell = r * columns + c;
+                int count = counts[cell];
+                if (count == 0) continue;
+
+                if (found + count > candidates.length) {
+                    candidates = Arrays.copyOf(candidates, Math.max(found + count, 2 * candidates.length));
+                }
+                System.arraycopy(cells[cell], 0, candidates, found, count);
+                found += count;
+            }
+        }
+
+        // Pocas entradas: ordenamiento por inserción para respetar el orden del contenedor
+        for (int i = 1; i < found; i++) {
+            int value = candidates[i];
+            int j = i - 1;
+            while (j >= 0 && candidates[j] > value) {
+                candidates[j + 1] = candidates[j];
+                j--;
+            }
+            candidates[j + 1] = value;
+        }
+        return found;
+    }
+
+    /**
+     * Obtiene los agujeros que podrían atrapar una partícula en algún punto
+     * del segmento que va de (x, y) a (x + dx, y + dy): los de cada celda que
+     * cruza el segmento y los de sus vecinas. Cada agujero aparece una vez,
+     * sin un orden particular. El costo crece con las celdas que cruza el
+     * segmento, no con la cantidad de agujeros.
+     *
+     * @param x  La posición en X del inicio del segmento.
+     * @param y  La posición en Y del inicio del segmento.
+     * @param dx El desplazamiento en X hasta el final del segmento.
+     * @param dy El desplazamiento en Y hasta el final del segmento.
+     * @return La cantidad de candidatos; sus índices quedan en {@link #candidate(int)}.
+     */
+    public int along(int x, int y, long dx, long dy) {
+        if (++query == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            query = 1;
+        }
+        double startX = Math.min(x, x + dx);
+        double endX = Math.max(x, x + dx);
+        int first = clamp((int) Math.floor(startX / cellSize), columns);
+        int last = clamp((int) Math.floor(endX / cellSize), columns);
+        int found = 0;
+
+        for (int column = first; column <= last; column++) {
+            // Tramo del segmento dentro de la columna; el borde recortado
+            // de la rejilla se extiende hasta el extremo del segmento
+            double fromX = column == first ? startX : Math.max(startX, (double) column * cellSize);
+            double toX = column == last ? endX : Math.min(endX, (double) (column + 1) * cellSize);
+            double fromY = dx == 0 ? y : y + (fromX - x) * dy / dx;
+            double toY = dx == 0 ? y + dy : y + (toX - x) * dy / dx;
+            int top = clamp((int) Math.floor(Math.min(fromY, toY) / cellSize), rows);
+            int bottom = clamp((int) Math.floor(Math.max(fromY, toY) / cellSize), rows);
+
+            // Una fila y una columna más a cada lado, como en near
+            for (int r = Math.max(0, top - 1); r <= Math.min(rows - 1, bottom + 1); r++) {
+                for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                    int cell = r * columns + c;
+                    for (int n = 0; n < counts[cell]; n++) {
+                        int k = cells[cell][n];
+                        if (seen[k] == query) continue;
+                        seen[k] = query;
+                        if (found == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, 2 * found);
+                        }
+                        candidates[found++] = k;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Indica si hay algún agujero en la celda de (x, y) o en sus vecinas.
+     * No usa memoria compartida, así que puede llamarse desde varios hilos.
+     *
+     * @param x La posición en X de la partícula.
+     * @param y La posición en Y de la partícula.
+     * @return true si hay al menos un agujero cerca.
+     */
+    public boolean hasNear(int x, int y) {
+        int column = clamp(Math.floorDiv(x, cellSize), columns);
+        int row = clamp(Math.floorDiv(y, cellSize), rows);
+
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                if (counts[r * columns + c] > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene un candidato de la última consulta hecha con {@link #near(int, int)}.
+     *
+     * @param n La posición del candidato.
+     * @return El índice del agujero en la lista del contenedor.
+     */
+    public int candidate(int n) {
+        return candidates[n];
+    }
+
+    /**
+     * Calcula la celda de un punto, recortada a los límites de la rejilla.
+     */
+    private int cellAt(int x, int y) {
+        return clamp(Math.floorDiv(y, cellSize), rows) * columns + clamp(Math.floorDiv(x, cellSize), columns);
+    }
+
+    private static int clamp(int value, int limit) {
+        return Math.max(0, Math.min(limit - 1, value));
+    }
+
+    /**
+     * Inserta un agujero en una celda manteniendo los índices ordenados.
+     */
+    private void insert(int cell, int k) {
+        int[] bucket = cells[cell];
+        int count = counts[cell];
+        if (bucket == null) {
+            bucket = new int[2];
+        } else if (count == bucket.length) {
+            bucket = Arrays.copyOf(bucket, 2 * count);
+        }
+
+        int i = count;
+        while (i > 0 && bucket[i - 1] > k) {
+            bucket[i] = bucket[i - 1];
+            i--;
+        }
+        bucket[i] = k;
+        cells[cell] = bucket;
+        counts[cell] = count + 1;
+    }
+
+    /**
+     * Quita un agujero de una celda.
+     */
+    private void remove(int cell, int k) {
+        int[] bucket = cells[cell];
+        int count = counts[cell];
+        for (int i = 0; i < count; i++) {
+            if (bucket[i] == k) {
+                System.arraycopy(bucket, i + 1, bucket, i, count - i - 1);
+                counts[cell] = count - 1;
+                return;
+            }
+        }
+    }
+}
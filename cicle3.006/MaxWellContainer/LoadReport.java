@@ -0,0 +1,94 @@
+package MaxWellContainer;
+
+import java.util.Arrays;
+
+/**
+ * Reporte de una carga masiva de partículas, agujeros o demonios.
+ *
+ * <p>Solo guarda las filas rechazadas, cada una con su número de fila y el
+ * motivo en un byte, así que una carga limpia de millones de filas no ocupa
+ * memoria en el reporte.</p>
+ */
+public class LoadReport {
+    public static final byte MALFORMED = 0; // La fila no tiene el número de valores esperado
+    public static final byte OUT_OF_BOUNDS = 1; // La posición queda fuera del contenedor
+    public static final byte WRONG_SIDE = 2; // Roja a la izquierda o azul a la derecha
+    public static final byte INVALID_CAPACITY = 3; // Agujero sin capacidad
+
+    private int accepted;
+    private int rejected;
+    private int[] rows; // Filas rechazadas, en orden
+    private byte[] reasons; // Motivo de cada fila rechazada
+
+    /**
+     * Constructor para crear un reporte vacío.
+     */
+    public LoadReport() {
+        this.accepted = 0;
+        this.rejected = 0;
+        this.rows = new int[0];
+        this.reasons = new byte[0];
+    }
+
+    /**
+     * Cuenta una fila aceptada.
+     */
+    void accept() {
+        accepted++;
+    }
+
+    /**
+     * Guarda una fila rechazada.
+     *
+     * @param row    El número de la fila, contando desde 0.
+     * @param reason El motivo del rechazo.
+     */
+    void reject(int row, byte reason) {
+        if (rejected == rows.length) {
+            int capacity = Math.max(8, 2 * rejected);
+            rows = Arrays.copyOf(rows, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+        }
+        rows[rejected] = row;
+        reasons[rejected] = reason;
+        rejected++;
+    }
+
+    /**
+     * Obtiene el número de filas aceptadas.
+     *
+     * @return Las filas que se agregaron al contenedor.
+     */
+    public int getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * Obtiene el número de filas rechazadas.
+     *
+     * @return Las filas que no se agregaron.
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Obtiene el número de fila de un rechazo.
+     *
+     * @param n La posición del rechazo, entre 0 y {@link #getRejected()} - 1.
+     * @return La fila rechazada, contando desde 0.
+     */
+    public int getRejectedRow(int n) {
+        return rows[n];
+    }
+
+    /**
+     * Obtiene el motivo de un rechazo.
+     *
+     * @param n La posición del rechazo, entre 0 y {@link #getRejected()} - 1.
+     * @return {@link #MALFORMED}, {@link #OUT_OF_BOUNDS}, {@link #WRONG_SIDE} o {@link #INVALID_CAPACITY}.
+     */
+    public byte getReason(int n) {
+        return reasons[n];
+    }
+}
@@ -1,32 +1,60 @@
 package MaxWellContainer;
 import Shapes.*;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Random;
 import java.awt.Color;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Clase que representa un contenedor de Maxwell, que simula partículas, demonios y agujeros
  * en un entorno dividido en dos rectángulos (izquierdo y derecho).
  */
 public class MaxwellContainer {
+    static final int PARTICLE_DIAMETER = 5; // Diámetro de todas las partículas
+    private static final byte NORMAL_HOLE = 0; // Tipos de agujero y de demonio
+    private static final byte MOVIL_HOLE = 1;
+    private static final byte NORMAL_DEMON = 0;
+    private static final byte BLUE_DEMON = 1;
+    private static final byte WEAK_DEMON = 2;
+    private static final int FRAME_RATE = 60; // Cuadros por segundo que muestra start
+    private static final List<String> PALETTE = new ArrayList<>(Canvas.colors().keySet()); // Colores para las partículas cargadas por datos
     private int width;
     private int height;
     private int posDemon;
     private int blueParticles;
     private int redParticles;
     private boolean isVisible;
-    private List<Particle> particles;
-    private List<Demon> demons;
-    private List<Hole> holes;
+    private ArrayList<Particle> particles;
+    private Particle[] particlesById; // Partícula de cada identificador, o null si se eliminó
+    private HashMap<String, ArrayDeque<Particle>> particlesByColor; // Partículas de cada color, en orden de inserción
+    private int nextParticleId;
+    private int removedParticles; // Partículas eliminadas que siguen en las listas hasta la próxima purga
+    private ArrayList<Demon> demons;
+    private int removedDemons; // Demonios eliminados que siguen en las listas hasta la próxima purga
+    private ArrayList<Hole> holes;
     private Rectangle leftContainer;
     private Rectangle rightContainer;
     private boolean lastActionSuccess;
+    private SimulationEngine engine;
+    private EventLog eventLog;
+    private long version; // Cambia con cada modificación del contenedor
+    private int tickRate; // Ticks por segundo que simula start
+    private FrameExporter frameExporter; // Exportador de imágenes, o null si está apagado
+    private Frame exportFrame; // Cuadro que se reutiliza para exportar desde run
+    private boolean densityMode; // Las partículas se dibujan como un mapa de densidad
+    private int densityCell; // Lado de las celdas del mapa: lo que cubre un píxel de la vista
+    private DensityMap densityMap; // Mapa que se reutiliza al mostrar el contenedor
+    private QuerySnapshot particlesView; // Copias ordenadas para las consultas, de todos los tipos
+    private QuerySnapshot holesView;
+    private QuerySnapshot demonsView;
 
     /**
      * Constructor para inicializar el contenedor con dimensiones específicas.
@@ -39,12 +67,26 @@ public class MaxwellContainer {
         this.height = h;
         this.isVisible = false;
         this.particles = new ArrayList<>();
+        this.particlesById = new Particle[16];
+        this.particlesByColor = new HashMap<>();
+        this.nextParticleId = 0;
+        this.removedParticles = 0;
+        this.removedDemons = 0;
+        this.version = 0;
+        this.tickRate = 10;
+        this.densityCell = 1;
+        this.particlesView = new QuerySnapshot(4, ParticleStore.EPHEMERAL + 1);
+        this.holesView = new QuerySnapshot(3, MOVIL_HOLE + 1);
+        this.demonsView = new QuerySnapshot(1, WEAK_DEMON + 1);
         this.demons = new ArrayList<>();
         this.holes = new ArrayList<>();
+        this.engine = new SimulationEngine(w, h, particles, demons, holes);
 
         // Crear los dos rectángulos que simulan el contenedor dividido
         this.leftContainer = new Rectangle(0, 0, "pink", h, w);
         this.rightContainer = new Rectangle(w, 0,"lightBlue" , h, w);
+        leftContainer.setStatic(true);
+        rightContainer.setStatic(true);
     }
 
     /**
@@ -66,11 +108,25 @@ public class MaxwellContainer {
         this.redParticles = r;
         this.isVisible = false;
         this.particles = new ArrayList<>();
+        this.particlesById = new Particle[16];
+        this.particlesByColor = new HashMap<>();
+        this.nextParticleId = 0;
+        this.removedParticles = 0;
+        this.removedDemons = 0;
+        this.version = 0;
+        this.tickRate = 10;
+        this.densityCell = 1;
+        this.particlesView = new QuerySnapshot(4, ParticleStore.EPHEMERAL + 1);
+        this.holesView = new QuerySnapshot(3, MOVIL_HOLE + 1);
+        this.demonsView = new QuerySnapshot(1, WEAK_DEMON + 1);
         this.demons = new ArrayList<>();
         this.holes = new ArrayList<>();
+        this.engine = new SimulationEngine(w, h, this.particles, demons, holes);
 
         this.leftContainer = new Rectangle(0, 0,"pink" , h, w);
         this.rightContainer = new Rectangle(w, 0, "lightBlue", h, w);
+        leftContainer.setStatic(true);
+        rightContainer.setStatic(true);
 
         addDemon(d);
         addParticlesFromData(r, b, particles);
@@ -84,7 +140,12 @@ public class MaxwellContainer {
      * @param particlesData Matriz con datos de partículas.
      */
     private void addParticlesFromData(int r, int b, int[][] particlesData) {
+        particles.ensureCapacity(particlesData.length);
+        ensureIdCapacity(particlesData.length);
         for (int i = 0; i < particlesData.length; i++) {
+            if (particlesData[i] == null || particlesData[i].length < 4) {
+                throw new IllegalArgumentException("La fila " + i + " de partículas debe tener x, y, vx y vy");
+            }
             int px = particlesData[i][0];
             int py = particlesData[i][1];
             int vx = particlesData[i][2];
@@ -93,8 +154,11 @@ public class MaxwellContainer {
             boolean isRed = r > 0;
             if (isRed) r--;
             
-            String color = getColorFromCanvas(i);
-            addParticle(color, isRed, px, py, vx, vy);
+            // El color solo sirve para dibujar: se repite cuando hay más partículas que colores
+            if (isValidParticle(isRed, px, py)) {
+                String color = getColorFromCanvas(i);
+                insertParticle(new Particle(width + px, py, color, isRed, PARTICLE_DIAMETER, vx, vy, px));
+            }
         }
     }
 
@@ -105,33 +169,290 @@ public class MaxwellContainer {
      * @return El nombre del color correspondiente al índice.
      */
     private String getColorFromCanvas(int index) {
-        List<String> colorKeys = new ArrayList<>(Canvas.getCanvas().getColorMap().keySet());
-        return colorKeys.get(index % colorKeys.size());
+        return PALETTE.get(index % PALETTE.size());
+    }
+
+    /**
+     * Verifica que una partícula quepa en el contenedor y empiece en el lado
+     * que no le corresponde: las rojas a la derecha y las azules a la izquierda.
+     *
+     * @param isRed Indica si la partícula es roja.
+     * @param px    La posición en x de la partícula.
+     * @param py    La posición en y de la partícula.
+     * @return true si la partícula se puede agregar.
+     */
+    private boolean isValidParticle(boolean isRed, int px, int py) {
+        if (!isInside(px, py)) {
+            return false;
+        }
+        boolean isInLeftContainer = px < 0;
+        return isRed != isInLeftContainer;
+    }
+
+    /**
+     * Verifica que un punto esté dentro del contenedor.
+     *
+     * @param px La posición en x, negativa a la izquierda de la línea divisoria.
+     * @param py La posición en y.
+     * @return true si el punto está dentro.
+     */
+    private boolean isInside(int px, int py) {
+        return py >= 0 && py < height && px >= -width && px < width;
+    }
+
+    /**
+     * Asegura espacio en el índice por identificador.
+     *
+     * @param capacity El número de identificadores que se espera asignar.
+     */
+    private void ensureIdCapacity(int capacity) {
+        if (capacity > particlesById.length) {
+            particlesById = Arrays.copyOf(particlesById, Math.max(capacity, particlesById.length + (particlesById.length >> 1)));
+        }
+    }
+
+    /**
+     * Agrega una partícula a la lista y a los índices, asignándole el siguiente identificador.
+     *
+     * @param particle La partícula a agregar.
+     */
+    private void insertParticle(Particle particle) {
+        particle.setId(nextParticleId++);
+        particles.add(particle);
+        if (particle.getId() == particlesById.length) {
+            ensureIdCapacity(particle.getId() + 1);
+        }
+        particlesById[particle.getId()] = particle;
+        particlesByColor.computeIfAbsent(particle.getColor(), color -> new ArrayDeque<>(1)).add(particle);
+        engine.added(particle);
+        version++;
+    }
+
+    /**
+     * Agrega un agujero a la lista. Quien llama avisa al motor.
+     * Los agujeros que no se mueven van en la capa fija del lienzo.
+     *
+     * @param hole El agujero a agregar.
+     */
+    private void insertHole(Hole hole) {
+        hole.setStatic(!(hole instanceof Movil));
+        holes.add(hole);
+    }
+
+    /**
+     * Agrega un demonio a la lista y al índice del motor.
+     * Los demonios quietos van en la capa fija del lienzo.
+     *
+     * @param demon El demonio a agregar.
+     */
+    private void insertDemon(Demon demon) {
+        demon.setStatic(demon.getSpeedY() == 0);
+        demons.add(demon);
+        engine.demonAdded(demon);
+    }
+
+    /**
+     * Quita una partícula sin recorrer las listas: la marca como eliminada,
+     * la saca del índice por identificador y del motor, y deja que
+     * {@link #purgeParticles()} la saque de las listas junto con las demás.
+     *
+     * @param particle La partícula a quitar.
+     */
+    private void removeParticle(Particle particle) {
+        particlesById[particle.getId()] = null;
+        particle.markRemoved();
+        particle.erase();
+        engine.removed(particle);
+        removedParticles++;
+        version++;
+    }
+
+    /**
+     * Saca de las listas las partículas eliminadas desde la última purga, en
+     * una sola pasada por lista. Se llama antes de recorrer las partículas.
+     */
+    private void purgeParticles() {
+        if (removedParticles == 0) return;
+
+        engine.purge();
+        particlesByColor.values().removeIf(sameColor -> {
+            sameColor.removeIf(Particle::isRemoved);
+            return sameColor.isEmpty();
+        });
+        removedParticles = 0;
+    }
+
+    /**
+     * Saca de la lista los demonios eliminados desde la última purga, en
+     * una sola pasada. Se llama antes de recorrer los demonios.
+     */
+    private void purgeDemons() {
+        if (removedDemons == 0) return;
+
+        engine.purge();
+        removedDemons = 0;
+    }
+
+    /**
+     * Obtiene la primera partícula que se agregó con un color y que no se ha
+     * eliminado, descartando de paso las eliminadas que la preceden.
+     *
+     * @param color El color.
+     * @return La partícula, o null si no queda ninguna de ese color.
+     */
+    private Particle firstWithColor(String color) {
+        ArrayDeque<Particle> sameColor = particlesByColor.get(color);
+        if (sameColor == null) return null;
+
+        while (!sameColor.isEmpty() && sameColor.peekFirst().isRemoved()) {
+            sameColor.pollFirst();
+        }
+        if (sameColor.isEmpty()) {
+            particlesByColor.remove(color);
+            return null;
+        }
+        return sameColor.peekFirst();
+    }
+
+    /**
+     * Carga muchas partículas normales de una vez. Cada fila se valida una
+     * sola vez y las que no cumplen las reglas se informan en el reporte en
+     * lugar de agregarse. Los colores se asignan de la paleta, como en el
+     * constructor por datos.
+     *
+     * @param data Una fila por partícula: x, y, vx, vy y 1 si es roja o 0 si es azul.
+     * @return El reporte con las filas aceptadas y rechazadas.
+     */
+    public LoadReport loadParticles(int[][] data) {
+        LoadReport report = new LoadReport();
+        particles.ensureCapacity(particles.size() + data.length);
+        ensureIdCapacity(nextParticleId + data.length);
+
+        for (int row = 0; row < data.length; row++) {
+            int[] values = data[row];
+            if (values == null || values.length != 5) {
+                report.reject(row, LoadReport.MALFORMED);
+                continue;
+            }
+
+            int px = values[0];
+            int py = values[1];
+            boolean isRed = values[4] != 0;
+            if (!isInside(px, py)) {
+                report.reject(row, LoadReport.OUT_OF_BOUNDS);
+            } else if (!isValidParticle(isRed, px, py)) {
+                report.reject(row, LoadReport.WRONG_SIDE);
+            } else {
+                String color = getColorFromCanvas(nextParticleId);
+                insertParticle(new Particle(width + px, py, color, isRed, PARTICLE_DIAMETER, values[2], values[3], px));
+                report.accept();
+            }
+        }
+        lastActionSuccess = report.getRejected() == 0;
+        return report;
+    }
+
+    /**
+     * Carga muchos agujeros normales de una vez, validando cada fila una sola vez.
+     *
+     * @param data Una fila por agujero: x, y y capacidad.
+     * @return El reporte con las filas aceptadas y rechazadas.
+     */
+    public LoadReport loadHoles(int[][] data) {
+        LoadReport report = new LoadReport();
+        holes.ensureCapacity(holes.size() + data.length);
+
+        for (int row = 0; row < data.length; row++) {
+            int[] values = data[row];
+            if (values == null || values.length != 3) {
+                report.reject(row, LoadReport.MALFORMED);
+            } else if (!isInside(values[0], values[1])) {
+                report.reject(row, LoadReport.OUT_OF_BOUNDS);
+            } else if (values[2] <= 0) {
+                report.reject(row, LoadReport.INVALID_CAPACITY);
+            } else {
+                insertHole(new Hole(width + values[0], values[1], "black", 10, values[2], values[0]));
+                report.accept();
+            }
+        }
+        engine.holesChanged();
+        version++;
+        lastActionSuccess = report.getRejected() == 0;
+        return report;
     }
 
     /**
-     * Elimina una partícula del contenedor por su color.
+     * Carga muchos demonios normales de una vez, validando cada posición una sola vez.
+     *
+     * @param data La posición en y de cada demonio.
+     * @return El reporte con las posiciones aceptadas y rechazadas.
+     */
+    public LoadReport loadDemons(int[] data) {
+        LoadReport report = new LoadReport();
+        demons.ensureCapacity(demons.size() + data.length);
+
+        for (int row = 0; row < data.length; row++) {
+            int d = data[row];
+            if (d > 0 && d < height) {
+                insertDemon(new Demon(width - 5, d, "black", 10, 10, this));
+                report.accept();
+            } else {
+                report.reject(row, LoadReport.OUT_OF_BOUNDS);
+            }
+        }
+        version++;
+        lastActionSuccess = report.getRejected() == 0;
+        return report;
+    }
+
+    /**
+     * Elimina una partícula del contenedor por su color. Si varias partículas
+     * comparten el color, elimina la primera que se agregó.
      *
      * @param color El color de la partícula a eliminar.
      */
     public void delParticle(String color) {
-        Particle particleToRemove = null;
-        for (Particle particle : particles) {
-            if (particle.getColor().equals(color)) {
-                particleToRemove = particle;
-                break;
-            }
+        Particle particle = firstWithColor(color);
+        if (particle != null) {
+            removeParticle(particle);
+            lastActionSuccess = true;
+        } else {
+            lastActionSuccess = false;
         }
+    }
 
-        if (particleToRemove != null) {
-            particles.remove(particleToRemove);
-            particleToRemove.erase();
+    /**
+     * Elimina una partícula del contenedor por su identificador.
+     *
+     * @param id El identificador de la partícula a eliminar.
+     */
+    public void delParticle(int id) {
+        Particle particle = id >= 0 && id < nextParticleId ? particlesById[id] : null;
+        if (particle != null) {
+            removeParticle(particle);
             lastActionSuccess = true;
         } else {
             lastActionSuccess = false;
         }
     }
 
+    /**
+     * Obtiene el identificador de una partícula por su color. Si varias
+     * partículas comparten el color, retorna el de la primera que se agregó.
+     *
+     * @param color El color de la partícula.
+     * @return El identificador, o -1 si no hay partículas de ese color.
+     */
+    public int getParticleId(String color) {
+        Particle particle = firstWithColor(color);
+        if (particle == null) {
+            lastActionSuccess = false;
+            return -1;
+        }
+        lastActionSuccess = true;
+        return particle.getId();
+    }
+
     /**
      * Agrega una partícula al contenedor.
      *
@@ -143,33 +464,14 @@ public class MaxwellContainer {
      * @param vy    La velocidad en y de la partícula.
      */
     public void addParticle(String color, boolean isRed, int px, int py, int vx, int vy) {
-        int internalX = px < 0 ? (width) + px : (width) + px;
-    
-        if (py < 0 || py >= height) {
-            lastActionSuccess = false;
-            return;
-        }
-        
-        if (px < -width || px >= width) {
-            lastActionSuccess = false;
-            return;
-        }
+        int internalX = width + px;
 
-        boolean isInLeftContainer = px < 0;
-
-        if ((isRed && isInLeftContainer) || (!isRed && !isInLeftContainer)) {
+        if (!isValidParticle(isRed, px, py) || firstWithColor(color) != null) {
             lastActionSuccess = false;
             return;
         }
 
-        for (Particle particle : particles) {
-            if (particle.getColor().equals(color)) {
-                lastActionSuccess = false;
-                return;
-            }
-        }
-
-        particles.add(new Particle(internalX, py, color, isRed, 5, vx, vy, px));
+        insertParticle(new Particle(internalX, py, color, isRed, PARTICLE_DIAMETER, vx, vy, px));
         lastActionSuccess = true;
     }
 
@@ -180,7 +482,8 @@ public class MaxwellContainer {
      */
     public void addDemon(int d) {
         if (d > 0 && d < height) {
-            demons.add(new Demon(width - 5, d, "black", 10, 10, this));
+            insertDemon(new Demon(width - 5, d, "black", 10, 10, this));
+            version++;
             lastActionSuccess = true;
         } else {
             lastActionSuccess = false;
@@ -193,16 +496,13 @@ public class MaxwellContainer {
      * @param d La posición vertical (y) del demonio que se desea eliminar.
      */
     public void delDemon(int d) {
-        Demon demonToRemove = null;
-        for (Demon demon : demons) {
-            if (demon.getYPosition() == d) {
-                demonToRemove = demon;
-                break;
-            }
-        }
-    
+        Demon demonToRemove = engine.findDemon(d);
+
         if (demonToRemove != null) {
-            demons.remove(demonToRemove);
+            demonToRemove.markRemoved();
+            engine.demonRemoved(demonToRemove);
+            removedDemons++;
+            version++;
             lastActionSuccess = true;
         } else {
             lastActionSuccess = false;
@@ -230,7 +530,9 @@ public class MaxwellContainer {
         }
 
         if (capacity > 0) {
-            holes.add(new Hole(internalX, py, "black", 10, capacity, px));
+            insertHole(new Hole(internalX, py, "black", 10, capacity, px));
+            engine.holesChanged();
+            version++;
             lastActionSuccess = true;
         } else {
             lastActionSuccess = false;
@@ -238,244 +540,454 @@ public class MaxwellContainer {
     }
 
     /**
-     * Mueve todos los elementos del contenedor (partículas, demonios y agujeros móviles).
+     * Inicia la simulación del contenedor durante un número específico de ticks,
+     * mostrándola en el lienzo. Se detiene antes si todas las partículas
+     * llegan a su lado.
+     *
+     * <p>La simulación avanza en este hilo al ritmo de {@link #setTickRate(int)}
+     * y publica la posición de las figuras después de cada tick; el lienzo
+     * muestra la más reciente a {@value #FRAME_RATE} cuadros por segundo desde
+     * el hilo de eventos de Swing, así que dibujar no frena la simulación.</p>
      *
-     * @param containerWidth  El ancho total del contenedor.
-     * @param containerHeight La altura total del contenedor.
-     * @param lineX           La posición de la línea divisoria.
+     * @param ticks El número de ticks para ejecutar la simulación.
      */
-    private void moveAll(int containerWidth, int containerHeight, int lineX) {
-        // Mover partículas
-        for (Particle particle : particles) {
-            particle.move(containerWidth, containerHeight, lineX);
-            System.out.printf("Posición - X: %d, Y: %d%n", particle.getXPosition(), particle.getYPosition());
+    public void start(int ticks) {
+        if (ticks <= 0) {
+            lastActionSuccess = false;
+            return;
         }
         
-        // Mover demonios
-        for (Demon demon : demons) {
-            demon.move(containerHeight);
+        makeVisible();
+        lastActionSuccess = true;
+
+        purgeParticles();
+        purgeDemons();
+        FrameBuffer buffer = new FrameBuffer(particles.size() + demons.size() + holes.size());
+        Viewport view = Canvas.getCanvas().getViewport();
+        FrameRenderer renderer = new FrameRenderer(Canvas.getCanvas(), buffer, FRAME_RATE);
+        renderer.start();
+        try {
+            long period = 1_000_000_000L / tickRate;
+            long next = System.nanoTime();
+            for (int i = 0; i < ticks; i++) {
+                engine.step();
+                version++;
+                // Los cuadros que se exportan van completos; los demás, solo con lo que se ve
+                boolean export = frameExporter != null && frameExporter.wants(engine.getTicks());
+                publish(buffer.back(), export ? null : view);
+                if (export) {
+                    frameExporter.export(buffer.back());
+                }
+                buffer.publish();
+                if (isGoal()) break;
+                next += period;
+                pauseUntil(next);
+            }
+            // El último cuadro va completo, para que mover la vista después muestre todo
+            publish(buffer.back(), null);
+            buffer.publish();
+        } finally {
+            // Aunque la simulación falle, el temporizador no debe seguir dibujando
+            renderer.stop();
+            engine.sync();
         }
-        
-        // Mover agujeros móviles
-        for (Hole hole : holes) {
-            if (hole instanceof Movil) {
-                ((Movil) hole).move(containerWidth, containerHeight);
+    }
+
+    /**
+     * Cambia la cantidad de ticks por segundo que simula {@link #start(int)}.
+     * No cambia los cuadros por segundo que se dibujan.
+     *
+     * @param ticksPerSecond Los ticks por segundo, al menos 1.
+     */
+    public void setTickRate(int ticksPerSecond) {
+        if (ticksPerSecond < 1) {
+            lastActionSuccess = false;
+            return;
+        }
+
+        tickRate = ticksPerSecond;
+        lastActionSuccess = true;
+    }
+
+    /**
+     * Ejecuta la simulación sin dibujar ni pausar, usando solo el motor.
+     * Sirve para corridas largas o en equipos sin pantalla.
+     *
+     * @param ticks El número de ticks para ejecutar la simulación.
+     */
+    public void run(int ticks) {
+        if (ticks <= 0) {
+            lastActionSuccess = false;
+            return;
+        }
+
+        if (frameExporter == null) {
+            engine.run(ticks);
+        } else {
+            runExporting(ticks);
+        }
+        version++;
+        lastActionSuccess = true;
+    }
+
+    /**
+     * Ejecuta la simulación sin dibujar y busca el primer tick en que se
+     * cumple el objetivo. Avanza el motor tick por tick sin copiar el estado
+     * a los objetos de partícula, y cuando encuentra el objetivo corre de una
+     * vez los ticks que faltan. No exporta cuadros.
+     *
+     * @param ticks El número de ticks para ejecutar la simulación.
+     * @return El primer tick en que se cumplió el objetivo, 0 si se cumplía
+     *         desde el inicio, o -1 si no se cumplió.
+     */
+    int runFindingGoal(int ticks) {
+        int goalTick = engine.isGoal() ? 0 : -1;
+        int tick = 0;
+        while (goalTick < 0 && tick < ticks) {
+            engine.step();
+            tick++;
+            if (engine.isGoal()) {
+                goalTick = tick;
             }
         }
+        if (tick < ticks) {
+            engine.run(ticks - tick);
+        } else {
+            engine.sync();
+        }
+        version++;
+        lastActionSuccess = true;
+        return goalTick;
     }
 
     /**
-     * Inicia la simulación del contenedor durante un número específico de ticks.
+     * Simula por tramos hasta cada tick que se debe exportar y exporta su cuadro.
      *
      * @param ticks El número de ticks para ejecutar la simulación.
      */
-    public void start(int ticks) {
+    private void runExporting(int ticks) {
+        long end = engine.getTicks() + ticks;
+        while (engine.getTicks() < end) {
+            long next = Math.min(end, frameExporter.nextTick(engine.getTicks()));
+            engine.run((int) (next - engine.getTicks()));
+            if (frameExporter.wants(next)) {
+                publish(exportFrame, null);
+                frameExporter.export(exportFrame);
+            }
+        }
+    }
+
+    /**
+     * Adelanta la simulación un número de ticks, que puede ser enorme, sin
+     * dibujar. Las partículas que no pueden tocar demonios ni agujeros saltan
+     * directo a su posición final; las demás se simulan tick por tick.
+     *
+     * @param ticks El número de ticks para adelantar la simulación.
+     */
+    public void advance(long ticks) {
         if (ticks <= 0) {
             lastActionSuccess = false;
             return;
         }
-        
-        makeVisible();
+
+        engine.advance(ticks);
+        version++;
         lastActionSuccess = true;
-        
-        for (int i = 0; i < ticks; i++) {
-            moveAll(2 * width, height, width);
-            checkCollisions();
-            pause(100);
+    }
+
+    /**
+     * Cambia el motor de simulación. Ambos dan el mismo resultado; el motor
+     * por eventos conviene cuando hay pocas interacciones por tick. El motor
+     * nuevo sigue la cuenta de ticks del anterior y usa los mismos hilos y el
+     * mismo registro de eventos.
+     *
+     * @param type El tipo de motor ("tick" o "event").
+     */
+    public void setEngine(String type) {
+        String typeLower = type.toLowerCase();
+        SimulationEngine next;
+        if ("event".equals(typeLower)) {
+            next = new EventEngine(width, height, particles, demons, holes);
+        }
+        else if ("tick".equals(typeLower)) {
+            next = new SimulationEngine(width, height, particles, demons, holes);
+        }
+        else {
+            lastActionSuccess = false;
+            return;
         }
+        purgeParticles();
+        purgeDemons();
+        next.continueFrom(engine);
+        engine = next;
+        lastActionSuccess = true;
     }
 
     /**
-     * Verifica colisiones entre todos los elementos del contenedor.
+     * Activa la exportación de cuadros como imágenes mientras se simula con
+     * {@link #run(int)} o {@link #start(int)}. No necesita pantalla. Está
+     * apagada por defecto; quien crea el exportador lo cierra.
+     *
+     * @param exporter El exportador, o null para apagarla.
      */
-    private void checkCollisions() {
-        // Demonios con partículas
-        for (Demon demon : demons) {
-            for (Particle particle : particles) {
-                if (demon.collidesWith(particle)) {
-                    demon.transferParticle(particle);
-                }
+    public void setFrameExporter(FrameExporter exporter) {
+        frameExporter = exporter;
+        if (exporter != null && exportFrame == null) {
+            purgeParticles();
+            purgeDemons();
+            exportFrame = new Frame(particles.size() + demons.size() + holes.size() + 2);
+        }
+        lastActionSuccess = true;
+    }
+
+    /**
+     * Cambia cómo se dibujan las partículas. Con "circles" cada partícula es
+     * un círculo; con "density" se cuentan por celdas del tamaño de un píxel
+     * de la vista y se dibujan como una sola imagen, roja o azul según la
+     * mayoría, lo que sirve para escenas con cientos de miles de partículas.
+     * Los contenedores, demonios y agujeros se dibujan igual en ambos modos.
+     *
+     * @param type El tipo de dibujo ("circles" o "density").
+     */
+    public void setRendering(String type) {
+        String typeLower = type.toLowerCase();
+        if ("density".equals(typeLower)) {
+            densityMode = true;
+        }
+        else if ("circles".equals(typeLower)) {
+            densityMode = false;
+        }
+        else {
+            lastActionSuccess = false;
+            return;
+        }
+        if (isVisible) {
+            Canvas canvas = Canvas.getCanvas();
+            canvas.beginFrame();
+            showParticles(canvas);
+            canvas.endFrame();
+        }
+        lastActionSuccess = true;
+    }
+
+    /**
+     * Activa el registro de eventos de la simulación: posiciones por tick,
+     * transferencias y capturas. Los dos motores y {@link #advance(long)}
+     * registran lo mismo. Está apagado por defecto.
+     *
+     * @param log El registro que recibe los eventos, o null para apagarlo.
+     */
+    public void setEventLog(EventLog log) {
+        eventLog = log;
+        engine.setEventLog(log);
+        lastActionSuccess = true;
+    }
+
+    /**
+     * Cambia el número de hilos con que se simula cada tick. El resultado de
+     * la simulación es el mismo sin importar cuántos hilos se usen.
+     *
+     * @param threads El número de hilos, al menos 1.
+     */
+    public void setParallelism(int threads) {
+        if (threads < 1) {
+            lastActionSuccess = false;
+            return;
+        }
+
+        engine.setParallelism(threads);
+        lastActionSuccess = true;
+    }
+
+    /**
+     * Copia a un cuadro los dos contenedores y la posición actual de las
+     * partículas, los demonios y los agujeros. Se dibujan los que siguen
+     * activos, aunque el contenedor nunca se haya mostrado. En el modo de
+     * densidad las partículas van contadas en el mapa del cuadro. Si la vista
+     * no muestra todo el contenedor, el cuadro se recorta a ella y solo lleva
+     * las partículas que se ven.
+     *
+     * @param frame El cuadro libre.
+     * @param view  La vista del lienzo, o null para copiar todas las partículas.
+     */
+    private void publish(Frame frame, Viewport view) {
+        purgeParticles();
+        purgeDemons();
+        frame.clear(engine.getTicks());
+        frame.add(leftContainer, true);
+        frame.add(rightContainer, true);
+        if (densityMode) {
+            engine.bin(frame.density(0, 0, 2 * width, height, densityCell));
+        } else {
+            if (view != null && !view.contains(0, 0, 2 * width, height)) {
+                frame.cull((int) Math.floor(view.getX()), (int) Math.floor(view.getY()),
+                           (int) Math.ceil(view.getVisibleWidth()) + 1, (int) Math.ceil(view.getVisibleHeight()) + 1);
             }
+            engine.addParticles(frame);
+        }
+        for (Demon demon : demons) {
+            frame.add(demon, demon.isActive());
         }
-        
-        // Agujeros con partículas
         for (Hole hole : holes) {
-            for (Particle particle : particles) {
-                hole.trapParticle(particle);
-            }
+            frame.add(hole, true);
         }
     }
 
     /**
-     * Pausa la ejecución por un tiempo determinado.
+     * Pausa la ejecución hasta un instante dado, si todavía no llegó.
      *
-     * @param milliseconds Tiempo de pausa en milisegundos.
+     * @param deadline El instante, según {@link System#nanoTime()}.
      */
-    private void pause(int milliseconds) {
-        try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private void pauseUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+            LockSupport.parkNanos(remaining);
         }
     }
 
     /**
-     * Verifica si se ha alcanzado la condición de victoria.
+     * Verifica si se ha alcanzado la condición de victoria. El motor lleva la
+     * cuenta de las partículas mal ubicadas, así que no recorre las partículas.
      *
      * @return true si todas las partículas están en sus contenedores correspondientes.
      */
     public boolean isGoal() {
+        if (!engine.isGoal()) {
+            return false;
+        }
+        lastActionSuccess = true;
+        return true;
+    }
+
+    /**
+     * Cuenta las partículas que algún demonio pasó al otro lado.
+     *
+     * @return El número de partículas transferidas.
+     */
+    public int transfers() {
+        purgeParticles();
+        int count = 0;
         for (Particle particle : particles) {
-            if (particle.isRed() && particle.getXPosition() >= width) {
-                return false;
-            }
-            if (!particle.isRed() && particle.getXPosition() < width) {
-                return false;
+            if (particle.isTransferred()) {
+                count++;
             }
         }
         lastActionSuccess = true;
-        return true;
+        return count;
     }
 
     /**
      * Obtiene las posiciones de los demonios en el contenedor.
      *
-     * @return Un arreglo con las posiciones en y de los demonios, ordenadas.
+     * @return Un arreglo nuevo con las posiciones en y de los demonios, ordenadas.
      */
     public int[] demons() {
-        List<Integer> demonPositions = new ArrayList<>();
-        
-        System.out.print("Posiciones Y de demonios: ");
-        
-        for (Demon demon : demons) {
-            demonPositions.add(demon.getYPosition());
-            System.out.print(demon.getYPosition() + " ");
-        }
-        
-        Collections.sort(demonPositions);
-        System.out.println("\n(Ordenadas: " + demonPositions + ")");
-        
         lastActionSuccess = true;
-        return demonPositions.stream().mapToInt(i -> i).toArray();
+        return engine.demonPositions();
     }
 
     /**
      * Obtiene los datos de las partículas en el contenedor.
      *
-     * @return Una matriz con los datos de las partículas, ordenados.
+     * @return Una matriz con los datos de las partículas, ordenados. Se comparte
+     *         con las consultas siguientes hasta que el contenedor cambie, así
+     *         que no se debe modificar.
      */
     public int[][] particles() {
-        List<int[]> particleData = new ArrayList<>();
-        
-        // Recopilar datos
-        for (Particle particle : particles) {
-            particleData.add(new int[]{
-                particle.getOriginalX(),
-                particle.getYPosition(),
-                particle.getSpeedX(),
-                particle.getSpeedY()
-            });
-        }
-        
-        // Ordenar los datos (manteniendo tu lógica original)
-        Collections.sort(particleData, (a, b) -> {
-            for (int i = 0; i < a.length; i++) {
-                if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
-            }
-            return 0;
-        });
-        
-        // Construir el string de salida en formato [[],[],[]]
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < particleData.size(); i++) {
-            if (i > 0) sb.append(", ");
-            sb.append(Arrays.toString(particleData.get(i)));
-        }
-        sb.append("]");
-        
-        // Imprimir el resultado
-        System.out.println("Datos de partículas:");
-        System.out.println(sb.toString());
-        
+        purgeParticles();
         lastActionSuccess = true;
-        return particleData.toArray(new int[0][]);
+        return particleSnapshot().rows();
     }
 
     /**
      * Obtiene los datos de los agujeros en el contenedor.
      *
-     * @return Una matriz con los datos de los agujeros, ordenados.
+     * @return Una matriz con los datos de los agujeros, ordenados. Se comparte
+     *         con las consultas siguientes hasta que el contenedor cambie, así
+     *         que no se debe modificar.
      */
     public int[][] holes() {
-        List<int[]> holeData = new ArrayList<>();
-        
-        // Recopilar datos de los agujeros
-        for (Hole hole : holes) {
-            holeData.add(new int[]{
-                hole.getOriginalX(),
-                hole.getYPosition(),
-                hole.getRemainingCapacity()
-            });
-        }
-        
-        // Ordenar los datos (manteniendo tu lógica original)
-        Collections.sort(holeData, (a, b) -> {
-            for (int i = 0; i < a.length; i++) {
-                if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
-            }
-            return 0;
-        });
-        
-        // Construir el string de salida en formato [[],[],...]
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < holeData.size(); i++) {
-            if (i > 0) sb.append(", ");
-            sb.append(Arrays.toString(holeData.get(i)));
-        }
-        sb.append("]");
-        
-        // Imprimir el resultado
-        System.out.println("Datos de agujeros:");
-        System.out.println(sb.toString());
         lastActionSuccess = true;
-        return holeData.toArray(new int[0][]);
+        return holeSnapshot().rows();
     }
 
     /**
-     * Hace visible el contenedor y todos sus elementos.
+     * Hace visible el contenedor y todos sus elementos. Si el contenedor no
+     * cabe en la ventana y nadie movió la vista, la vista se aleja hasta que
+     * quepa completo.
      */
     public void makeVisible() {
         this.isVisible = true;
         Canvas canvas = Canvas.getCanvas();
         canvas.setVisible(true);
+        if (canvas.getViewport().isIdentity() && (2 * width > canvas.getWidth() || height > canvas.getHeight())) {
+            canvas.fit(2 * width, height);
+        }
+        densityCell = Math.max(1, (int) Math.ceil(1 / canvas.getViewport().getZoom()));
+        canvas.beginFrame();
 
         leftContainer.makeVisible();
         rightContainer.makeVisible();
-        
-        for (Particle particle : particles) {
-            particle.makeVisible();
-        }
+        showParticles(canvas);
+        purgeDemons();
         for (Demon demon : demons) {
-            demon.makeVisible();
+            if (demon.isActive()) {
+                demon.makeVisible();
+            }
         }
         for (Hole hole : holes) {
             hole.makeVisible();
         }
+        canvas.endFrame();
         
         lastActionSuccess = true;
     }
 
+    /**
+     * Dibuja las partículas activas según el modo: como círculos o contadas
+     * en el mapa de densidad, borrando lo que dibujaba el otro modo.
+     *
+     * @param canvas El lienzo, con un marco abierto.
+     */
+    private void showParticles(Canvas canvas) {
+        purgeParticles();
+        if (densityMode) {
+            for (Particle particle : particles) {
+                particle.makeInvisible();
+            }
+            if (densityMap == null || !densityMap.covers(0, 0, 2 * width, height, densityCell)) {
+                densityMap = new DensityMap(0, 0, 2 * width, height, densityCell);
+            }
+            engine.bin(densityMap);
+            canvas.drawDensity(densityMap);
+        } else {
+            canvas.eraseDensity();
+            for (Particle particle : particles) {
+                if (particle.isActive()) {
+                    particle.makeVisible();
+                }
+            }
+        }
+    }
+
     /**
      * Hace invisible el contenedor y todos sus elementos.
      */
     public void makeInvisible() {
         this.isVisible = false;
+        Canvas canvas = Canvas.getCanvas();
+        canvas.beginFrame();
         leftContainer.makeInvisible();
         rightContainer.makeInvisible();
         
+        purgeParticles();
+        purgeDemons();
         for (Particle particle : particles) {
             particle.makeInvisible();
         }
+        if (densityMode) {
+            canvas.eraseDensity();
+        }
         for (Demon demon : demons) {
             demon.makeInvisible();
         }
@@ -483,7 +995,7 @@ public class MaxwellContainer {
             hole.makeInvisible();
         }
 
-        Canvas canvas = Canvas.getCanvas();
+        canvas.endFrame();
         canvas.redraw();
         lastActionSuccess = true;
     }
@@ -504,8 +1016,16 @@ public class MaxwellContainer {
      */
     private void clearContainers() {
         particles.clear();
+        removedParticles = 0;
+        Arrays.fill(particlesById, null);
+        particlesByColor.clear();
+        engine.invalidate();
         demons.clear();
+        removedDemons = 0;
+        engine.demonsChanged();
         holes.clear();
+        engine.holesChanged();
+        version++;
     }
 
     /**
@@ -514,9 +1034,7 @@ public class MaxwellContainer {
      * @return El número de partículas en el contenedor izquierdo.
      */
     private int particlesInLeftContainer() {
-        return (int) particles.stream()
-            .filter(p -> p.getXPosition() < width)
-            .count();
+        return engine.countLeft();
     }
 
     /**
@@ -525,9 +1043,8 @@ public class MaxwellContainer {
      * @return El número de partículas en el contenedor derecho.
      */
     private int particlesInRightContainer() {
-        return (int) particles.stream()
-            .filter(p -> p.getXPosition() >= width)
-            .count();
+        purgeParticles();
+        return particles.size() - engine.countLeft();
     }
     
     /**
@@ -586,14 +1103,15 @@ public class MaxwellContainer {
     
         String typeLower = type.toLowerCase();
         if ("blue".equals(typeLower)) {
-            demons.add(new Blue(width - 5, d, "blue", 10, 10, this));
+            insertDemon(new Blue(width - 5, d, "blue", 10, 10, this));
         } 
         else if ("weak".equals(typeLower)) {
-            demons.add(new Weak(width - 5, d, "black", 10, 10, this));
+            insertDemon(new Weak(width - 5, d, "black", 10, 10, this));
         } 
         else {
-            demons.add(new Demon(width - 5, d, "black", 10, 10, this));
+            insertDemon(new Demon(width - 5, d, "black", 10, 10, this));
         }
+        version++;
         lastActionSuccess = true;
     }
     
@@ -608,43 +1126,30 @@ public class MaxwellContainer {
      * @param vy La velocidad en y de la partícula.
      */
     public void addParticle(String type, String color, boolean isRed, int px, int py, int vx, int vy) {
-        if (py < 0 || py >= height || px < -width || px >= width) {
+        if (!isValidParticle(isRed, px, py) || firstWithColor(color) != null) {
             lastActionSuccess = false;
             return;
         }
     
-        for (Particle p : particles) {
-            if (p.getColor().equals(color)) {
-                lastActionSuccess = false;
-                return;
-            }
-        }
-    
-        int internalX = px < 0 ? (width) + px : (width) + px;
-        boolean isInLeftContainer = px < 0;
-    
-        if ((isRed && isInLeftContainer) || (!isRed && !isInLeftContainer)) {
-            lastActionSuccess = false;
-            return;
-        }
+        int internalX = width + px;
     
         Particle particle;
         String typeLower = type.toLowerCase();
         
         if ("flying".equals(typeLower)) {
-            particle = new Flying(internalX, py, color, isRed, 5, vx, vy, px);
+            particle = new Flying(internalX, py, color, isRed, PARTICLE_DIAMETER, vx, vy, px);
         } 
         else if ("rotator".equals(typeLower)) {
-            particle = new Rotator(internalX, py, color, isRed, 5, vx, vy, px);
+            particle = new Rotator(internalX, py, color, isRed, PARTICLE_DIAMETER, vx, vy, px);
         } 
         else if ("ephemeral".equals(typeLower)) {
-            particle = new Ephemeral(internalX, py, color, isRed, 5, vx, vy, px);
+            particle = new Ephemeral(internalX, py, color, isRed, PARTICLE_DIAMETER, vx, vy, px);
         } 
         else {
-            particle = new Particle(internalX, py, color, isRed, 5, vx, vy, px);
+            particle = new Particle(internalX, py, color, isRed, PARTICLE_DIAMETER, vx, vy, px);
         }
         
-        particles.add(particle);
+        insertParticle(particle);
         lastActionSuccess = true;
     }
         
@@ -665,135 +1170,190 @@ public class MaxwellContainer {
         String typeLower = type.toLowerCase();
         
         if ("movil".equals(typeLower)) {
-            holes.add(new Movil(internalX, py, "black", 10, capacity, px));
+            insertHole(new Movil(internalX, py, "black", 10, capacity, px));
         } 
         else {
-            holes.add(new Hole(internalX, py, "black", 10, capacity, px));
+            insertHole(new Hole(internalX, py, "black", 10, capacity, px));
         }
-        
+        engine.holesChanged();
+        version++;
         lastActionSuccess = true;
     }
     
     /**
      * Obtiene las posiciones de los demonios de un tipo específico.
      * @param type El tipo de demonio ("normal", "blue", "weak").
-     * @return Arreglo con las posiciones Y de los demonios del tipo especificado.
+     * @return Arreglo con las posiciones Y de los demonios del tipo especificado,
+     *         compartido hasta que el contenedor cambie.
      */
     public int[] demons(String type) {
-        List<Integer> positions = new ArrayList<>();
+        purgeDemons();
         String typeLower = type.toLowerCase();
-        
-        for (Demon demon : demons) {
-            if ("blue".equals(typeLower) && demon instanceof Blue) {
-                positions.add(demon.getYPosition());
-            } 
-            else if ("weak".equals(typeLower) && demon instanceof Weak) {
-                positions.add(demon.getYPosition());
-            } 
-            else if ("normal".equals(typeLower) && !(demon instanceof Blue) && !(demon instanceof Weak)) {
-                positions.add(demon.getYPosition());
-            } 
-            else if (!"blue".equals(typeLower) && !"weak".equals(typeLower) && !"normal".equals(typeLower)) {
-                positions.add(demon.getYPosition());
-            }
-        }
-        
-        Collections.sort(positions);
         lastActionSuccess = true;
-        return positions.stream().mapToInt(i -> i).toArray();
+        byte kind;
+
+        if ("normal".equals(typeLower)) {
+            kind = NORMAL_DEMON;
+        }
+        else if ("blue".equals(typeLower)) {
+            kind = BLUE_DEMON;
+        }
+        else if ("weak".equals(typeLower)) {
+            kind = WEAK_DEMON;
+        }
+        else {
+            return engine.demonPositions();
+        }
+        return demonSnapshot().column(kind);
     }
-    
+
+    /**
+     * Obtiene la posición del demonio más cercano a una fila. Si dos quedan a
+     * la misma distancia, retorna la menor.
+     *
+     * @param y La posición en y de la fila.
+     * @return La posición en y del demonio más cercano, o -1 si no hay demonios.
+     */
+    public int nearestDemon(int y) {
+        Demon demon = engine.nearestDemon(y);
+        lastActionSuccess = demon != null;
+        return demon == null ? -1 : demon.getYPosition();
+    }
+
     /**
      * Obtiene los datos de las partículas de un tipo específico.
      * @param type El tipo de partícula ("normal", "flying", "rotator", "ephemeral").
-     * @return Matriz con los datos de las partículas del tipo especificado.
+     * @return Matriz con los datos de las partículas del tipo especificado,
+     *         compartida hasta que el contenedor cambie.
      */
     public int[][] particles(String type) {
-        List<int[]> particleData = new ArrayList<>();
+        purgeParticles();
         String typeLower = type.toLowerCase();
-    
-        for (Particle particle : particles) {
-            boolean match = false;
-            
-            if ("flying".equals(typeLower)) {
-                match = particle instanceof Flying;
-            } 
-            else if ("rotator".equals(typeLower)) {
-                match = particle instanceof Rotator;
-            } 
-            else if ("ephemeral".equals(typeLower)) {
-                match = particle instanceof Ephemeral;
-            } 
-            else if ("normal".equals(typeLower)) {
-                match = !(particle instanceof Flying) && 
-                       !(particle instanceof Rotator) && 
-                       !(particle instanceof Ephemeral);
-            } 
-            else {
-                match = true;
-            }
-            
-            if (match) {
-                particleData.add(new int[]{
-                    particle.getOriginalX(),
-                    particle.getYPosition(),
-                    particle.getSpeedX(),
-                    particle.getSpeedY()
-                });
-            }
-        }
-                  
-        Collections.sort(particleData, (a, b) -> {
-            for (int i = 0; i < a.length; i++) {
-                if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
-            }
-            return 0;
-        });
-        
         lastActionSuccess = true;
-        return particleData.toArray(new int[0][]);
+        byte kind;
+
+        if ("normal".equals(typeLower)) {
+            kind = ParticleStore.NORMAL;
+        }
+        else if ("flying".equals(typeLower)) {
+            kind = ParticleStore.FLYING;
+        }
+        else if ("rotator".equals(typeLower)) {
+            kind = ParticleStore.ROTATOR;
+        }
+        else if ("ephemeral".equals(typeLower)) {
+            kind = ParticleStore.EPHEMERAL;
+        }
+        else {
+            return particleSnapshot().rows();
+        }
+        return particleSnapshot().rows(kind);
     }
     
     /**
      * Obtiene los datos de los agujeros de un tipo específico.
      * @param type El tipo de agujero ("normal", "movil").
-     * @return Matriz con los datos de los agujeros del tipo especificado.
+     * @return Matriz con los datos de los agujeros del tipo especificado,
+     *         compartida hasta que el contenedor cambie.
      */
     public int[][] holes(String type) {
-        List<int[]> holeData = new ArrayList<>();
         String typeLower = type.toLowerCase();
-        
-        for (Hole hole : holes) {
-            boolean match = false;
-            
-            if ("movil".equals(typeLower)) {
-                match = hole instanceof Movil;
-            } 
-            else if ("normal".equals(typeLower)) {
-                match = !(hole instanceof Movil);
-            } 
-            else {
-                match = true;
+        lastActionSuccess = true;
+        byte kind;
+
+        if ("normal".equals(typeLower)) {
+            kind = NORMAL_HOLE;
+        }
+        else if ("movil".equals(typeLower)) {
+            kind = MOVIL_HOLE;
+        }
+        else {
+            return holeSnapshot().rows();
+        }
+        return holeSnapshot().rows(kind);
+    }
+
+    /**
+     * Obtiene la copia ordenada de las partículas, actualizándola si el
+     * contenedor cambió desde la última consulta. Solo se reordenan las
+     * partículas que cambiaron.
+     *
+     * @return La copia con x original, y, vx y vy de cada partícula.
+     */
+    private QuerySnapshot particleSnapshot() {
+        if (!particlesView.isCurrent(version)) {
+            int[] row = new int[4];
+            particlesView.begin(version);
+            for (Particle particle : particles) {
+                row[0] = particle.getOriginalX();
+                row[1] = particle.getYPosition();
+                row[2] = particle.getSpeedX();
+                row[3] = particle.getSpeedY();
+                particlesView.put(particle, ParticleStore.typeOf(particle), row);
             }
-            
-            if (match) {
-                holeData.add(new int[]{
-                    hole.getOriginalX(),
-                    hole.getYPosition(),
-                    hole.getRemainingCapacity()
-                });
+            particlesView.end();
+        }
+        return particlesView;
+    }
+
+    /**
+     * Obtiene la copia ordenada de los agujeros, actualizándola si el
+     * contenedor cambió desde la última consulta.
+     *
+     * @return La copia con x original, y y capacidad restante de cada agujero.
+     */
+    private QuerySnapshot holeSnapshot() {
+        if (!holesView.isCurrent(version)) {
+            int[] row = new int[3];
+            holesView.begin(version);
+            for (Hole hole : holes) {
+                row[0] = hole.getOriginalX();
+                row[1] = hole.getYPosition();
+                row[2] = hole.getRemainingCapacity();
+                holesView.put(hole, typeOf(hole), row);
             }
+            holesView.end();
         }
-        
-        Collections.sort(holeData, (a, b) -> {
-            for (int i = 0; i < a.length; i++) {
-                if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+        return holesView;
+    }
+
+    /**
+     * Obtiene la copia ordenada de los demonios, actualizándola si el
+     * contenedor cambió desde la última consulta.
+     *
+     * @return La copia con la posición en y de cada demonio.
+     */
+    private QuerySnapshot demonSnapshot() {
+        if (!demonsView.isCurrent(version)) {
+            int[] row = new int[1];
+            demonsView.begin(version);
+            for (Demon demon : demons) {
+                row[0] = demon.getYPosition();
+                demonsView.put(demon, typeOf(demon), row);
             }
-            return 0;
-        });
-        
-        lastActionSuccess = true;
-        return holeData.toArray(new int[0][]);
+            demonsView.end();
+        }
+        return demonsView;
+    }
+
+    /**
+     * Obtiene el tipo de un agujero.
+     *
+     * @param hole El agujero.
+     * @return {@link #MOVIL_HOLE} o {@link #NORMAL_HOLE}.
+     */
+    private static byte typeOf(Hole hole) {
+        return hole instanceof Movil ? MOVIL_HOLE : NORMAL_HOLE;
+    }
+
+    /**
+     * Obtiene el tipo de un demonio.
+     *
+     * @param demon El demonio.
+     * @return {@link #BLUE_DEMON}, {@link #WEAK_DEMON} o {@link #NORMAL_DEMON}.
+     */
+    private static byte typeOf(Demon demon) {
+        return demon instanceof Blue ? BLUE_DEMON : demon instanceof Weak ? WEAK_DEMON : NORMAL_DEMON;
     }
 
     /**
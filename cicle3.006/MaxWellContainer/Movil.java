@@ -35,6 +35,19 @@ public class Movil extends Hole {
      */
     public void move(int containerWidth, int containerHeight) {
         if (hasStopped) return;
+
+        step(containerWidth, containerHeight);
+        draw(); // Dibuja el agujero en su nueva posición
+    }
+
+    /**
+     * Avanza el agujero móvil un tick sin dibujarlo.
+     *
+     * @param containerWidth  El ancho del contenedor.
+     * @param containerHeight La altura del contenedor.
+     */
+    public void step(int containerWidth, int containerHeight) {
+        if (hasStopped) return;
     
         int newX = getXPosition() + speedX;
         int newY = getYPosition() + speedY;
@@ -54,8 +67,6 @@ public class Movil extends Hole {
 
         setXPosition(newX);
         setYPosition(newY);
-    
-        draw(); // Dibuja el agujero en su nueva posición
     }
 
     /**
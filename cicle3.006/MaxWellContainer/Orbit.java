@@ -0,0 +1,212 @@
+package MaxWellContainer;
+
+/**
+ * Órbita de una partícula sobre un solo eje, siguiendo exactamente las reglas
+ * de rebote de cada tick.
+ *
+ * <p>En las partículas normales y voladoras el movimiento en X no depende del
+ * movimiento en Y, y cada eje tiene un número finito de estados (posición y
+ * velocidad), así que termina repitiéndose. Algunos estados de partida cerca
+ * de un borde no vuelven a darse nunca: la partícula entra al ciclo después de
+ * unos pocos ticks. La órbita guarda cuántos ticks tarda en entrar al ciclo,
+ * cuánto dura el ciclo y el rango de posiciones que visita; con eso se puede
+ * saltar cualquier número de ticks sin simularlos uno por uno.</p>
+ */
+public class Orbit {
+    private int start; // Posición al inicio de la órbita
+    private int startSpeed; // Velocidad al inicio de la órbita
+    private int position; // Posición tras el último salto
+    private int speed; // Velocidad tras el último salto
+    private int entry; // Ticks hasta entrar al ciclo
+    private int period; // Duración del ciclo
+    private int min; // Menor posición visitada
+    private int max; // Mayor posición visitada
+    private int diameter;
+    private int size; // Ancho o altura del contenedor en este eje
+    private int lineX; // Línea divisoria, o -1 en el eje Y
+
+    private Orbit(int position, int speed, int diameter, int size, int lineX) {
+        this.start = position;
+        this.startSpeed = speed;
+        this.position = position;
+        this.speed = speed;
+        this.diameter = diameter;
+        this.size = size;
+        this.lineX = lineX;
+    }
+
+    /**
+     * Calcula la órbita en X, con rebote en los bordes laterales y en la línea divisoria.
+     *
+     * @param x              La posición en X de la partícula.
+     * @param speedX         La velocidad en X.
+     * @param diameter       El diámetro de la partícula.
+     * @param containerWidth El ancho total del contenedor.
+     * @param lineX          La posición de la línea divisoria.
+     * @return La órbita, o null si el estado no se repite dentro del límite.
+     */
+    public static Orbit ofX(int x, int speedX, int diameter, int containerWidth, int lineX) {
+        return new Orbit(x, speedX, diameter, containerWidth, lineX).trace();
+    }
+
+    /**
+     * Calcula la órbita en Y, con rebote en los bordes superior e inferior.
+     *
+     * @param y               La posición en Y de la partícula.
+     * @param speedY          La velocidad en Y.
+     * @param diameter        El diámetro de la partícula.
+     * @param containerHeight La altura del contenedor.
+     * @return La órbita, o null si el estado no se repite dentro del límite.
+     */
+    public static Orbit ofY(int y, int speedY, int diameter, int containerHeight) {
+        return new Orbit(y, speedY, diameter, containerHeight, -1).trace();
+    }
+
+    /**
+     * Encuentra el ciclo con el método de Brent, sin guardar los estados
+     * visitados, y luego recorre la órbita una vez para conocer su rango.
+     * Una partícula que rebota recorre el eje de ida y vuelta, así que un
+     * ciclo mayor que unas cuatro veces el eje indica que algo anda mal.
+     */
+    private Orbit trace() {
+        long limit = 4L * (size + Math.abs((long) speed)) + 16;
+        long first = pack(start, startSpeed);
+
+        // Largo del ciclo: la liebre avanza hasta encontrarse con la tortuga,
+        // que salta a la liebre cada vez que se cumple una potencia de dos
+        int power = 1;
+        long steps = 0;
+        period = 1;
+        long slow = first;
+        long fast = next(first);
+        while (fast != slow) {
+            if (power == period) {
+                slow = fast;
+                power *= 2;
+                period = 0;
+            }
+            fast = next(fast);
+            period++;
+            if (++steps > 2 * limit) return null;
+        }
+
+        // Entrada al ciclo: dos cursores separados por un ciclo avanzan juntos hasta coincidir
+        slow = first;
+        fast = first;
+        for (int t = 0; t < period; t++) {
+            fast = next(fast);
+        }
+        entry = 0;
+        while (fast != slow) {
+            slow = next(slow);
+            fast = next(fast);
+            entry++;
+        }
+
+        min = start;
+        max = start;
+        long state = first;
+        for (int t = 0; t < entry + period; t++) {
+            state = next(state);
+            min = Math.min(min, (int) (state >> 32));
+            max = Math.max(max, (int) (state >> 32));
+        }
+        return this;
+    }
+
+    /**
+     * Avanza un tick sobre el eje desde el último estado, sin volver al
+     * inicio como {@link #skip(long)}.
+     */
+    public void step() {
+        speed = lineX < 0
+            ? ParticleStore.bounceY(position, speed, diameter, size)
+            : ParticleStore.bounceX(position, speed, diameter, size, lineX);
+        position += speed;
+    }
+
+    /**
+     * Calcula el estado siguiente a uno dado, con posición y velocidad en un long.
+     */
+    private long next(long state) {
+        int p = (int) (state >> 32);
+        int v = (int) state;
+        v = lineX < 0
+            ? ParticleStore.bounceY(p, v, diameter, size)
+            : ParticleStore.bounceX(p, v, diameter, size, lineX);
+        return pack(p + v, v);
+    }
+
+    private static long pack(int position, int speed) {
+        return ((long) position << 32) | (speed & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Deja la órbita en el estado que tendría la partícula después de un número
+     * de ticks contados desde el inicio de la órbita.
+     *
+     * @param ticks Los ticks transcurridos.
+     */
+    public void skip(long ticks) {
+        long steps = ticks < entry ? ticks : entry + (ticks - entry) % period;
+        position = start;
+        speed = startSpeed;
+        for (long t = 0; t < steps; t++) {
+            step();
+        }
+    }
+
+    /**
+     * Obtiene el número de ticks que tarda la partícula en entrar al ciclo.
+     *
+     * @return 0 si el estado inicial ya es parte del ciclo.
+     */
+    public int getEntry() {
+        return entry;
+    }
+
+    /**
+     * Obtiene el número de ticks que tarda el ciclo en repetirse.
+     *
+     * @return El periodo.
+     */
+    public int getPeriod() {
+        return period;
+    }
+
+    /**
+     * Obtiene la menor posición que visita la órbita.
+     *
+     * @return La posición mínima.
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * Obtiene la mayor posición que visita la órbita.
+     *
+     * @return La posición máxima.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Obtiene la posición tras el último salto.
+     *
+     * @return La posición.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Obtiene la velocidad tras el último salto.
+     *
+     * @return La velocidad.
+     */
+    public int getSpeed() {
+        return speed;
+    }
+}
@@ -6,12 +6,15 @@ import Shapes.*;
  * rebote en los bordes y una línea divisoria, y manejo de velocidad.
  */
 public class Particle extends Circle {
+    private int id; // Identificador único dentro del contenedor
     private int speedX; // Velocidad en el eje X.
     private int speedY; // Velocidad en el eje Y.
     private boolean isRed; // Indica si la partícula es de color rojo.
     private int originalX; // Almacena la coordenada X original (puede ser negativa)
     private boolean isInRedContainer;
     private boolean transferred;
+    private boolean trapped; // Indica si un agujero atrapó la partícula
+    private boolean removed; // Indica si el contenedor eliminó la partícula
     /**
      * Constructor para crear una partícula con posición, color, diámetro, velocidad y tipo (roja o no).
      *
@@ -32,8 +35,44 @@ public class Particle extends Circle {
         this.originalX = originalX; // Guardar la coordenada X original
         this.isInRedContainer = false;
         this.transferred = false;
+        this.trapped = false;
     }
     
+    /**
+     * Obtiene el identificador de la partícula.
+     *
+     * @return El identificador asignado por el contenedor.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Asigna el identificador de la partícula. Lo hace el contenedor al agregarla.
+     *
+     * @param id El identificador único de la partícula.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Marca la partícula como eliminada del contenedor. Las listas la sacan
+     * después, todas de una vez.
+     */
+    public void markRemoved() {
+        this.removed = true;
+    }
+
+    /**
+     * Indica si el contenedor eliminó la partícula.
+     *
+     * @return `true` si la partícula fue eliminada.
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+
     /**
      * Marca la partícula como transferida.
      */
@@ -50,6 +89,32 @@ public class Particle extends Circle {
         return transferred;
     }
     
+    /**
+     * Marca la partícula como atrapada por un agujero y la oculta.
+     */
+    public void trap() {
+        this.trapped = true;
+        makeInvisible();
+    }
+    
+    /**
+     * Indica si la partícula fue atrapada por un agujero.
+     *
+     * @return `true` si la partícula está atrapada, `false` en caso contrario.
+     */
+    public boolean isTrapped() {
+        return trapped;
+    }
+    
+    /**
+     * Indica si la partícula sigue participando en la simulación.
+     *
+     * @return `true` si la partícula no ha sido atrapada.
+     */
+    public boolean isActive() {
+        return !trapped;
+    }
+    
     /**
      * Obtiene la coordenada X original (puede ser negativa).
      *
@@ -61,7 +126,7 @@ public class Particle extends Circle {
     
     /**
      * Mueve la partícula dentro del contenedor, manejando rebotes en los bordes
-     * y en la línea divisoria.
+     * y en la línea divisoria, y la vuelve a dibujar en su nueva posición.
      *
      * @param containerWidth  El ancho del contenedor.
      * @param containerHeight La altura del contenedor.
@@ -71,7 +136,19 @@ public class Particle extends Circle {
         if (!isVisible) return;
         
         erase();
-        
+        step(containerWidth, containerHeight, lineX);
+        draw();
+    }
+    
+    /**
+     * Avanza la partícula un tick sin dibujarla, manejando rebotes en los bordes
+     * y en la línea divisoria. Es el paso que usa el motor sin interfaz gráfica.
+     *
+     * @param containerWidth  El ancho del contenedor.
+     * @param containerHeight La altura del contenedor.
+     * @param lineX           La posición en X de la línea divisoria.
+     */
+    public void step(int containerWidth, int containerHeight, int lineX) {
         // Calcular nueva posición
         int newX = xPosition + speedX;
         int newY = yPosition + speedY;
@@ -96,8 +173,6 @@ public class Particle extends Circle {
         // Actualizar posición
         xPosition += speedX;
         yPosition += speedY;
-        
-        draw();
     }
     
     // Método para manejar comportamiento específico en colisiones
@@ -0,0 +1,143 @@
+package MaxWellContainer;
+
+import java.util.Arrays;
+
+/**
+ * Rejilla uniforme sobre el contenedor que agrupa las partículas activas por
+ * celda, para llenar un cuadro solo con las que se ven.
+ *
+ * <p>Las partículas se mueven cada tick, así que la rejilla se vuelve a
+ * llenar antes de cada cuadro recortado, con un ordenamiento por conteo sobre
+ * arreglos que se reutilizan: no crea objetos ni copia partículas. Después
+ * basta con recorrer las celdas que tocan la zona visible.</p>
+ */
+public class ParticleGrid {
+    private static final int MIN_CELL_SIZE = 32;
+
+    private int cellSize;
+    private int columns;
+    private int rows;
+    private int[] starts; // Primera posición de cada celda en items; la celda c va de starts[c] a starts[c + 1]
+    private int[] items; // Índices del almacén, agrupados por celda
+    private int[] cellOf; // Celda de cada partícula de la lista de activas, mientras se llena
+    private int[] selected; // Memoria reutilizada para las consultas
+
+    /**
+     * Constructor para crear una rejilla vacía.
+     */
+    public ParticleGrid() {
+        this.starts = new int[1];
+        this.items = new int[0];
+        this.cellOf = new int[0];
+        this.selected = new int[16];
+    }
+
+    /**
+     * Vuelve a llenar la rejilla con las partículas activas del almacén.
+     *
+     * @param store           El almacén de partículas.
+     * @param containerWidth  El ancho total del contenedor.
+     * @param containerHeight La altura del contenedor.
+     */
+    public void rebuild(ParticleStore store, int containerWidth, int containerHeight) {
+        // Celdas al menos del diámetro, y no más que partículas para que
+        // llenar la rejilla no dependa del área
+        int live = store.liveCount();
+        long maxCells = Math.max(live, 1024);
+        double area = (double) containerWidth * containerHeight;
+        cellSize = Math.max(Math.max(MIN_CELL_SIZE, store.getDiameter()), (int) Math.ceil(Math.sqrt(area / maxCells)));
+        columns = Math.max(1, (containerWidth + cellSize - 1) / cellSize);
+        rows = Math.max(1, (containerHeight + cellSize - 1) / cellSize);
+        if (starts.length < columns * rows + 1) {
+            starts = new int[columns * rows + 1];
+        } else {
+            Arrays.fill(starts, 0, columns * rows + 1, 0);
+        }
+        if (cellOf.length < live) {
+            cellOf = new int[live];
+            items = new int[live];
+        }
+
+        for (int n = 0; n < live; n++) {
+            int i = store.liveAt(n);
+            if (!store.isActive(i)) {
+                cellOf[n] = -1;
+                continue;
+            }
+            int cell = cellAt(store.getX(i), store.getY(i));
+            cellOf[n] = cell;
+            starts[cell + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            starts[c + 1] += starts[c];
+        }
+        for (int n = 0; n < live; n++) {
+            int cell = cellOf[n];
+            if (cell < 0) continue;
+
+            items[starts[cell]++] = store.liveAt(n);
+        }
+        // Cada inicio quedó en el inicio de la celda siguiente; se corre uno
+        for (int c = columns * rows; c > 0; c--) {
+            starts[c] = starts[c - 1];
+        }
+        starts[0] = 0;
+    }
+
+    /**
+     * Obtiene las partículas de las celdas que tocan una zona. Las celdas se
+     * toman un diámetro más arriba y a la izquierda, porque la posición de una
+     * partícula es su esquina superior izquierda.
+     *
+     * @param x        La posición en X de la zona.
+     * @param y        La posición en Y de la zona.
+     * @param width    El ancho de la zona.
+     * @param height   La altura de la zona.
+     * @param diameter El diámetro de las partículas.
+     * @return La cantidad de partículas; sus índices quedan en {@link #selected(int)}.
+     */
+    public int select(int x, int y, int width, int height, int diameter) {
+        int firstColumn = clamp(Math.floorDiv(x - diameter, cellSize), columns);
+        int lastColumn = clamp(Math.floorDiv(x + width, cellSize), columns);
+        int firstRow = clamp(Math.floorDiv(y - diameter, cellSize), rows);
+        int lastRow = clamp(Math.floorDiv(y + height, cellSize), rows);
+        int found = 0;
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            int start = starts[r * columns + firstColumn];
+            int end = starts[r * columns + lastColumn + 1];
+            if (found + end - start > selected.length) {
+                selected = Arrays.copyOf(selected, Math.max(2 * selected.length, found + end - start));
+            }
+            System.arraycopy(items, start, selected, found, end - start);
+            found += end - start;
+        }
+        return found;
+    }
+
+    /**
+     * Obtiene una partícula de la última consulta.
+     *
+     * @param n La posición en la consulta.
+     * @return El índice de la partícula en el almacén.
+     */
+    public int selected(int n) {
+        return selected[n];
+    }
+
+    /**
+     * Obtiene la celda de una posición, pegando las de afuera al borde.
+     */
+    private int cellAt(int x, int y) {
+        int column = clamp(Math.floorDiv(x, cellSize), columns);
+        int row = clamp(Math.floorDiv(y, cellSize), rows);
+        return row * columns + column;
+    }
+
+    /**
+     * Limita un índice de columna o fila a la rejilla.
+     */
+    private static int clamp(int value, int limit) {
+        return Math.max(0, Math.min(limit - 1, value));
+    }
+}
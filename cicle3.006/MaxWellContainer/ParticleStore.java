@@ -0,0 +1,729 @@
+package MaxWellContainer;
+
+import java.util.Arrays;
+
+/**
+ * Almacén de partículas por columnas primitivas, usado por el motor de simulación.
+ *
+ * <p>En lugar de recorrer objetos dispersos en memoria, cada atributo se guarda
+ * en su propio arreglo (posición, velocidad, tipo) y los estados booleanos en
+ * conjuntos de bits (un long por cada 64 partículas). Los núcleos de
+ * movimiento y colisión recorren los arreglos en orden, lo que mantiene el
+ * recorrido lineal. Cada partícula ocupa unos 30 bytes: cinco columnas int
+ * (identificador, posición y velocidad), el byte del tipo, su lugar en la
+ * lista de activas y en la de su tipo, y cinco bits de estado.</p>
+ *
+ * <p>El almacén no reemplaza a los objetos {@link Particle}, es una copia
+ * junto a ellos: el contenedor los conserva para dibujarlos y para
+ * identificar cada partícula, así que la memoria total es la de los objetos
+ * más la del almacén, mayor que sin él. Lo que se ahorra es el recorrido: los ticks, los cuadros de {@link
+ * SimulationEngine#addParticles(Shapes.Frame)} y las cuentas del objetivo
+ * leen estas columnas, y el estado se copia a los objetos solo al terminar
+ * cada corrida.</p>
+ *
+ * <p>Dos hilos pueden mover partículas a la vez siempre que trabajen sobre
+ * bloques distintos alineados a {@link #WORD_SIZE} partículas, porque así
+ * nunca comparten una palabra de los conjuntos de bits.</p>
+ *
+ * <p>El almacén lleva la cuenta de cuántas partículas están a la izquierda de
+ * la línea divisoria y cuántas están en el lado equivocado (rojas a la derecha
+ * o azules a la izquierda). Las cuentas se corrigen solo cuando una partícula
+ * cruza la línea, así que consultar el objetivo no recorre las partículas.</p>
+ *
+ * <p>Además guarda, para cada tipo, la lista ordenada de índices de ese tipo.
+ * {@link #stepRange(int, int, int, int, int)} mueve un tipo completo antes de
+ * pasar al siguiente, de modo que cada ciclo llama siempre al mismo método y
+ * el procesador no tiene que adivinar el tipo de cada partícula.</p>
+ *
+ * <p>Las partículas atrapadas o desaparecidas siguen guardadas, porque las
+ * consultas las reportan, pero {@link #compact()} las saca de las listas por
+ * tipo y de la lista de activas. Así, los ciclos del tick solo recorren las
+ * partículas que todavía se mueven.</p>
+ */
+public class ParticleStore {
+    public static final byte NORMAL = 0;
+    public static final byte FLYING = 1;
+    public static final byte ROTATOR = 2;
+    public static final byte EPHEMERAL = 3;
+    public static final int WORD_SIZE = 64; // Partículas por palabra de los conjuntos de bits
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size; // Número de partículas guardadas
+    private int diameter; // Diámetro común de las partículas
+    private int lineX; // Posición de la línea divisoria
+    private int left; // Partículas a la izquierda de la línea
+    private int misplaced; // Partículas en el lado que no les corresponde
+    private int[] id; // Identificador de cada partícula en el contenedor
+    private int[] x;
+    private int[] y;
+    private int[] vx;
+    private int[] vy;
+    private byte[] type;
+    private int[][] members; // Índices de cada tipo, en orden ascendente
+    private int[] memberCount; // Cantidad de partículas de cada tipo
+    private int[] live; // Índices de las partículas activas, en orden ascendente
+    private int liveCount;
+    private boolean dirty; // Alguna partícula dejó de estar activa desde la última compactación
+    private long[] red; // Partículas rojas
+    private long[] transferred; // Partículas que ya pasó un demonio
+    private long[] visible; // Partículas que siguen moviéndose (no atrapadas ni desaparecidas)
+    private long[] trapped; // Partículas atrapadas por un agujero
+    private long[] removed; // Partículas eliminadas que esperan la próxima purga
+
+    /**
+     * Constructor para crear un almacén vacío.
+     *
+     * @param diameter El diámetro de las partículas que se guardarán.
+     * @param lineX    La posición de la línea divisoria.
+     */
+    public ParticleStore(int diameter, int lineX) {
+        this.diameter = diameter;
+        this.lineX = lineX;
+        this.size = 0;
+        this.id = new int[INITIAL_CAPACITY];
+        this.x = new int[INITIAL_CAPACITY];
+        this.y = new int[INITIAL_CAPACITY];
+        this.vx = new int[INITIAL_CAPACITY];
+        this.vy = new int[INITIAL_CAPACITY];
+        this.type = new byte[INITIAL_CAPACITY];
+        this.members = new int[EPHEMERAL + 1][INITIAL_CAPACITY];
+        this.memberCount = new int[EPHEMERAL + 1];
+        this.live = new int[INITIAL_CAPACITY];
+        this.red = new long[words(INITIAL_CAPACITY)];
+        this.transferred = new long[words(INITIAL_CAPACITY)];
+        this.visible = new long[words(INITIAL_CAPACITY)];
+        this.trapped = new long[words(INITIAL_CAPACITY)];
+        this.removed = new long[words(INITIAL_CAPACITY)];
+    }
+
+    /**
+     * Asegura espacio para un número de partículas sin volver a crecer los arreglos.
+     *
+     * @param capacity El número de partículas que se espera guardar.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= x.length) return;
+
+        int newCapacity = Math.max(capacity, x.length + (x.length >> 1));
+        id = Arrays.copyOf(id, newCapacity);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        vx = Arrays.copyOf(vx, newCapacity);
+        vy = Arrays.copyOf(vy, newCapacity);
+        type = Arrays.copyOf(type, newCapacity);
+        red = Arrays.copyOf(red, words(newCapacity));
+        transferred = Arrays.copyOf(transferred, words(newCapacity));
+        visible = Arrays.copyOf(visible, words(newCapacity));
+        trapped = Arrays.copyOf(trapped, words(newCapacity));
+        removed = Arrays.copyOf(removed, words(newCapacity));
+    }
+
+    /**
+     * Agrega al almacén el estado actual de una partícula.
+     *
+     * @param particle La partícula a copiar.
+     * @return El índice asignado a la partícula dentro del almacén.
+     */
+    public int add(Particle particle) {
+        ensureCapacity(size + 1);
+        int i = size++;
+
+        id[i] = particle.getId();
+        x[i] = particle.getXPosition();
+        y[i] = particle.getYPosition();
+        vx[i] = particle.getSpeedX();
+        vy[i] = particle.getSpeedY();
+        type[i] = typeOf(particle);
+        if (particle.isActive()) {
+            addMember(type[i], i);
+            if (liveCount == live.length) {
+                live = Arrays.copyOf(live, 2 * liveCount);
+            }
+            live[liveCount++] = i;
+        }
+        put(red, i, particle.isRed());
+        put(transferred, i, particle.isTransferred());
+        put(visible, i, particle.isActive());
+        put(trapped, i, particle.isTrapped());
+        if (x[i] < lineX) {
+            left++;
+        }
+        if (isMisplaced(i)) {
+            misplaced++;
+        }
+        return i;
+    }
+
+    /**
+     * Copia el estado de una posición del almacén de vuelta a su partícula.
+     *
+     * @param i        El índice de la partícula en el almacén.
+     * @param particle La partícula que recibe el estado.
+     */
+    public void copyTo(int i, Particle particle) {
+        particle.setXPosition(x[i]);
+        particle.setYPosition(y[i]);
+        particle.setSpeedX(vx[i]);
+        particle.setSpeedY(vy[i]);
+
+        if (get(transferred, i) && !particle.isTransferred()) {
+            particle.setTransferred();
+        }
+        if (get(trapped, i) && !particle.isTrapped()) {
+            particle.trap();
+        }
+        if (!get(visible, i) && particle instanceof Ephemeral) {
+            ((Ephemeral) particle).disappear();
+        }
+    }
+
+    /**
+     * Vacía el almacén conservando la memoria reservada.
+     */
+    public void clear() {
+        size = 0;
+        Arrays.fill(memberCount, 0);
+        liveCount = 0;
+        dirty = false;
+        left = 0;
+        misplaced = 0;
+        Arrays.fill(red, 0L);
+        Arrays.fill(transferred, 0L);
+        Arrays.fill(visible, 0L);
+        Arrays.fill(trapped, 0L);
+        Arrays.fill(removed, 0L);
+    }
+
+    /**
+     * Avanza una partícula un tick según su tipo. Replica el movimiento de
+     * Particle, Rotator y Ephemeral sobre las columnas del almacén.
+     *
+     * @param i               El índice de la partícula.
+     * @param containerWidth  El ancho total del contenedor.
+     * @param containerHeight La altura del contenedor.
+     * @param lineX           La posición de la línea divisoria.
+     */
+    public void step(int i, int containerWidth, int containerHeight, int lineX) {
+        if (!get(visible, i)) return;
+
+        switch (type[i]) {
+            case ROTATOR:
+                stepRotator(i, containerWidth, containerHeight, lineX);
+                break;
+            case EPHEMERAL:
+                stepEphemeral(i, containerWidth, containerHeight, lineX);
+                break;
+            default:
+                move(i, containerWidth, containerHeight, lineX);
+        }
+    }
+
+    /**
+     * Avanza un tick las partículas con índice en [start, end), un tipo a la vez.
+     * Cada tipo recorre solo sus propios índices, en orden ascendente.
+     *
+     * @param start           El primer índice del rango.
+     * @param end             El índice siguiente al último del rango.
+     * @param containerWidth  El ancho total del contenedor.
+     * @param containerHeight La altura del contenedor.
+     * @param lineX           La posición de la línea divisoria.
+     */
+    public void stepRange(int start, int end, int containerWidth, int containerHeight, int lineX) {
+        for (byte t = NORMAL; t <= FLYING; t++) {
+            int[] list = members[t];
+            for (int n = firstMember(t, start); n < memberCount[t] && list[n] < end; n++) {
+                int i = list[n];
+                if (get(visible, i)) {
+                    move(i, containerWidth, containerHeight, lineX);
+                }
+            }
+        }
+
+        int[] rotators = members[ROTATOR];
+        for (int n = firstMember(ROTATOR, start); n < memberCount[ROTATOR] && rotators[n] < end; n++) {
+            stepRotator(rotators[n], containerWidth, containerHeight, lineX);
+        }
+
+        int[] ephemerals = members[EPHEMERAL];
+        for (int n = firstMember(EPHEMERAL, start); n < memberCount[EPHEMERAL] && ephemerals[n] < end; n++) {
+            stepEphemeral(ephemerals[n], containerWidth, containerHeight, lineX);
+        }
+    }
+
+    /**
+     * Rotador: intercambia sus velocidades antes de un choque.
+     */
+    private void stepRotator(int i, int containerWidth, int containerHeight, int lineX) {
+        if (!get(visible, i)) return;
+
+        if (willCollide(i, containerWidth, containerHeight, lineX)) {
+            int temp = vx[i];
+            vx[i] = vy[i];
+            vy[i] = temp;
+        }
+        move(i, containerWidth, containerHeight, lineX);
+    }
+
+    /**
+     * Efímera: pierde una unidad de velocidad en cada choque y desaparece al quedar quieta.
+     */
+    private void stepEphemeral(int i, int containerWidth, int containerHeight, int lineX) {
+        if (!get(visible, i)) return;
+
+        if (willCollide(i, containerWidth, containerHeight, lineX)) {
+            vx[i] += vx[i] > 0 ? -1 : 1;
+            vy[i] += vy[i] > 0 ? -1 : 1;
+        }
+        move(i, containerWidth, containerHeight, lineX);
+        if (vx[i] == 0 && vy[i] == 0) {
+            put(visible, i, false);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Saca de las listas de activas y de cada tipo las partículas que dejaron
+     * de moverse. Se llama entre ticks, nunca mientras se simula uno.
+     *
+     * @return El número de partículas que se sacaron.
+     */
+    public int compact() {
+        if (!dirty) return 0;
+        dirty = false;
+
+        int kept = 0;
+        for (int n = 0; n < liveCount; n++) {
+            if (get(visible, live[n])) {
+                live[kept++] = live[n];
+            }
+        }
+        int removed = liveCount - kept;
+        liveCount = kept;
+
+        for (byte t = NORMAL; t <= EPHEMERAL; t++) {
+            int[] list = members[t];
+            int count = 0;
+            for (int n = 0; n < memberCount[t]; n++) {
+                if (get(visible, list[n])) {
+                    list[count++] = list[n];
+                }
+            }
+            memberCount[t] = count;
+        }
+        return removed;
+    }
+
+    /**
+     * Marca una partícula como eliminada: deja de moverse y de contar para
+     * el objetivo, pero conserva su índice hasta {@link #purge()}, para que
+     * las demás no se muevan de lugar.
+     *
+     * @param i El índice de la partícula.
+     */
+    public void remove(int i) {
+        if (x[i] < lineX) {
+            left--;
+        }
+        if (isMisplaced(i)) {
+            misplaced--;
+        }
+        put(visible, i, false);
+        put(removed, i, true);
+        dirty = true;
+    }
+
+    /**
+     * Saca del almacén las partículas eliminadas con {@link #remove(int)},
+     * corriendo las demás hacia el inicio sin cambiar su orden, y rehace
+     * las listas de activas y de cada tipo. Se llama entre ticks.
+     *
+     * @return El número de partículas que se sacaron.
+     */
+    public int purge() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (get(removed, i)) continue;
+
+            if (kept != i) {
+                id[kept] = id[i];
+                x[kept] = x[i];
+                y[kept] = y[i];
+                vx[kept] = vx[i];
+                vy[kept] = vy[i];
+                type[kept] = type[i];
+                put(red, kept, get(red, i));
+                put(transferred, kept, get(transferred, i));
+                put(visible, kept, get(visible, i));
+                put(trapped, kept, get(trapped, i));
+            }
+            kept++;
+        }
+        int purged = size - kept;
+        size = kept;
+        Arrays.fill(removed, 0L);
+
+        liveCount = 0;
+        Arrays.fill(memberCount, 0);
+        for (int i = 0; i < size; i++) {
+            if (get(visible, i)) {
+                addMember(type[i], i);
+                if (liveCount == live.length) {
+                    live = Arrays.copyOf(live, 2 * liveCount);
+                }
+                live[liveCount++] = i;
+            }
+        }
+        dirty = false;
+        return purged;
+    }
+
+    /**
+     * Obtiene cuántas partículas quedaban activas en la última compactación.
+     *
+     * @return El largo de la lista de activas.
+     */
+    public int liveCount() {
+        return liveCount;
+    }
+
+    /**
+     * Obtiene un índice de la lista de activas.
+     *
+     * @param n La posición en la lista, entre 0 y {@link #liveCount()} - 1.
+     * @return El índice de la partícula en el almacén.
+     */
+    public int liveAt(int n) {
+        return live[n];
+    }
+
+    /**
+     * Agrega un índice a la lista de su tipo. Los índices llegan en orden creciente.
+     */
+    private void addMember(byte t, int i) {
+        if (memberCount[t] == members[t].length) {
+            members[t] = Arrays.copyOf(members[t], 2 * members[t].length);
+        }
+        members[t][memberCount[t]++] = i;
+    }
+
+    /**
+     * Busca la posición del primer índice del tipo que no es menor que start.
+     */
+    private int firstMember(byte t, int start) {
+        int low = 0;
+        int high = memberCount[t];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (members[t][middle] < start) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Movimiento básico con rebote en los bordes y en la línea divisoria.
+     */
+    private void move(int i, int containerWidth, int containerHeight, int lineX) {
+        boolean wasLeft = x[i] < this.lineX;
+        vx[i] = bounceX(x[i], vx[i], diameter, containerWidth, lineX);
+        vy[i] = bounceY(y[i], vy[i], diameter, containerHeight);
+        x[i] += vx[i];
+        y[i] += vy[i];
+        if (x[i] < this.lineX != wasLeft) {
+            crossed(i);
+        }
+    }
+
+    /**
+     * Corrige las cuentas de lado de una partícula que acaba de cruzar la línea.
+     * Cruzar es raro, así que sincronizar aquí no frena los hilos que mueven
+     * bloques distintos.
+     */
+    private synchronized void crossed(int i) {
+        boolean isLeft = x[i] < lineX;
+        left += isLeft ? 1 : -1;
+        misplaced += isMisplaced(i) ? 1 : -1;
+    }
+
+    /**
+     * Indica si una partícula está en el lado que no le corresponde.
+     */
+    private boolean isMisplaced(int i) {
+        return get(red, i) == (x[i] >= lineX);
+    }
+
+    /**
+     * Obtiene el número de partículas a la izquierda de la línea divisoria.
+     *
+     * @return Las partículas con X menor que la línea.
+     */
+    public synchronized int getLeft() {
+        return left;
+    }
+
+    /**
+     * Obtiene el número de partículas en el lado que no les corresponde:
+     * rojas a la derecha o azules a la izquierda.
+     *
+     * @return Las partículas mal ubicadas.
+     */
+    public synchronized int getMisplaced() {
+        return misplaced;
+    }
+
+    /**
+     * Calcula la velocidad en X tras el rebote del próximo movimiento, contra
+     * los bordes laterales y la línea divisoria.
+     *
+     * @return La velocidad con la que la partícula se desplaza en este tick.
+     */
+    static int bounceX(int x, int speedX, int diameter, int containerWidth, int lineX) {
+        int newX = x + speedX;
+        if (newX <= 0 || newX + diameter >= containerWidth) {
+            speedX = -speedX;
+        }
+        if ((x <= lineX && newX >= lineX) || (x >= lineX && newX <= lineX)) {
+            speedX = -speedX;
+        }
+        return speedX;
+    }
+
+    /**
+     * Calcula la velocidad en Y tras el rebote del próximo movimiento contra
+     * los bordes superior e inferior.
+     *
+     * @return La velocidad con la que la partícula se desplaza en este tick.
+     */
+    static int bounceY(int y, int speedY, int diameter, int containerHeight) {
+        int newY = y + speedY;
+        if (newY <= 0 || newY + diameter >= containerHeight) {
+            speedY = -speedY;
+        }
+        return speedY;
+    }
+
+    /**
+     * Indica si el próximo movimiento de la partícula choca con un borde o con la línea.
+     */
+    private boolean willCollide(int i, int containerWidth, int containerHeight, int lineX) {
+        int newX = x[i] + vx[i];
+        int newY = y[i] + vy[i];
+
+        return newX <= 0 || newX + diameter >= containerWidth
+            || newY <= 0 || newY + diameter >= containerHeight
+            || (x[i] <= lineX && newX >= lineX) || (x[i] >= lineX && newX <= lineX);
+    }
+
+    /**
+     * Calcula cuántas palabras de 64 bits hacen falta para un número de partículas.
+     */
+    private static int words(int capacity) {
+        return (capacity + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * Lee un bit de un conjunto.
+     */
+    private static boolean get(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Escribe un bit de un conjunto.
+     */
+    private static void put(long[] bits, int i, boolean value) {
+        if (value) {
+            bits[i >>> 6] |= 1L << i;
+        } else {
+            bits[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    /**
+     * Obtiene el tipo de almacén que corresponde a una partícula.
+     */
+    static byte typeOf(Particle particle) {
+        if (particle instanceof Flying) return FLYING;
+        if (particle instanceof Rotator) return ROTATOR;
+        if (particle instanceof Ephemeral) return EPHEMERAL;
+        return NORMAL;
+    }
+
+    /**
+     * Obtiene el número de partículas guardadas.
+     *
+     * @return El tamaño del almacén.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtiene el diámetro de las partículas.
+     *
+     * @return El diámetro común.
+     */
+    public int getDiameter() {
+        return diameter;
+    }
+
+    /**
+     * Obtiene el identificador de una partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return El identificador que le asignó el contenedor.
+     */
+    public int getId(int i) {
+        return id[i];
+    }
+
+    /**
+     * Obtiene la posición en X de una partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return La coordenada X interna.
+     */
+    public int getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Obtiene la posición en Y de una partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return La coordenada Y.
+     */
+    public int getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Obtiene la velocidad en X de una partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return La velocidad en X.
+     */
+    public int getSpeedX(int i) {
+        return vx[i];
+    }
+
+    /**
+     * Obtiene la velocidad en Y de una partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return La velocidad en Y.
+     */
+    public int getSpeedY(int i) {
+        return vy[i];
+    }
+
+    /**
+     * Obtiene el tipo de una partícula (NORMAL, FLYING, ROTATOR o EPHEMERAL).
+     *
+     * @param i El índice de la partícula.
+     * @return El tipo de la partícula.
+     */
+    public byte getType(int i) {
+        return type[i];
+    }
+
+    /**
+     * Indica si una partícula es roja.
+     *
+     * @param i El índice de la partícula.
+     * @return true si la partícula es roja.
+     */
+    public boolean isRed(int i) {
+        return get(red, i);
+    }
+
+    /**
+     * Indica si un demonio ya transfirió la partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return true si la partícula fue transferida.
+     */
+    public boolean isTransferred(int i) {
+        return get(transferred, i);
+    }
+
+    /**
+     * Indica si un agujero atrapó la partícula.
+     *
+     * @param i El índice de la partícula.
+     * @return true si la partícula está atrapada.
+     */
+    public boolean isTrapped(int i) {
+        return get(trapped, i);
+    }
+
+    /**
+     * Indica si la partícula sigue moviéndose en la simulación.
+     *
+     * @param i El índice de la partícula.
+     * @return true si no fue atrapada ni desapareció.
+     */
+    public boolean isActive(int i) {
+        return get(visible, i);
+    }
+
+    /**
+     * Cambia la posición de una partícula.
+     *
+     * @param i  El índice de la partícula.
+     * @param px La nueva posición en X.
+     * @param py La nueva posición en Y.
+     */
+    public void setPosition(int i, int px, int py) {
+        boolean wasLeft = x[i] < lineX;
+        x[i] = px;
+        y[i] = py;
+        if (px < lineX != wasLeft) {
+            crossed(i);
+        }
+    }
+
+    /**
+     * Cambia la velocidad en X de una partícula.
+     *
+     * @param i      El índice de la partícula.
+     * @param speedX La nueva velocidad en X.
+     */
+    public void setSpeedX(int i, int speedX) {
+        vx[i] = speedX;
+    }
+
+    /**
+     * Cambia la velocidad en Y de una partícula.
+     *
+     * @param i      El índice de la partícula.
+     * @param speedY La nueva velocidad en Y.
+     */
+    public void setSpeedY(int i, int speedY) {
+        vy[i] = speedY;
+    }
+
+    /**
+     * Marca la partícula como transferida.
+     *
+     * @param i El índice de la partícula.
+     */
+    public void setTransferred(int i) {
+        put(transferred, i, true);
+    }
+
+    /**
+     * Marca la partícula como atrapada; deja de moverse.
+     *
+     * @param i El índice de la partícula.
+     */
+    public void trap(int i) {
+        put(trapped, i, true);
+        put(visible, i, false);
+        dirty = true;
+    }
+}
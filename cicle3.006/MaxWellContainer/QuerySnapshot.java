@@ -0,0 +1,351 @@
+package MaxWellContainer;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Copia ordenada del estado de una lista de entidades (partículas, agujeros o
+ * demonios), para responder consultas sin recorrer ni ordenar cada vez.
+ *
+ * <p>Cada entidad aporta una fila de enteros y un tipo. Las filas se guardan
+ * en un solo arreglo, en el lugar que la entidad recibió la primera vez que
+ * apareció, y se reescriben en ese mismo lugar. La copia guarda el número de
+ * versión del contenedor con que se construyó: mientras la versión no
+ * cambie, la consulta no vuelve a ordenar nada. Cuando cambia, solo se
+ * ordenan las filas nuevas o cambiadas y se mezclan con las demás, que ya
+ * estaban en orden; las entidades que ya no están salen del orden y dejan
+ * su lugar libre para otra.</p>
+ *
+ * <p>Para actualizarla se llama a {@link #begin(long)}, luego a
+ * {@link #put(Object, byte, int[])} con cada entidad y al final a
+ * {@link #end()}. Las consultas por tipo filtran el mismo orden.</p>
+ *
+ * <p>Cada consulta arma su resultado una sola vez por versión y lo comparte
+ * con las consultas siguientes hasta que algo cambie, así que repetir una
+ * consulta no cuesta nada. Quien recibe el resultado no debe modificarlo.</p>
+ */
+public class QuerySnapshot {
+    private int columns;
+    private long version; // Versión del contenedor con que se construyó la copia
+    private IdentityHashMap<Object, Integer> slotOf; // Lugar de cada entidad
+    private Object[] entityAt; // Entidad de cada lugar, o null si está libre
+    private int[] rows; // Fila de cada lugar, una tras otra
+    private byte[] kinds; // Tipo de la entidad de cada lugar
+    private int[] seen; // Última actualización en que apareció cada lugar
+    private int slots; // Lugares usados alguna vez
+    private int[] free; // Lugares libres para reutilizar
+    private int freeCount;
+    private int[] order; // Lugares ordenados por fila
+    private int count; // Cantidad de entidades
+    private int[] changed; // Lugares nuevos o cambiados en la actualización en curso
+    private int changedCount;
+    private boolean[] isChanged; // Marca de los lugares en changed
+    private int pass; // Número de la actualización en curso
+    private int[][] all; // Resultado compartido de rows(), o null si hay que armarlo
+    private int[][][] allByKind; // Resultado compartido de rows(kind)
+    private int[] column; // Resultado compartido de column()
+    private int[][] columnByKind; // Resultado compartido de column(kind)
+
+    /**
+     * Constructor para crear una copia vacía.
+     *
+     * @param columns La cantidad de valores de cada fila.
+     * @param types   La cantidad de tipos de entidad.
+     */
+    public QuerySnapshot(int columns, int types) {
+        this.columns = columns;
+        this.version = -1;
+        this.slotOf = new IdentityHashMap<>();
+        this.entityAt = new Object[0];
+        this.rows = new int[0];
+        this.kinds = new byte[0];
+        this.seen = new int[0];
+        this.free = new int[0];
+        this.order = new int[0];
+        this.changed = new int[8];
+        this.isChanged = new boolean[0];
+        this.allByKind = new int[types][][];
+        this.columnByKind = new int[types][];
+    }
+
+    /**
+     * Indica si la copia corresponde a una versión del contenedor.
+     *
+     * @param version La versión actual del contenedor.
+     * @return true si no hace falta actualizarla.
+     */
+    public boolean isCurrent(long version) {
+        return this.version == version;
+    }
+
+    /**
+     * Empieza a actualizar la copia con el estado de una versión del
+     * contenedor. Después se entrega cada entidad con
+     * {@link #put(Object, byte, int[])} y se termina con {@link #end()}.
+     *
+     * @param version La versión del contenedor a la que corresponde el estado.
+     */
+    public void begin(long version) {
+        this.version = version;
+        changedCount = 0;
+        pass++;
+    }
+
+    /**
+     * Entrega el estado de una entidad. Si la fila no cambió desde la copia
+     * anterior, no se hace nada más.
+     *
+     * @param entity La entidad, que se reconoce por identidad.
+     * @param kind   El tipo de la entidad.
+     * @param row    Los valores de la fila; se copian, así que se puede reutilizar.
+     */
+    public void put(Object entity, byte kind, int[] row) {
+        Integer known = slotOf.get(entity);
+        int slot;
+        if (known == null) {
+            slot = allocate(entity);
+            kinds[slot] = kind;
+            System.arraycopy(row, 0, rows, slot * columns, columns);
+            markChanged(slot);
+        } else {
+            slot = known;
+            if (!sameRow(slot, row)) {
+                System.arraycopy(row, 0, rows, slot * columns, columns);
+                markChanged(slot);
+            }
+        }
+        seen[slot] = pass;
+    }
+
+    /**
+     * Termina la actualización: saca del orden las entidades que no se
+     * entregaron, ordena las nuevas o cambiadas y las mezcla con las demás.
+     */
+    public void end() {
+        int removed = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (entityAt[slot] != null && seen[slot] != pass) {
+                slotOf.remove(entityAt[slot]);
+                entityAt[slot] = null;
+                free[freeCount++] = slot;
+                removed++;
+            }
+        }
+        if (changedCount == 0 && removed == 0) return;
+
+        int[] moved = sorted(changed, changedCount);
+        int total = slotOf.size();
+        int[] result = new int[total];
+        int next = 0;
+        int m = 0;
+        for (int n = 0; n < count; n++) {
+            int slot = order[n];
+            if (entityAt[slot] == null || isChanged[slot]) continue;
+
+            while (m < changedCount && compare(moved[m], slot) < 0) {
+                result[next++] = moved[m++];
+            }
+            result[next++] = slot;
+        }
+        while (m < changedCount) {
+            result[next++] = moved[m++];
+        }
+        for (int n = 0; n < changedCount; n++) {
+            isChanged[changed[n]] = false;
+        }
+        order = result;
+        count = total;
+
+        all = null;
+        Arrays.fill(allByKind, null);
+        column = null;
+        Arrays.fill(columnByKind, null);
+    }
+
+    /**
+     * Obtiene las filas de todas las entidades, en orden.
+     *
+     * @return Una matriz con una fila por entidad, compartida hasta el siguiente cambio.
+     */
+    public int[][] rows() {
+        if (all == null) {
+            all = rowsOf(-1);
+        }
+        return all;
+    }
+
+    /**
+     * Obtiene las filas de las entidades de un tipo, en orden.
+     *
+     * @param kind El tipo.
+     * @return Una matriz con una fila por entidad, compartida hasta el siguiente cambio.
+     */
+    public int[][] rows(byte kind) {
+        if (allByKind[kind] == null) {
+            allByKind[kind] = rowsOf(kind);
+        }
+        return allByKind[kind];
+    }
+
+    /**
+     * Obtiene el primer valor de la fila de cada entidad, en orden. Sirve
+     * para las copias de una sola columna, como las posiciones de los demonios.
+     *
+     * @return Un arreglo con un valor por entidad, compartido hasta el siguiente cambio.
+     */
+    public int[] column() {
+        if (column == null) {
+            column = columnOf(-1);
+        }
+        return column;
+    }
+
+    /**
+     * Obtiene el primer valor de la fila de cada entidad de un tipo, en orden.
+     *
+     * @param kind El tipo.
+     * @return Un arreglo con un valor por entidad, compartido hasta el siguiente cambio.
+     */
+    public int[] column(byte kind) {
+        if (columnByKind[kind] == null) {
+            columnByKind[kind] = columnOf(kind);
+        }
+        return columnByKind[kind];
+    }
+
+    /**
+     * Arma las filas en orden de las entidades de un tipo, o de todas si el
+     * tipo es -1.
+     */
+    private int[][] rowsOf(int kind) {
+        int[][] result = new int[matching(kind)][];
+        int next = 0;
+        for (int n = 0; n < count; n++) {
+            int slot = order[n];
+            if (kind < 0 || kinds[slot] == kind) {
+                result[next++] = Arrays.copyOfRange(rows, slot * columns, (slot + 1) * columns);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Arma el primer valor en orden de las entidades de un tipo, o de todas
+     * si el tipo es -1.
+     */
+    private int[] columnOf(int kind) {
+        int[] result = new int[matching(kind)];
+        int next = 0;
+        for (int n = 0; n < count; n++) {
+            int slot = order[n];
+            if (kind < 0 || kinds[slot] == kind) {
+                result[next++] = rows[slot * columns];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cuenta las entidades de un tipo, o todas si el tipo es -1.
+     */
+    private int matching(int kind) {
+        if (kind < 0) return count;
+
+        int found = 0;
+        for (int n = 0; n < count; n++) {
+            if (kinds[order[n]] == kind) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Da un lugar a una entidad nueva, reutilizando uno libre si hay.
+     */
+    private int allocate(Object entity) {
+        int slot;
+        if (freeCount > 0) {
+            slot = free[--freeCount];
+        } else {
+            if (slots == entityAt.length) {
+                int capacity = Math.max(16, 2 * slots);
+                entityAt = Arrays.copyOf(entityAt, capacity);
+                rows = Arrays.copyOf(rows, capacity * columns);
+                kinds = Arrays.copyOf(kinds, capacity);
+                seen = Arrays.copyOf(seen, capacity);
+                free = Arrays.copyOf(free, capacity);
+                isChanged = Arrays.copyOf(isChanged, capacity);
+            }
+            slot = slots++;
+        }
+        entityAt[slot] = entity;
+        slotOf.put(entity, slot);
+        return slot;
+    }
+
+    /**
+     * Anota un lugar como nuevo o cambiado en la actualización en curso.
+     */
+    private void markChanged(int slot) {
+        if (isChanged[slot]) return;
+
+        if (changedCount == changed.length) {
+            changed = Arrays.copyOf(changed, 2 * changedCount);
+        }
+        changed[changedCount++] = slot;
+        isChanged[slot] = true;
+    }
+
+    /**
+     * Ordena lugares por fila con un ordenamiento por mezcla estable.
+     */
+    private int[] sorted(int[] entities, int length) {
+        int[] source = Arrays.copyOf(entities, length);
+        int[] target = new int[length];
+        for (int width = 1; width < length; width *= 2) {
+            for (int start = 0; start < length; start += 2 * width) {
+                int middle = Math.min(start + width, length);
+                int end = Math.min(start + 2 * width, length);
+                int a = start;
+                int b = middle;
+                for (int n = start; n < end; n++) {
+                    if (a < middle && (b >= end || compare(source[a], source[b]) <= 0)) {
+                        target[n] = source[a++];
+                    } else {
+                        target[n] = source[b++];
+                    }
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        return source;
+    }
+
+    /**
+     * Compara las filas de dos lugares valor por valor.
+     */
+    private int compare(int a, int b) {
+        int offsetA = a * columns;
+        int offsetB = b * columns;
+        for (int c = 0; c < columns; c++) {
+            if (rows[offsetA + c] != rows[offsetB + c]) {
+                return Integer.compare(rows[offsetA + c], rows[offsetB + c]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Indica si la fila guardada en un lugar coincide con los valores nuevos.
+     */
+    private boolean sameRow(int slot, int[] row) {
+        int offset = slot * columns;
+        for (int c = 0; c < columns; c++) {
+            if (rows[offset + c] != row[c]) return false;
+        }
+        return true;
+    }
+}
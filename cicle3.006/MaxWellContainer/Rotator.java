@@ -23,13 +23,13 @@ public class Rotator extends Particle {
     }
 
     /**
-     * Mueve la partícula intercambiando velocidades al colisionar.
+     * Avanza la partícula intercambiando velocidades al colisionar.
      * @param containerWidth  Ancho del contenedor
      * @param containerHeight Altura del contenedor
      * @param lineX           Posición de la línea divisoria
      */
     @Override
-    public void move(int containerWidth, int containerHeight, int lineX) {
+    public void step(int containerWidth, int containerHeight, int lineX) {
         // Detectar colisión antes de mover
         boolean willCollide = checkCollision(containerWidth, containerHeight, lineX);
         
@@ -38,7 +38,7 @@ public class Rotator extends Particle {
         }
         
         // Ejecutar movimiento normal de la partícula
-        super.move(containerWidth, containerHeight, lineX);
+        super.step(containerWidth, containerHeight, lineX);
     }
 
     /**
@@ -0,0 +1,55 @@
+package MaxWellContainer;
+
+/**
+ * Escenario de una corrida por lotes: los mismos datos que recibe el
+ * constructor {@link MaxwellContainer#MaxwellContainer(int, int, int, int, int, int[][])}
+ * y el número de ticks que se debe simular.
+ */
+public class Scenario {
+    private int width;
+    private int height;
+    private int demon;
+    private int red;
+    private int blue;
+    private int[][] particles;
+    private int ticks;
+
+    /**
+     * Constructor para crear un escenario.
+     *
+     * @param w         El ancho del contenedor.
+     * @param h         La altura del contenedor.
+     * @param d         La posición inicial del demonio.
+     * @param r         La cantidad de partículas rojas.
+     * @param b         La cantidad de partículas azules.
+     * @param particles Una matriz con los datos de las partículas (x, y, vx, vy).
+     * @param ticks     El número de ticks a simular.
+     */
+    public Scenario(int w, int h, int d, int r, int b, int[][] particles, int ticks) {
+        this.width = w;
+        this.height = h;
+        this.demon = d;
+        this.red = r;
+        this.blue = b;
+        this.particles = particles;
+        this.ticks = ticks;
+    }
+
+    /**
+     * Crea el contenedor del escenario, sin dibujarlo.
+     *
+     * @return Un contenedor nuevo con el demonio y las partículas del escenario.
+     */
+    public MaxwellContainer create() {
+        return new MaxwellContainer(width, height, demon, red, blue, particles);
+    }
+
+    /**
+     * Obtiene el número de ticks a simular.
+     *
+     * @return Los ticks del escenario.
+     */
+    public int getTicks() {
+        return ticks;
+    }
+}
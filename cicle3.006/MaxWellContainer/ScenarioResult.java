@@ -0,0 +1,108 @@
+package MaxWellContainer;
+
+/**
+ * Resultado de simular un escenario en una corrida por lotes.
+ */
+public class ScenarioResult {
+    private int index;
+    private boolean success;
+    private int goalTick;
+    private int[][] particles;
+    private int[][] holes;
+    private int transfers;
+    private IllegalArgumentException error; // Por qué no se pudo simular, o null
+
+    /**
+     * Constructor para crear el resultado de un escenario.
+     *
+     * @param index     La posición del escenario en el lote.
+     * @param success   Indica si el escenario se pudo simular.
+     * @param goalTick  El primer tick en que se cumplió el objetivo, o -1.
+     * @param particles Los datos finales de las partículas.
+     * @param holes     Los datos finales de los agujeros.
+     * @param transfers El número de partículas transferidas por el demonio.
+     */
+    public ScenarioResult(int index, boolean success, int goalTick, int[][] particles, int[][] holes, int transfers) {
+        this.index = index;
+        this.success = success;
+        this.goalTick = goalTick;
+        this.particles = particles;
+        this.holes = holes;
+        this.transfers = transfers;
+        this.error = null;
+    }
+
+    /**
+     * Constructor para crear el resultado de un escenario que no se pudo simular.
+     *
+     * @param index La posición del escenario en el lote.
+     * @param error El error que describe qué datos eran inválidos.
+     */
+    public ScenarioResult(int index, IllegalArgumentException error) {
+        this(index, false, -1, new int[0][], new int[0][], 0);
+        this.error = error;
+    }
+
+    /**
+     * Obtiene la posición del escenario en el lote, contando desde 0.
+     *
+     * @return El índice del escenario.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Indica si el escenario se pudo simular.
+     *
+     * @return false si los datos del escenario eran inválidos.
+     */
+    public boolean ok() {
+        return success;
+    }
+
+    /**
+     * Obtiene el error por el que el escenario no se pudo simular.
+     *
+     * @return El error, o null si el escenario se simuló.
+     */
+    public IllegalArgumentException getError() {
+        return error;
+    }
+
+    /**
+     * Obtiene el primer tick en que todas las partículas quedaron en su lado.
+     *
+     * @return El tick, 0 si el objetivo se cumplía desde el inicio, o -1 si no se cumplió.
+     */
+    public int getGoalTick() {
+        return goalTick;
+    }
+
+    /**
+     * Obtiene los datos finales de las partículas, como {@link MaxwellContainer#particles(String)}.
+     *
+     * @return Una matriz con x, y, vx y vy de cada partícula, ordenada.
+     */
+    public int[][] getParticles() {
+        return particles;
+    }
+
+    /**
+     * Obtiene los datos finales de los agujeros, como {@link MaxwellContainer#holes(String)}.
+     *
+     * @return Una matriz con x, y y capacidad restante de cada agujero, ordenada.
+     */
+    public int[][] getHoles() {
+        return holes;
+    }
+
+    /**
+     * Obtiene el número de partículas que el demonio pasó al otro lado.
+     *
+     * @return Las transferencias.
+     */
+    public int getTransfers() {
+        return transfers;
+    }
+}
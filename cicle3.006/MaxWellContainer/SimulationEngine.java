@@ -0,0 +1,1121 @@
+package MaxWellContainer;
+
+import Shapes.DensityMap;
+import Shapes.Frame;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Motor de simulación del contenedor de Maxwell sin interfaz gráfica.
+ * Avanza partículas, demonios y agujeros sin usar el lienzo ni hacer pausas,
+ * de modo que una corrida solo queda limitada por el procesador.
+ *
+ * <p>El motor trabaja sobre las mismas listas que el contenedor. Las partículas
+ * se copian a un {@link ParticleStore} por columnas, se simulan ahí y su estado
+ * se devuelve a los objetos al terminar cada corrida. Cuando el contenedor
+ * agrega una partícula llama a {@link #added(Particle)}; cuando la elimina la
+ * marca con {@link Particle#markRemoved()} y llama a
+ * {@link #removed(Particle)}, que la saca de la simulación sin recargar nada.
+ * Las eliminadas salen de la lista y del almacén todas juntas con
+ * {@link #purge()}, antes de la siguiente corrida. Con los demonios pasa lo
+ * mismo: {@link #demonRemoved(Demon)} los saca del índice al instante y la
+ * purga los saca de la lista. Si cambia la lista de otra
+ * forma debe llamar a {@link #invalidate()}, y cuando cambia los demonios o los agujeros a {@link #demonsChanged()} o
+ * {@link #holesChanged()}. Para agregar o quitar un solo demonio basta con
+ * {@link #demonAdded(Demon)} o {@link #demonRemoved(Demon)}, que actualizan
+ * el {@link DemonIndex} sin reconstruirlo.</p>
+ *
+ * <p>Al final de cada tick se compacta lo que ya no puede interactuar: las
+ * partículas atrapadas o desaparecidas salen de las listas que recorre el
+ * tick, los demonios débiles que desaparecieron salen del árbol de las
+ * colisiones, los agujeros llenos salen de la rejilla y los móviles detenidos
+ * de la lista de agujeros que se mueven. Las listas del contenedor no
+ * cambian, así que las consultas siguen reportando todo.</p>
+ *
+ * <p>Con {@link #setParallelism(int)} el tick se reparte entre varios hilos:
+ * el movimiento se divide por bloques de partículas y, en las colisiones,
+ * los hilos solo buscan en paralelo qué partículas podrían chocar; los choques
+ * se aplican después en orden de índice. Así, cuando dos partículas compiten
+ * por el último cupo de un agujero o por la única transferencia de un demonio
+ * débil, gana la de menor índice, igual que en la corrida secuencial.</p>
+ *
+ * <p>{@link #advance(long)} salta muchos ticks de una vez: las partículas
+ * normales y voladoras cuya órbita no toca ningún demonio ni agujero se
+ * congelan y al final se llevan directo a su posición con {@link Orbit}; solo
+ * las demás se simulan tick por tick.</p>
+ *
+ * <p>Con {@link #setEventLog(EventLog)} cada tick deja en el registro la
+ * posición de las partículas activas, y además las transferencias y las
+ * capturas. {@link #advance(long)} y el motor por eventos no simulan todos
+ * los ticks, pero registran lo mismo: sacan la posición de las partículas
+ * que no se simulan de su órbita o de su tramo recto.</p>
+ */
+public class SimulationEngine {
+    private static final int MIN_CHUNK = 4096; // Mínimo de partículas por bloque paralelo
+
+    protected int width; // Ancho de cada mitad del contenedor (posición de la línea divisoria)
+    protected int height; // Altura del contenedor
+    private List<Particle> particles;
+    protected List<Demon> demons;
+    protected List<Hole> holes;
+    protected long ticks; // Ticks simulados desde la creación del motor
+    protected ParticleStore store; // Estado de las partículas por columnas
+    protected boolean loaded; // Indica si el almacén refleja la lista de partículas
+    private int[] indexOf; // Posición en el almacén de cada partícula, por su identificador
+    private int pendingRemovals; // Partículas marcadas como eliminadas que siguen en la lista
+    private int pendingDemonRemovals; // Demonios marcados como eliminados que siguen en la lista
+    protected DemonIndex demonIndex; // Demonios ordenados por su posición en Y
+    protected HoleGrid grid; // Agujeros agrupados por celda
+    private ParticleGrid particleGrid; // Partículas activas agrupadas por celda, para los cuadros recortados
+    private int[] movingHoles; // Índices de los agujeros móviles que no se han detenido
+    private int movingCount;
+    private List<Demon> retiredDemons; // Demonios que desaparecieron en el tick en curso
+    private List<Integer> filledHoles; // Agujeros que se llenaron en el tick en curso
+    private int parallelism; // Hilos usados por tick (1 = secuencial)
+    private ForkJoinPool pool; // Hilos del modo paralelo
+    private DensityMap[] densityParts; // Mapa de cada hilo al contar la densidad
+    private Orbit[] orbitX; // Órbitas de las partículas durante advance
+    private Orbit[] orbitY;
+    private long[] origin; // Tick en que empieza cada órbita
+    private boolean[] frozen; // Partículas que se mueven sin simularse
+    private long[] orbitTick; // Tick al que corresponde el estado de cada órbita, al registrar posiciones
+    private long[] recheckAt; // Tick en que conviene volver a revisar cada partícula
+    private long nextRecheck; // Menor tick de revisión pendiente
+    private boolean changed; // Algo del tick cambió la lista de partículas simuladas
+    protected EventLog log; // Registro de eventos, o null si está apagado
+
+    /**
+     * Constructor para crear un motor sobre las entidades de un contenedor.
+     *
+     * @param width     El ancho de cada mitad del contenedor.
+     * @param height    La altura del contenedor.
+     * @param particles Las partículas del contenedor.
+     * @param demons    Los demonios del contenedor.
+     * @param holes     Los agujeros del contenedor.
+     */
+    public SimulationEngine(int width, int height, List<Particle> particles, List<Demon> demons, List<Hole> holes) {
+        this.width = width;
+        this.height = height;
+        this.particles = particles;
+        this.demons = demons;
+        this.holes = holes;
+        this.ticks = 0;
+        this.store = new ParticleStore(MaxwellContainer.PARTICLE_DIAMETER, width);
+        this.loaded = false;
+        this.indexOf = new int[0];
+        this.demonIndex = new DemonIndex();
+        this.grid = new HoleGrid();
+        this.particleGrid = new ParticleGrid();
+        this.movingHoles = new int[0];
+        this.retiredDemons = new ArrayList<>();
+        this.filledHoles = new ArrayList<>();
+        this.parallelism = 1;
+    }
+
+    /**
+     * Avanza la simulación un tick: mueve todo y luego resuelve las colisiones.
+     * Al terminar, los objetos de partícula quedan con el estado del tick.
+     */
+    public void tick() {
+        advance();
+        sync();
+    }
+
+    /**
+     * Avanza la simulación un tick sin copiar el estado a los objetos de
+     * partícula. Sirve para mostrar la simulación con
+     * {@link #addParticles(Frame)}, que lee el almacén; al terminar, quien
+     * lo usa llama a {@link #sync()}.
+     */
+    public void step() {
+        advance();
+    }
+
+    /**
+     * Avanza la simulación un número de ticks seguidos. El estado se copia a
+     * los objetos de partícula una sola vez, al final.
+     *
+     * @param ticks El número de ticks a simular.
+     */
+    public void run(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            advance();
+        }
+        sync();
+    }
+
+    /**
+     * Avanza la simulación un número de ticks, posiblemente enorme, sin simular
+     * uno por uno los que no tienen interacciones. El resultado es el mismo que
+     * con {@link #run(int)}.
+     *
+     * @param ticks El número de ticks a simular.
+     */
+    public void advance(long ticks) {
+        prepare();
+        ensureDemonIndex();
+        ensureGrid();
+
+        int size = store.size();
+        orbitX = new Orbit[size];
+        orbitY = new Orbit[size];
+        origin = new long[size];
+        frozen = new boolean[size];
+        recheckAt = new long[size];
+        orbitTick = new long[size];
+        Arrays.fill(orbitTick, -1);
+        int[] hot = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (store.isActive(i)) {
+                hot[count++] = i;
+            }
+        }
+
+        long end = this.ticks + ticks;
+        count = freeze(hot, count, end);
+        while (this.ticks < end) {
+            if (count == 0) {
+                skipObstacles(end - this.ticks);
+                if (log != null) {
+                    // Aunque nada se simule, el registro lleva las posiciones de cada tick
+                    while (this.ticks < end) {
+                        this.ticks++;
+                        logOrbits();
+                    }
+                }
+                this.ticks = end;
+                break;
+            }
+            changed = false;
+            stepHot(hot, count);
+            this.ticks++;
+            if (log != null) {
+                logOrbits();
+            }
+            if (changed || this.ticks >= nextRecheck) {
+                count = freeze(hot, count, end);
+            }
+        }
+
+        thaw();
+        sync();
+    }
+
+    /**
+     * Indica que la lista de partículas cambió y el almacén debe recargarse.
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * Indica que el contenedor agregó una partícula al final de su lista. Si
+     * el almacén ya estaba cargado, la partícula se copia sin recargar las demás.
+     *
+     * @param particle La partícula agregada.
+     */
+    public void added(Particle particle) {
+        if (loaded) {
+            index(particle, store.size());
+            store.add(particle);
+        }
+    }
+
+    /**
+     * Indica que el contenedor marcó una partícula como eliminada. La
+     * partícula deja de moverse y de contar en el almacén al instante, pero
+     * sigue en la lista hasta {@link #purge()}.
+     *
+     * @param particle La partícula eliminada.
+     */
+    public void removed(Particle particle) {
+        pendingRemovals++;
+        if (loaded) {
+            store.remove(indexOf[particle.getId()]);
+        }
+    }
+
+    /**
+     * Saca de la lista de partículas y del almacén todas las partículas
+     * eliminadas desde la última purga, y de la lista de demonios los
+     * demonios eliminados, en una sola pasada por lista.
+     */
+    public void purge() {
+        purgeDemons();
+        if (pendingRemovals == 0) return;
+
+        particles.removeIf(Particle::isRemoved);
+        pendingRemovals = 0;
+        if (loaded) {
+            store.purge();
+            for (int i = 0; i < store.size(); i++) {
+                index(particles.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Indica si todas las partículas están en su lado: las rojas a la
+     * izquierda y las azules a la derecha.
+     *
+     * @return true si ninguna partícula está en el lado equivocado.
+     */
+    public boolean isGoal() {
+        if (!loaded) {
+            load();
+        }
+        return store.getMisplaced() == 0;
+    }
+
+    /**
+     * Cuenta las partículas a la izquierda de la línea divisoria.
+     *
+     * @return El número de partículas en el contenedor izquierdo.
+     */
+    public int countLeft() {
+        if (!loaded) {
+            load();
+        }
+        return store.getLeft();
+    }
+
+    /**
+     * Indica que la lista de demonios cambió y el índice de demonios debe
+     * reconstruirse.
+     */
+    public void demonsChanged() {
+        demonIndex.invalidate();
+    }
+
+    /**
+     * Indica que el contenedor agregó un demonio al final de su lista.
+     *
+     * @param demon El demonio agregado.
+     */
+    public void demonAdded(Demon demon) {
+        demonIndex.add(demon);
+    }
+
+    /**
+     * Indica que el contenedor marcó un demonio como eliminado. El demonio
+     * sale del índice al instante, pero sigue en la lista hasta
+     * {@link #purge()}.
+     *
+     * @param demon El demonio eliminado.
+     */
+    public void demonRemoved(Demon demon) {
+        demonIndex.remove(demon);
+        pendingDemonRemovals++;
+    }
+
+    /**
+     * Busca el primer demonio insertado que está en una posición.
+     *
+     * @param y La posición en Y.
+     * @return El demonio, o null si no hay ninguno en esa posición.
+     */
+    public Demon findDemon(int y) {
+        ensureDemonIndex();
+        return demonIndex.first(y);
+    }
+
+    /**
+     * Busca el demonio más cercano a una posición.
+     *
+     * @param y La posición en Y.
+     * @return El demonio, o null si no hay demonios.
+     */
+    public Demon nearestDemon(int y) {
+        ensureDemonIndex();
+        return demonIndex.nearest(y);
+    }
+
+    /**
+     * Obtiene las posiciones en Y de los demonios, de menor a mayor.
+     *
+     * @return Un arreglo nuevo con las posiciones ordenadas.
+     */
+    public int[] demonPositions() {
+        ensureDemonIndex();
+        return demonIndex.positions().clone();
+    }
+
+    /**
+     * Cuenta las partículas activas en un mapa de densidad, cada una en la
+     * celda de su centro. Con varios hilos, cada uno cuenta un tramo de
+     * partículas en su propio mapa y después se suman repartiendo las celdas.
+     *
+     * @param map El mapa; se vacía antes de contar.
+     */
+    public void bin(DensityMap map) {
+        prepare();
+        map.clear();
+        int live = store.liveCount();
+        if (!isParallel(live)) {
+            binRange(map, 0, live);
+            return;
+        }
+
+        DensityMap[] parts = densityParts(map);
+        int chunk = (live + parts.length - 1) / parts.length;
+        forEachChunk(live, chunk, c -> {
+            parts[c].clear();
+            binRange(parts[c], c * chunk, Math.min(live, (c + 1) * chunk));
+        });
+        int cells = map.cells();
+        int cellChunk = (cells + parallelism - 1) / parallelism;
+        forEachChunk(cells, cellChunk, c -> {
+            for (DensityMap part : parts) {
+                map.addAll(part, c * cellChunk, Math.min(cells, (c + 1) * cellChunk));
+            }
+        });
+    }
+
+    /**
+     * Cuenta en un mapa las partículas activas de un tramo de la lista de activas.
+     */
+    private void binRange(DensityMap map, int start, int end) {
+        int radius = store.getDiameter() / 2;
+        for (int n = start; n < end; n++) {
+            int i = store.liveAt(n);
+            if (store.isActive(i)) {
+                map.add(store.getX(i) + radius, store.getY(i) + radius, store.isRed(i));
+            }
+        }
+    }
+
+    /**
+     * Obtiene un mapa por hilo con las mismas celdas que el dado, creándolos
+     * solo si cambiaron las celdas o el número de hilos.
+     */
+    private DensityMap[] densityParts(DensityMap map) {
+        if (densityParts == null || densityParts.length != parallelism || !densityParts[0].sameGrid(map)) {
+            densityParts = new DensityMap[parallelism];
+            for (int k = 0; k < parallelism; k++) {
+                densityParts[k] = new DensityMap(map.getX(), map.getY(), map.getWidth(), map.getHeight(), map.getCell());
+            }
+        }
+        return densityParts;
+    }
+
+    /**
+     * Reconstruye el índice de demonios si está desactualizado.
+     */
+    protected void ensureDemonIndex() {
+        if (!demonIndex.isValid()) {
+            purgeDemons();
+            demonIndex.rebuild(demons, store.getDiameter() / 2);
+        }
+    }
+
+    /**
+     * Indica que la lista de agujeros cambió y la rejilla debe reconstruirse.
+     */
+    public void holesChanged() {
+        grid.invalidate();
+    }
+
+    /**
+     * Cambia el número de hilos usados en cada tick. Con 1 hilo el motor es
+     * secuencial; con más, el resultado es idéntico pero repartido entre núcleos.
+     *
+     * @param threads El número de hilos, al menos 1.
+     */
+    public void setParallelism(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser al menos 1");
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        parallelism = threads;
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+        }
+    }
+
+    /**
+     * Obtiene el número de hilos usados en cada tick.
+     *
+     * @return El número de hilos.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Cambia el registro de eventos del motor.
+     *
+     * @param log El registro, o null para apagarlo.
+     */
+    public void setEventLog(EventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Avanza un tick sobre el almacén, sin copiar el resultado a los objetos.
+     */
+    protected void advance() {
+        prepare();
+        moveAll();
+        checkCollisions();
+        compact();
+        ticks++;
+        if (log != null) {
+            logPositions();
+        }
+    }
+
+    /**
+     * Registra la posición de cada partícula activa al final del tick.
+     */
+    private void logPositions() {
+        for (int n = 0; n < store.liveCount(); n++) {
+            int i = store.liveAt(n);
+            log.record(ticks, store.getId(i), store.getX(i), store.getY(i), EventLog.MOVE);
+        }
+    }
+
+    /**
+     * Saca de las listas del tick las partículas, los demonios y los agujeros
+     * que ya no pueden interactuar con nada.
+     */
+    protected void compact() {
+        store.compact();
+        for (Demon demon : retiredDemons) {
+            demonIndex.retire(demon);
+        }
+        retiredDemons.clear();
+        if (grid.isValid()) {
+            for (int k : filledHoles) {
+                grid.retire(k);
+            }
+        }
+        filledHoles.clear();
+    }
+
+    /**
+     * Obtiene el tick que se está simulando, para fechar los eventos.
+     *
+     * @return El número del tick en curso.
+     */
+    protected long currentTick() {
+        return ticks + 1;
+    }
+
+    /**
+     * Saca de la lista los demonios eliminados desde la última purga.
+     */
+    private void purgeDemons() {
+        if (pendingDemonRemovals == 0) return;
+
+        demons.removeIf(Demon::isRemoved);
+        pendingDemonRemovals = 0;
+    }
+
+    /**
+     * Deja el almacén listo para simular: saca las partículas eliminadas y,
+     * si hace falta, recarga el almacén.
+     */
+    protected void prepare() {
+        purge();
+        if (!loaded) {
+            load();
+        }
+    }
+
+    /**
+     * Copia las partículas del contenedor al almacén por columnas.
+     */
+    protected void load() {
+        if (pendingRemovals > 0) {
+            particles.removeIf(Particle::isRemoved);
+            pendingRemovals = 0;
+        }
+        store.clear();
+        store.ensureCapacity(particles.size());
+        for (Particle particle : particles) {
+            index(particle, store.size());
+            store.add(particle);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Guarda la posición de una partícula en el almacén.
+     */
+    private void index(Particle particle, int i) {
+        int id = particle.getId();
+        if (id >= indexOf.length) {
+            indexOf = Arrays.copyOf(indexOf, Math.max(2 * indexOf.length, id + 1));
+        }
+        indexOf[id] = i;
+    }
+
+    /**
+     * Agrega al cuadro cada partícula en la posición que tiene en el almacén,
+     * sin leer ni actualizar la posición del objeto. Si el cuadro está
+     * recortado, agrupa las partículas activas por celda y solo agrega las
+     * que tocan la zona del cuadro.
+     *
+     * @param frame El cuadro que se está llenando.
+     */
+    public void addParticles(Frame frame) {
+        prepare();
+        if (frame.isCulled()) {
+            int diameter = store.getDiameter();
+            particleGrid.rebuild(store, 2 * width, height);
+            int found = particleGrid.select(frame.getViewX(), frame.getViewY(),
+                                            frame.getViewWidth(), frame.getViewHeight(), diameter);
+            for (int n = 0; n < found; n++) {
+                int i = particleGrid.selected(n);
+                if (frame.inView(store.getX(i), store.getY(i), diameter, diameter)) {
+                    frame.add(particles.get(i), store.getX(i), store.getY(i), true);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < store.size(); i++) {
+            frame.add(particles.get(i), store.getX(i), store.getY(i), store.isActive(i));
+        }
+    }
+
+    /**
+     * Devuelve a los objetos de partícula el estado del almacén.
+     */
+    public void sync() {
+        for (int i = 0; i < store.size(); i++) {
+            store.copyTo(i, particles.get(i));
+        }
+    }
+
+    /**
+     * Toma el lugar de otro motor del mismo contenedor: sigue su cuenta de
+     * ticks, usa sus hilos y su registro de eventos, y apaga los hilos del
+     * motor anterior.
+     *
+     * @param previous El motor que se deja de usar.
+     */
+    public void continueFrom(SimulationEngine previous) {
+        ticks = previous.ticks;
+        setParallelism(previous.parallelism);
+        setEventLog(previous.log);
+        previous.setParallelism(1);
+    }
+
+    /**
+     * Obtiene el número de ticks simulados por este motor.
+     *
+     * @return Los ticks simulados.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Mueve todas las partículas activas, los demonios y los agujeros móviles.
+     */
+    private void moveAll() {
+        int containerWidth = 2 * width;
+
+        int size = store.size();
+        if (isParallel(size)) {
+            int chunk = chunkSize(size);
+            forEachChunk(size, chunk, c ->
+                store.stepRange(c * chunk, Math.min(size, (c + 1) * chunk), containerWidth, height, width));
+        } else {
+            store.stepRange(0, size, containerWidth, height, width);
+        }
+
+        moveObstacles();
+    }
+
+    /**
+     * Mueve los demonios y los agujeros móviles un tick.
+     *
+     * @return true si algún agujero móvil se detuvo en este tick.
+     */
+    private boolean moveObstacles() {
+        int containerWidth = 2 * width;
+
+        for (Demon demon : demons) {
+            int y = demon.getYPosition();
+            demon.step(height);
+            if (demon.getYPosition() != y) {
+                demonIndex.moved(demon);
+            }
+        }
+
+        ensureGrid();
+        return stepMovingHoles();
+    }
+
+    /**
+     * Mueve un tick los agujeros móviles que no se han detenido y saca de la
+     * lista a los que se detienen.
+     *
+     * @return true si algún agujero móvil se detuvo en este tick.
+     */
+    private boolean stepMovingHoles() {
+        int kept = 0;
+        for (int n = 0; n < movingCount; n++) {
+            int k = movingHoles[n];
+            Movil hole = (Movil) holes.get(k);
+            hole.step(2 * width, height);
+            grid.moved(k, hole);
+            if (!hole.hasStopped()) {
+                movingHoles[kept++] = k;
+            }
+        }
+        boolean stopped = kept < movingCount;
+        movingCount = kept;
+        return stopped;
+    }
+
+    /**
+     * Reconstruye la rejilla de agujeros y la lista de agujeros móviles si
+     * la lista de agujeros cambió.
+     */
+    protected void ensureGrid() {
+        if (grid.isValid()) return;
+
+        grid.rebuild(holes, 2 * width, height);
+        movingHoles = new int[holes.size()];
+        movingCount = 0;
+        for (int k = 0; k < holes.size(); k++) {
+            Hole hole = holes.get(k);
+            if (hole instanceof Movil && !((Movil) hole).hasStopped()) {
+                movingHoles[movingCount++] = k;
+            }
+        }
+    }
+
+    /**
+     * Indica si algún agujero móvil sigue moviéndose.
+     *
+     * @return true si queda algún agujero móvil sin detenerse.
+     */
+    protected boolean hasMovingHoles() {
+        ensureGrid();
+        return movingCount > 0;
+    }
+
+    /**
+     * Verifica colisiones de los demonios y los agujeros con las partículas activas.
+     * Primero se resuelven todos los demonios y luego todos los agujeros.
+     */
+    protected void checkCollisions() {
+        // Solo las partículas que seguían activas al empezar el tick
+        int live = store.liveCount();
+
+        // Demonios con partículas: solo se revisan las de la franja divisoria,
+        // contra los demonios cercanos a su fila, en orden de inserción
+        ensureDemonIndex();
+        if (isParallel(live)) {
+            for (int i : collect(live, this::nearDemon)) {
+                resolveDemons(i);
+            }
+        } else {
+            for (int n = 0; n < live; n++) {
+                int i = store.liveAt(n);
+                if (nearDemon(i)) {
+                    resolveDemons(i);
+                }
+            }
+        }
+
+        // Agujeros con partículas: solo los de la celda de cada partícula y sus vecinas
+        ensureGrid();
+        if (isParallel(live)) {
+            for (int i : collect(live, this::nearHole)) {
+                resolveHoles(i);
+            }
+        } else {
+            for (int n = 0; n < live; n++) {
+                int i = store.liveAt(n);
+                if (nearHole(i)) {
+                    resolveHoles(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si una partícula activa está en la franja de algún demonio y
+     * cerca de la fila de alguno.
+     */
+    protected boolean nearDemon(int i) {
+        if (!store.isActive(i) || !demonIndex.inBand(store.getX(i))) return false;
+
+        return demonIndex.hasNear(store.getY(i));
+    }
+
+    /**
+     * Aplica a una partícula los demonios cercanos a su fila, en orden de inserción.
+     */
+    protected void resolveDemons(int i) {
+        boolean transferred = store.isTransferred(i);
+        int y = store.getY(i);
+        int reach = demonIndex.getReach();
+        int found = demonIndex.near(y - reach, y + reach);
+        for (int k = 0; k < found; k++) {
+            Demon demon = demonIndex.foundAt(k);
+            if (demon.collidesWith(store, i)) {
+                boolean active = demon.isActive();
+                demon.transferParticle(store, i);
+                if (active && !demon.isActive()) {
+                    retiredDemons.add(demon);
+                }
+            }
+        }
+        if (log != null && store.isTransferred(i) != transferred) {
+            log.record(currentTick(), store.getId(i), store.getX(i), store.getY(i), EventLog.TRANSFER);
+        }
+    }
+
+    /**
+     * Indica si una partícula activa que no vuela tiene agujeros en su vecindad.
+     */
+    protected boolean nearHole(int i) {
+        return store.isActive(i) && store.getType(i) != ParticleStore.FLYING
+            && grid.hasNear(store.getX(i), store.getY(i));
+    }
+
+    /**
+     * Intenta atrapar una partícula con los agujeros vecinos, en orden de inserción.
+     */
+    protected void resolveHoles(int i) {
+        int found = grid.near(store.getX(i), store.getY(i));
+        for (int n = 0; n < found && store.isActive(i); n++) {
+            Hole hole = holes.get(grid.candidate(n));
+            int capacity = hole.getRemainingCapacity();
+            hole.trapParticle(store, i);
+            if (capacity > 0 && hole.getRemainingCapacity() == 0) {
+                filledHoles.add(grid.candidate(n));
+            }
+        }
+        if (log != null && store.isTrapped(i)) {
+            log.record(currentTick(), store.getId(i), store.getX(i), store.getY(i), EventLog.TRAP);
+        }
+    }
+
+    /**
+     * Indica si vale la pena repartir entre hilos un tick con tantas partículas.
+     */
+    private boolean isParallel(int size) {
+        return pool != null && size > MIN_CHUNK;
+    }
+
+    /**
+     * Calcula el tamaño de bloque: unos cuatro bloques por hilo, alineados a las
+     * palabras del almacén para que dos hilos nunca escriban la misma palabra.
+     */
+    private int chunkSize(int size) {
+        int chunk = Math.max(MIN_CHUNK, size / (parallelism * 4));
+        return (chunk + ParticleStore.WORD_SIZE - 1) / ParticleStore.WORD_SIZE * ParticleStore.WORD_SIZE;
+    }
+
+    /**
+     * Ejecuta una tarea por bloque en el grupo de hilos y espera a que terminen todas.
+     */
+    private void forEachChunk(int size, int chunk, IntConsumer body) {
+        int chunks = (size + chunk - 1) / chunk;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int index = c;
+            tasks.add(ForkJoinTask.adapt(() -> body.accept(index)));
+        }
+        pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+    }
+
+    /**
+     * Busca en paralelo, entre las primeras live partículas de la lista de
+     * activas, las que cumplen una condición de solo lectura.
+     *
+     * @return Los índices encontrados, en orden ascendente.
+     */
+    private int[] collect(int live, IntPredicate test) {
+        int chunk = chunkSize(live);
+        int chunks = (live + chunk - 1) / chunk;
+        int[][] found = new int[chunks][];
+        int[] counts = new int[chunks];
+
+        forEachChunk(live, chunk, c -> {
+            int start = c * chunk;
+            int end = Math.min(live, start + chunk);
+            int[] buffer = new int[16];
+            int count = 0;
+            for (int n = start; n < end; n++) {
+                int i = store.liveAt(n);
+                if (test.test(i)) {
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, 2 * count);
+                    }
+                    buffer[count++] = i;
+                }
+            }
+            found[c] = buffer;
+            counts[c] = count;
+        });
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        int[] result = new int[total];
+        int offset = 0;
+        for (int c = 0; c < chunks; c++) {
+            System.arraycopy(found[c], 0, result, offset, counts[c]);
+            offset += counts[c];
+        }
+        return result;
+    }
+
+    /**
+     * Revisa las partículas de la lista a las que les toca, congela las que no
+     * pueden interactuar con nada antes de que termine la corrida y compacta la
+     * lista con las que quedan activas.
+     *
+     * @return La cantidad de partículas que siguen simulándose.
+     */
+    private int freeze(int[] hot, int count, long end) {
+        nextRecheck = Long.MAX_VALUE;
+        int kept = 0;
+        for (int n = 0; n < count; n++) {
+            int i = hot[n];
+            if (!store.isActive(i)) continue;
+
+            if (recheckAt[i] <= ticks) {
+                long quiet = quietTicks(i, end - ticks);
+                if (quiet >= end - ticks) {
+                    frozen[i] = true;
+                    continue;
+                }
+                // Se vuelve a revisar después del próximo contacto posible
+                recheckAt[i] = quiet < 0 ? Long.MAX_VALUE : ticks + quiet + 1;
+            }
+            nextRecheck = Math.min(nextRecheck, recheckAt[i]);
+            hot[kept++] = i;
+        }
+        return kept;
+    }
+
+    /**
+     * Cuenta cuántos de los próximos ticks pasará una partícula sin poder tocar
+     * un demonio o un agujero, revisando a lo sumo window ticks.
+     *
+     * <p>Primero se descartan los obstáculos que quedan fuera del rango de sus
+     * órbitas; si queda alguno, se recorre la órbita conjunta hasta el primer
+     * contacto o hasta que se repita.</p>
+     *
+     * @return Los ticks sin contacto, Long.MAX_VALUE si no habrá ninguno, o -1
+     *         si no se puede saber hasta que cambie algo de la simulación.
+     */
+    private long quietTicks(int i, long window) {
+        byte type = store.getType(i);
+        if (type != ParticleStore.NORMAL && type != ParticleStore.FLYING) return -1;
+
+        if (orbitX[i] == null) {
+            int diameter = store.getDiameter();
+            orbitX[i] = Orbit.ofX(store.getX(i), store.getSpeedX(i), diameter, 2 * width, width);
+            orbitY[i] = Orbit.ofY(store.getY(i), store.getSpeedY(i), diameter, height);
+            origin[i] = ticks;
+        }
+        Orbit x = orbitX[i];
+        Orbit y = orbitY[i];
+        if (x == null || y == null) return -1;
+
+        int radius = store.getDiameter() / 2;
+        List<Demon> nearDemons = new ArrayList<>();
+        if (demonIndex.touchesBand(x.getMin(), x.getMax())) {
+            // Un demonio que se mueve puede llegar a cualquier fila
+            int reach = demonIndex.getReach();
+            int found = demonIndex.hasMoving()
+                ? demonIndex.near(Integer.MIN_VALUE, Integer.MAX_VALUE)
+                : demonIndex.near(y.getMin() - reach, y.getMax() + reach);
+            for (int k = 0; k < found; k++) {
+                Demon demon = demonIndex.foundAt(k);
+                if (!demon.mayAffect(store, i, x.getMin(), x.getMax())) continue;
+                if (demon.getSpeedY() != 0) return -1;
+
+                int top = demon.getYPosition() - demon.getHeight() - radius;
+                int bottom = demon.getYPosition() + demon.getHeight() + radius;
+                if (y.getMin() <= bottom && y.getMax() >= top) {
+                    nearDemons.add(demon);
+                }
+            }
+        }
+
+        List<Hole> nearHoles = new ArrayList<>();
+        if (type != ParticleStore.FLYING) {
+            for (Hole hole : holes) {
+                if (hole.getRemainingCapacity() == 0) continue;
+                if (hole instanceof Movil && !((Movil) hole).hasStopped()) return -1;
+
+                int reach = hole.getDiameter() / 2;
+                if (x.getMin() <= hole.getXPosition() + reach && x.getMax() >= hole.getXPosition() - reach
+                    && y.getMin() <= hole.getYPosition() + reach && y.getMax() >= hole.getYPosition() - reach) {
+                    nearHoles.add(hole);
+                }
+            }
+        }
+        if (nearDemons.isEmpty() && nearHoles.isEmpty()) return Long.MAX_VALUE;
+
+        // Recorrido conjunto: después de la entrada y del mínimo común múltiplo
+        // de los dos ciclos, las posiciones se repiten
+        long cycle = (long) x.getPeriod() / gcd(x.getPeriod(), y.getPeriod()) * y.getPeriod();
+        long limit = Math.min(window, Math.max(x.getEntry(), y.getEntry()) + cycle);
+        int px = store.getX(i);
+        int py = store.getY(i);
+        int vx = store.getSpeedX(i);
+        int vy = store.getSpeedY(i);
+        int diameter = store.getDiameter();
+        for (long t = 0; t < limit; t++) {
+            vx = ParticleStore.bounceX(px, vx, diameter, 2 * width, width);
+            vy = ParticleStore.bounceY(py, vy, diameter, height);
+            px += vx;
+            py += vy;
+            for (Demon demon : nearDemons) {
+                if (demon.collidesWith(px, py, radius) && demon.mayAffect(store, i, px, px)) return t;
+            }
+            for (Hole hole : nearHoles) {
+                if (hole.covers(px, py)) return t;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Simula un tick solo para las partículas de la lista, en orden de índice,
+     * y marca si ocurrió algo que cambie la lista.
+     */
+    private void stepHot(int[] hot, int count) {
+        int containerWidth = 2 * width;
+        for (int n = 0; n < count; n++) {
+            int i = hot[n];
+            if (!store.isActive(i)) continue;
+
+            store.step(i, containerWidth, height, width);
+            changed |= !store.isActive(i);
+        }
+        if (moveObstacles()) {
+            // Las partículas que esperaban a que el agujero se detuviera se revisan ya
+            for (int n = 0; n < count; n++) {
+                if (recheckAt[hot[n]] == Long.MAX_VALUE) {
+                    recheckAt[hot[n]] = ticks;
+                }
+            }
+            changed = true;
+        }
+
+        ensureDemonIndex();
+        for (int n = 0; n < count; n++) {
+            int i = hot[n];
+            if (nearDemon(i)) {
+                boolean transferred = store.isTransferred(i);
+                resolveDemons(i);
+                if (store.isTransferred(i) != transferred) {
+                    // El salto la deja en otra órbita
+                    orbitX[i] = null;
+                    recheckAt[i] = ticks;
+                    changed = true;
+                }
+            }
+        }
+        for (int n = 0; n < count; n++) {
+            int i = hot[n];
+            if (nearHole(i)) {
+                resolveHoles(i);
+                changed |= !store.isActive(i);
+            }
+        }
+        compact();
+    }
+
+    /**
+     * Avanza demonios y agujeros móviles cuando ninguna partícula se simula.
+     * Los demonios rebotan con periodo fijo, así que se salta por vueltas
+     * completas; los agujeros móviles se detienen al llegar a un borde.
+     */
+    protected void skipObstacles(long ticks) {
+        for (Demon demon : demons) {
+            int y = demon.getYPosition();
+            int speed = demon.getSpeedY();
+            boolean skipped = false;
+            for (long t = 1; t <= ticks; t++) {
+                demon.step(height);
+                if (!skipped && demon.getYPosition() == y && demon.getSpeedY() == speed) {
+                    t += (ticks - t) / t * t;
+                    skipped = true;
+                }
+            }
+            if (demon.getYPosition() != y) {
+                demonIndex.moved(demon);
+            }
+        }
+
+        ensureGrid();
+        for (long t = 0; t < ticks && movingCount > 0; t++) {
+            stepMovingHoles();
+        }
+    }
+
+    /**
+     * Lleva las partículas congeladas a la posición que les corresponde en el
+     * tick actual del motor.
+     */
+    private void thaw() {
+        for (int i = 0; i < frozen.length; i++) {
+            if (!frozen[i]) continue;
+
+            orbitX[i].skip(ticks - origin[i]);
+            orbitY[i].skip(ticks - origin[i]);
+            store.setPosition(i, orbitX[i].getPosition(), orbitY[i].getPosition());
+            store.setSpeedX(i, orbitX[i].getSpeed());
+            store.setSpeedY(i, orbitY[i].getSpeed());
+        }
+        orbitX = null;
+        orbitY = null;
+        origin = null;
+        frozen = null;
+        recheckAt = null;
+        orbitTick = null;
+    }
+
+    /**
+     * Registra la posición de cada partícula activa al final de un tick de
+     * {@link #advance(long)}: las congeladas en su órbita y las demás en el
+     * almacén, en el mismo orden que {@link #logPositions()}.
+     */
+    private void logOrbits() {
+        for (int n = 0; n < store.liveCount(); n++) {
+            int i = store.liveAt(n);
+            int x = store.getX(i);
+            int y = store.getY(i);
+            if (frozen[i]) {
+                if (orbitTick[i] == ticks - 1) {
+                    orbitX[i].step();
+                    orbitY[i].step();
+                } else {
+                    orbitX[i].skip(ticks - origin[i]);
+                    orbitY[i].skip(ticks - origin[i]);
+                }
+                orbitTick[i] = ticks;
+                x = orbitX[i].getPosition();
+                y = orbitY[i].getPosition();
+            }
+            log.record(ticks, store.getId(i), x, y, EventLog.MOVE);
+        }
+    }
+}
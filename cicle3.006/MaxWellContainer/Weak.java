@@ -47,17 +47,50 @@ public class Weak extends Demon {
         
     }
 
-  
+    /**
+     * Transfiere una partícula del almacén del motor y luego desaparece.
+     *
+     * @param store Almacén de partículas.
+     * @param i     Índice de la partícula en el almacén.
+     */
+    @Override
+    public void transferParticle(ParticleStore store, int i) {
+        if (!isActive || hasTransferred) {
+            return;
+        }
+
+        super.transferParticle(store, i);
+        this.hasTransferred = true;
+        disappear();
+    }
+
+    /**
+     * Mientras está activo, cualquier choque lo hace desaparecer, aunque la
+     * partícula no se transfiera.
+     *
+     * @param store Almacén de partículas.
+     * @param i     Índice de la partícula en el almacén.
+     * @param minX  Menor posición en X que tomará la partícula.
+     * @param maxX  Mayor posición en X que tomará la partícula.
+     * @return true si el demonio sigue activo.
+     */
+    @Override
+    public boolean mayAffect(ParticleStore store, int i, int minX, int maxX) {
+        return isActive;
+    }
+
     /**
      * Verifica colisión solo si está activo.
      * Sobrescribe el método de la clase padre.
      *
-     * @param particle La partícula con la que se verifica la colisión.
+     * @param particleCenterX Posición X del centro de la partícula.
+     * @param particleCenterY Posición Y del centro de la partícula.
+     * @param radius          Radio de la partícula.
      * @return true si hay colisión y el demonio está activo, false en caso contrario.
      */
     @Override
-    public boolean collidesWith(Particle particle) {
-        return isActive && super.collidesWith(particle);
+    public boolean collidesWith(int particleCenterX, int particleCenterY, int radius) {
+        return isActive && super.collidesWith(particleCenterX, particleCenterY, radius);
     }
 
     /**
@@ -74,6 +107,7 @@ public class Weak extends Demon {
      *
      * @return true si el demonio está activo, false si ha desaparecido.
      */
+    @Override
     public boolean isActive() {
         return isActive;
     }
@@ -1,8 +1,7 @@
-package Shapes;
-
-import javax.swing.*;
+package Shapes;
+
 import java.awt.*;
-import java.util.List;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.HashMap; 
 import java.util.Map; 
@@ -10,8 +9,32 @@ import java.util.Map;
 /**
  * Clase que representa un lienzo gráfico para dibujar formas y partículas.
  * Utiliza un patrón Singleton para garantizar una única instancia del lienzo.
+ *
+ * <p>Entre {@link #beginFrame()} y {@link #endFrame()} los cambios de las
+ * figuras solo se anotan, y al cerrar el marco se compone la imagen una sola
+ * vez. Así un tick con n partículas cuesta un redibujo y no n.</p>
+ *
+ * <p>Las figuras se dibujan en coordenadas del mundo y se ven a través de una
+ * {@link Viewport}, que se puede desplazar y acercar.</p>
+ *
+ * <p>Las figuras que no se mueven van en una capa fija que el destino guarda
+ * ya pintada; cada redibujo la copia y solo pinta encima las demás.</p>
+ *
+ * <p>Con muchísimas partículas, en lugar de un círculo por partícula se
+ * dibuja un {@link DensityMap} como una sola imagen, entre la capa fija y
+ * las demás formas, así que los demonios y agujeros móviles quedan encima.</p>
+ *
+ * <p>Los métodos que cambian las formas están sincronizados, porque
+ * {@link FrameRenderer} dibuja desde el hilo de eventos de Swing mientras la
+ * simulación sigue en el suyo.</p>
+ *
+ * <p>El lienzo guarda las formas y decide cuándo redibujar; dónde se pinta lo
+ * decide un {@link CanvasBackend}, elegido con la propiedad del sistema
+ * {@value #BACKEND_PROPERTY}: {@code swing} (por defecto), {@code image} o
+ * {@code none}.</p>
  */
 public class Canvas {
+    public static final String BACKEND_PROPERTY = "shapes.backend"; // Propiedad que elige el destino
     private static Canvas canvasSingleton;
 
     /**
@@ -22,48 +45,90 @@ public class Canvas {
      */
     public static Canvas getCanvas() {
         if (canvasSingleton == null) {
-            canvasSingleton = new Canvas("BlueJ Shapes Demo", 1200, 900, Color.white);
+            canvasSingleton = new Canvas(System.getProperty(BACKEND_PROPERTY, "swing"), "BlueJ Shapes Demo", 1200, 900, Color.white);
         }
         canvasSingleton.setVisible(true);
         return canvasSingleton;
     }
 
-    private JFrame frame;
-    private CanvasPane canvas;
-    private Graphics2D graphic;
+    private CanvasBackend backend; // Destino donde se pintan los cuadros
     private Color backgroundColour;
-    private Image canvasImage;
-    private List<Object> objects;
-    private HashMap<Object, ShapeDescription> shapes;
-    private HashMap<String, Color> colorMap; // Diccionario para mapear nombres de colores a objetos Color
+    private static final byte SHAPE = 0; // Tipos de descripción: forma cualquiera, círculo o rectángulo
+    private static final byte CIRCLE = 1;
+    private static final byte RECTANGLE = 2;
+    private static final byte DENSITY = 3; // Mapa de densidad pintado como imagen
+    private LinkedHashMap<Object, ShapeDescription> shapes; // Formas en orden de uso, la última dibujada encima
+    private LinkedHashMap<Object, ShapeDescription> staticShapes; // Capa fija, debajo de las demás formas
+    private boolean staticDirty; // Indica si la capa fija debe volver a pintarse
+    private ShapeDescription density; // Mapa de densidad encima de la capa fija, o null si no hay
+    private Viewport viewport; // Parte del mundo que se ve en la ventana
+    private int width;
+    private int height;
+    private int frameDepth; // Marcos abiertos con beginFrame y aún sin cerrar
+    private boolean dirty; // Indica si alguna forma cambió desde el último redibujo
+    private long frames; // Cuadros dibujados con drawFrame
+    private static HashMap<String, Color> colorMap = initializeColorMap(); // Diccionario para mapear nombres de colores a objetos Color
 
     /**
      * Constructor privado para inicializar el lienzo.
      *
-     * @param title   El título de la ventana del lienzo.
-     * @param width   El ancho del lienzo.
-     * @param height  La altura del lienzo.
-     * @param bgColour El color de fondo del lienzo.
-     */
-    private Canvas(String title, int width, int height, Color bgColour) {
-        frame = new JFrame();
-        canvas = new CanvasPane();
-        frame.setContentPane(canvas);
-        frame.setTitle(title);
-        canvas.setPreferredSize(new Dimension(width, height));
+     * @param backendType El tipo de destino ("swing", "image" o "none").
+     * @param title       El título de la ventana del lienzo.
+     * @param width       El ancho del lienzo.
+     * @param height      La altura del lienzo.
+     * @param bgColour    El color de fondo del lienzo.
+     */
+    private Canvas(String backendType, String title, int width, int height, Color bgColour) {
+        backend = createBackend(backendType, title, width, height);
         backgroundColour = bgColour;
-        frame.pack();
-        objects = new ArrayList<Object>();
-        shapes = new HashMap<Object, ShapeDescription>();
-        initializeColorMap(); // Inicializar el diccionario de colores
+        shapes = new LinkedHashMap<Object, ShapeDescription>(16, 0.75f, true);
+        staticShapes = new LinkedHashMap<Object, ShapeDescription>();
+        staticDirty = true;
+        this.width = width;
+        this.height = height;
+        viewport = new Viewport(width, height);
     }
 
     /**
-     * Inicializa el diccionario de colores con colores predefinidos y personalizados.
+     * Crea el destino del lienzo según su tipo.
+     *
+     * @param type   El tipo de destino ("swing", "image" o "none").
+     * @param title  El título de la ventana, si la hay.
+     * @param width  El ancho del lienzo.
+     * @param height La altura del lienzo.
+     * @return El destino.
      */
+    private static CanvasBackend createBackend(String type, String title, int width, int height) {
+        String typeLower = type.toLowerCase();
+        if ("swing".equals(typeLower)) {
+            return new SwingBackend(title, width, height);
+        }
+        else if ("image".equals(typeLower)) {
+            return new ImageBackend(width, height);
+        }
+        else if ("none".equals(typeLower)) {
+            return new NullBackend();
+        }
+        throw new IllegalArgumentException("Destino de lienzo desconocido: " + type);
+    }
 
-        private void initializeColorMap() {
-        colorMap = new HashMap<>();
+    /**
+     * Obtiene el destino donde el lienzo pinta sus cuadros.
+     *
+     * @return El destino.
+     */
+    public CanvasBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Inicializa el diccionario de colores con colores predefinidos y personalizados.
+     * No necesita la ventana, así que se puede usar en equipos sin pantalla.
+     *
+     * @return El diccionario de colores.
+     */
+    private static HashMap<String, Color> initializeColorMap() {
+        HashMap<String, Color> colorMap = new HashMap<>();
     
         // Colores predefinidos de Java
         colorMap.put("red", Color.RED);
@@ -134,6 +199,85 @@ public class Canvas {
         colorMap.put("hotPink", new Color(255, 105, 180));    // Rosa fuerte
         colorMap.put("deepPink", new Color(255, 20, 147));    // Rosa profundo
         colorMap.put("paleVioletRed", new Color(219, 112, 147)); // Violeta rojo pálido
+        return colorMap;
+    }
+
+    /**
+     * Obtiene la cámara del lienzo.
+     *
+     * @return La cámara; se cambia con los métodos del lienzo.
+     */
+    public Viewport getViewport() {
+        return viewport;
+    }
+
+    /**
+     * Obtiene el ancho de la ventana del lienzo.
+     *
+     * @return El ancho en píxeles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene la altura de la ventana del lienzo.
+     *
+     * @return La altura en píxeles.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Desplaza la vista y redibuja.
+     *
+     * @param dx Los píxeles que se mueve la vista hacia la derecha.
+     * @param dy Los píxeles que se mueve la vista hacia abajo.
+     */
+    public synchronized void pan(int dx, int dy) {
+        viewport.pan(dx, dy);
+        viewChanged();
+    }
+
+    /**
+     * Acerca o aleja la vista dejando quieto el punto bajo un píxel, y redibuja.
+     *
+     * @param factor  Mayor que 1 acerca; menor que 1 aleja.
+     * @param screenX La posición en X del píxel que no se mueve.
+     * @param screenY La posición en Y del píxel que no se mueve.
+     */
+    public synchronized void zoom(double factor, int screenX, int screenY) {
+        viewport.zoom(factor, screenX, screenY);
+        viewChanged();
+    }
+
+    /**
+     * Ajusta la vista para que se vea completo un mundo que empieza en el
+     * origen, y redibuja.
+     *
+     * @param worldWidth  El ancho del mundo.
+     * @param worldHeight La altura del mundo.
+     */
+    public synchronized void fit(int worldWidth, int worldHeight) {
+        viewport.fit(worldWidth, worldHeight);
+        viewChanged();
+    }
+
+    /**
+     * Vuelve a la vista sin desplazamiento ni acercamiento, y redibuja.
+     */
+    public synchronized void resetView() {
+        viewport.reset();
+        viewChanged();
+    }
+
+    /**
+     * Vuelve a pintar la capa fija y redibuja después de mover la cámara.
+     */
+    private void viewChanged() {
+        staticDirty = true;
+        changed();
     }
 
     /**
@@ -142,29 +286,123 @@ public class Canvas {
      * @param visible true para hacer visible el lienzo, false para ocultarlo.
      */
     public void setVisible(boolean visible) {
-        if (graphic == null) {
-            Dimension size = canvas.getSize();
-            canvasImage = canvas.createImage(size.width, size.height);
-            graphic = (Graphics2D) canvasImage.getGraphics();
-            graphic.setColor(backgroundColour);
-            graphic.fillRect(0, 0, size.width, size.height);
-            graphic.setColor(Color.black);
-        }
-        frame.setVisible(visible);
+        backend.setVisible(visible);
     }
 
     /**
-     * Dibuja una forma en el lienzo asociada a un objeto de referencia.
+     * Dibuja una forma en el lienzo asociada a un objeto de referencia. La
+     * forma queda en la capa donde ya estaba el objeto, o arriba de todo si
+     * es nuevo.
      *
      * @param referenceObject El objeto de referencia asociado a la forma.
      * @param color           El color de la forma.
      * @param shape           La forma a dibujar.
      */
-    public void draw(Object referenceObject, String color, Shape shape) {
-        objects.remove(referenceObject);
-        objects.add(referenceObject);
-        shapes.put(referenceObject, new ShapeDescription(shape, color));
-        redraw();
+    public synchronized void draw(Object referenceObject, String color, Shape shape) {
+        draw(referenceObject, color, shape, staticShapes.containsKey(referenceObject));
+    }
+
+    /**
+     * Dibuja una forma en el lienzo asociada a un objeto de referencia,
+     * eligiendo la capa. La capa fija se pinta una vez y se reutiliza en cada
+     * redibujo; volver a dibujar en ella una forma igual no cuesta nada.
+     *
+     * @param referenceObject El objeto de referencia asociado a la forma.
+     * @param color           El color de la forma.
+     * @param shape           La forma a dibujar.
+     * @param fixed           true si la forma no se mueve y va en la capa fija.
+     */
+    public synchronized void draw(Object referenceObject, String color, Shape shape, boolean fixed) {
+        place(referenceObject, SHAPE, color, 0, 0, 0, 0, shape, fixed);
+    }
+
+    /**
+     * Dibuja un círculo asociado a un objeto de referencia. Volver a dibujar
+     * un objeto que ya estaba en el lienzo no crea objetos.
+     *
+     * @param referenceObject El objeto de referencia asociado al círculo.
+     * @param color           El color del círculo.
+     * @param x               La posición en X de la esquina superior izquierda.
+     * @param y               La posición en Y de la esquina superior izquierda.
+     * @param diameter        El diámetro.
+     * @param fixed           true si el círculo no se mueve y va en la capa fija.
+     */
+    public synchronized void drawCircle(Object referenceObject, String color, int x, int y, int diameter, boolean fixed) {
+        place(referenceObject, CIRCLE, color, x, y, diameter, diameter, null, fixed);
+    }
+
+    /**
+     * Dibuja un rectángulo asociado a un objeto de referencia. Volver a
+     * dibujar un objeto que ya estaba en el lienzo no crea objetos.
+     *
+     * @param referenceObject El objeto de referencia asociado al rectángulo.
+     * @param color           El color del rectángulo.
+     * @param x               La posición en X de la esquina superior izquierda.
+     * @param y               La posición en Y de la esquina superior izquierda.
+     * @param width           El ancho.
+     * @param height          La altura.
+     * @param fixed           true si el rectángulo no se mueve y va en la capa fija.
+     */
+    public synchronized void drawRectangle(Object referenceObject, String color, int x, int y, int width, int height, boolean fixed) {
+        place(referenceObject, RECTANGLE, color, x, y, width, height, null, fixed);
+    }
+
+    /**
+     * Pone la descripción de un objeto en su capa y anota el cambio. En la
+     * capa móvil la descripción se reutiliza y pasa arriba de todo sin crear
+     * objetos; en la fija solo se anota si cambió algo.
+     *
+     * @return La descripción en la capa móvil, o null si va en la fija.
+     */
+    private ShapeDescription place(Object key, byte kind, String color, int x, int y, int width, int height, Shape shape, boolean fixed) {
+        if (fixed) {
+            boolean moved = shapes.remove(key) != null;
+            ShapeDescription old = staticShapes.get(key);
+            if (!moved && old != null && old.sameAs(kind, color, x, y, width, height, shape)) return null;
+
+            staticShapes.remove(key);
+            staticShapes.put(key, new ShapeDescription().set(kind, color, x, y, width, height, shape));
+            staticDirty = true;
+            changed();
+            return null;
+        }
+        if (staticShapes.remove(key) != null) {
+            staticDirty = true;
+        }
+        ShapeDescription description = shapes.get(key); // Al leerla pasa arriba de todo
+        if (description == null) {
+            description = new ShapeDescription();
+            shapes.put(key, description);
+        }
+        description.set(kind, color, x, y, width, height, shape);
+        description.frame = 0;
+        changed();
+        return description;
+    }
+
+    /**
+     * Dibuja un mapa de densidad de partículas como una sola imagen, encima
+     * de la capa fija y debajo de las demás formas. Reemplaza el mapa
+     * anterior; el mapa se copia, así que se puede seguir contando en él.
+     *
+     * @param map El mapa.
+     */
+    public synchronized void drawDensity(DensityMap map) {
+        if (density == null) {
+            density = new ShapeDescription();
+        }
+        density.setDensity(map);
+        changed();
+    }
+
+    /**
+     * Borra el mapa de densidad, si hay uno.
+     */
+    public synchronized void eraseDensity() {
+        if (density != null) {
+            density = null;
+            changed();
+        }
     }
 
     /**
@@ -172,20 +410,111 @@ public class Canvas {
      *
      * @param referenceObject El objeto de referencia asociado a la forma.
      */
-    public void erase(Object referenceObject) {
-        objects.remove(referenceObject);
-        shapes.remove(referenceObject);
-        redraw();
+    public synchronized void erase(Object referenceObject) {
+        if (shapes.remove(referenceObject) != null) {
+            changed();
+        } else if (staticShapes.remove(referenceObject) != null) {
+            staticDirty = true;
+            changed();
+        }
+    }
+
+    /**
+     * Abre un marco: hasta el {@link #endFrame()} correspondiente, dibujar y
+     * borrar formas no redibuja el lienzo. Los marcos se pueden anidar.
+     */
+    public synchronized void beginFrame() {
+        frameDepth++;
     }
 
     /**
-     * Establece el color de primer plano usando el diccionario de colores.
+     * Cierra un marco. Al cerrar el más externo se redibuja el lienzo una
+     * sola vez, si alguna forma cambió.
+     */
+    public synchronized void endFrame() {
+        if (frameDepth == 0) return;
+
+        frameDepth--;
+        if (frameDepth == 0 && dirty) {
+            redraw();
+        }
+    }
+
+    /**
+     * Dibuja un cuadro completo: cada figura visible del cuadro queda en su
+     * posición y las invisibles se borran. Las que quedan fuera de la vista
+     * se guardan igual y solo dejan de pintarse, así que mover la cámara
+     * después del último cuadro las vuelve a mostrar.
+     *
+     * <p>Si el cuadro está recortado a la vista, además se borran las figuras
+     * que trajo un cuadro anterior y que este ya no trae, porque salieron de
+     * la vista; así el lienzo guarda y revisa solo lo que se ve. Si el cuadro
+     * trae un mapa de densidad, reemplaza al anterior; si no, el anterior se
+     * borra. El lienzo se redibuja una sola vez.</p>
      *
-     * @param colorString El nombre del color a usar.
+     * @param frame El cuadro a dibujar.
+     */
+    public synchronized void drawFrame(Frame frame) {
+        beginFrame();
+        if (frame.getDensity() != null) {
+            drawDensity(frame.getDensity());
+        } else {
+            eraseDensity();
+        }
+        frames++;
+        for (int i = 0; i < frame.size(); i++) {
+            Object key = frame.getKey(i);
+            if (frame.isVisible(i)) {
+                boolean fixed = staticShapes.containsKey(key);
+                byte kind = frame.isCircle(i) ? CIRCLE : RECTANGLE;
+                ShapeDescription description = place(key, kind, frame.getColor(i), frame.getX(i), frame.getY(i),
+                                                     frame.getWidth(i), frame.getHeight(i), null, fixed);
+                if (description != null) {
+                    description.frame = frames;
+                }
+            } else {
+                erase(key);
+            }
+        }
+        if (frame.isCulled()) {
+            eraseLeftBehind();
+        }
+        endFrame();
+    }
+
+    /**
+     * Borra de la capa móvil las figuras que trajo un cuadro anterior y que
+     * el cuadro en curso no trae.
+     */
+    private void eraseLeftBehind() {
+        Iterator<ShapeDescription> iterator = shapes.values().iterator();
+        while (iterator.hasNext()) {
+            ShapeDescription description = iterator.next();
+            if (description.frame != 0 && description.frame != frames) {
+                iterator.remove();
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Anota que una forma cambió y redibuja enseguida si no hay un marco abierto.
+     */
+    private void changed() {
+        dirty = true;
+        if (frameDepth == 0) {
+            redraw();
+        }
+    }
+
+    /**
+     * No hace nada. Cada forma guarda su propio color y se pinta con él, así
+     * que el lienzo ya no tiene un color de primer plano; el método se
+     * conserva para no romper a quien lo llama.
+     *
+     * @param colorString El nombre del color, que se ignora.
      */
     public void setForegroundColor(String colorString) {
-        Color color = colorMap.getOrDefault(colorString, Color.BLACK); // Usar BLACK como color por defecto
-        graphic.setColor(color);
     }
 
     /**
@@ -202,68 +531,119 @@ public class Canvas {
     }
 
     /**
-     * Redibuja todas las formas en el lienzo.
+     * Redibuja todas las formas en el lienzo: copia la capa fija, pintándola
+     * antes si cambió, y encima pinta el mapa de densidad y las demás formas.
      */
-    public void redraw() {
-        erase();
-        for (Iterator i = objects.iterator(); i.hasNext(); ) {
-            shapes.get(i.next()).draw(graphic);
+    public synchronized void redraw() {
+        if (staticDirty) {
+            backend.beginBackground(backgroundColour);
+            for (ShapeDescription shape : staticShapes.values()) {
+                shape.draw();
+            }
+            backend.endBackground();
+            staticDirty = false;
+        }
+        backend.restoreBackground();
+        if (density != null) {
+            density.draw();
+        }
+        for (ShapeDescription shape : shapes.values()) {
+            shape.draw();
         }
-        canvas.repaint();
+        dirty = false;
+        backend.show();
     }
 
     /**
-     * Borra todo el contenido del lienzo, dejándolo con el color de fondo.
+     * Clase interna que describe una forma y su color. Los círculos y los
+     * rectángulos se guardan como números, sin objeto de forma, para que
+     * volver a dibujarlos no cree objetos.
      */
-    private void erase() {
-        Color original = graphic.getColor();
-        graphic.setColor(backgroundColour);
-        Dimension size = canvas.getSize();
-        graphic.fill(new java.awt.Rectangle(0, 0, size.width, size.height));
-        graphic.setColor(original);
-    }
+    private class ShapeDescription {
+        private byte kind; // SHAPE, CIRCLE, RECTANGLE o DENSITY
+        private int x;
+        private int y;
+        private int width;
+        private int height;
+        private Shape shape; // Solo para las formas cualquiera
+        private String colorString;
+        private Color color; // Color ya buscado en el diccionario
+        private BufferedImage image; // Solo para el mapa de densidad, un píxel por celda
+        private long frame; // Último cuadro que trajo la forma, o 0 si no vino de un cuadro
 
-    /**
-     * Clase interna que representa el panel donde se dibuja el lienzo.
-     */
-    private class CanvasPane extends JPanel {
         /**
-         * Dibuja la imagen del lienzo en el panel.
+         * Cambia la descripción. El color solo se busca si cambió.
          *
-         * @param g El contexto gráfico en el que se dibuja.
+         * @param kind        El tipo de forma.
+         * @param colorString El nombre del color.
+         * @param x           La posición en X.
+         * @param y           La posición en Y.
+         * @param width       El ancho o el diámetro.
+         * @param height      La altura.
+         * @param shape       La forma, si es una forma cualquiera.
+         * @return La misma descripción.
          */
-        public void paint(Graphics g) {
-            g.drawImage(canvasImage, 0, 0, null);
+        public ShapeDescription set(byte kind, String colorString, int x, int y, int width, int height, Shape shape) {
+            this.kind = kind;
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+            this.shape = shape;
+            if (!colorString.equals(this.colorString)) {
+                this.colorString = colorString;
+                this.color = colorMap.getOrDefault(colorString, Color.BLACK);
+            }
+            return this;
         }
-    }
-
-    /**
-     * Clase interna que describe una forma y su color.
-     */
-    private class ShapeDescription {
-        private Shape shape;
-        private String colorString;
 
         /**
-         * Constructor para crear una descripción de forma.
+         * Convierte la descripción en un mapa de densidad, pintando el mapa en
+         * la imagen de la descripción. La imagen se reutiliza mientras el
+         * mapa tenga las mismas celdas.
          *
-         * @param shape      La forma a dibujar.
-         * @param colorString El color de la forma.
+         * @param map El mapa.
          */
-        public ShapeDescription(Shape shape, String color) {
-            this.shape = shape;
-            this.colorString = color;
+        public void setDensity(DensityMap map) {
+            this.kind = DENSITY;
+            this.x = map.getX();
+            this.y = map.getY();
+            this.width = map.getWidth();
+            this.height = map.getHeight();
+            this.image = map.paint(image);
+        }
+
+        /**
+         * Pinta la forma en el destino del lienzo, pasada por la cámara. Los
+         * círculos, rectángulos y mapas que no se ven no se pintan.
+         */
+        public void draw() {
+            if (kind == SHAPE) {
+                backend.paint(viewport.isIdentity() ? shape : viewport.transform(shape), color);
+                return;
+            }
+            if (!viewport.intersects(x, y, width + 1, height + 1)) return;
+
+            int screenX = viewport.toScreenX(x);
+            int screenY = viewport.toScreenY(y);
+            if (kind == DENSITY) {
+                backend.paintImage(image, screenX, screenY, viewport.scale(width), viewport.scale(height));
+            } else if (kind == CIRCLE) {
+                backend.paintCircle(screenX, screenY, viewport.scale(width), color);
+            } else {
+                backend.paintRectangle(screenX, screenY, viewport.scale(width), viewport.scale(height), color);
+            }
         }
 
         /**
-         * Dibuja la forma en el contexto gráfico proporcionado.
+         * Indica si la descripción tiene la forma y el color dados.
          *
-         * @param graphic El contexto gráfico en el que se dibuja la forma.
+         * @return true si se pintaría igual.
          */
-        public void draw(Graphics2D graphic) {
-            setForegroundColor(colorString);
-            graphic.draw(shape);
-            graphic.fill(shape);
+        public boolean sameAs(byte kind, String colorString, int x, int y, int width, int height, Shape shape) {
+            return this.kind == kind && this.colorString.equals(colorString)
+                && this.x == x && this.y == y && this.width == width && this.height == height
+                && (shape == null ? this.shape == null : shape.equals(this.shape));
         }
     }
 
@@ -273,6 +653,16 @@ public class Canvas {
      * @return Un mapa que asocia nombres de colores con objetos Color.
      */
     public Map<String, Color> getColorMap() {
+        return colors();
+    }
+
+    /**
+     * Obtiene el diccionario de colores sin crear el lienzo. Lo usan quienes
+     * pintan o eligen colores sin pantalla.
+     *
+     * @return Un mapa que asocia nombres de colores con objetos Color.
+     */
+    public static Map<String, Color> colors() {
         return colorMap;
     }
 }
@@ -0,0 +1,93 @@
+package Shapes;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Shape;
+
+/**
+ * Destino donde el lienzo compone sus cuadros. El lienzo guarda las formas y
+ * decide cuándo redibujar; el destino solo pinta.
+ *
+ * <p>Cada cuadro empieza con la capa fija (las figuras que no se mueven),
+ * que el destino guarda ya pintada y solo se vuelve a pintar cuando alguna
+ * de esas figuras cambia.</p>
+ *
+ * <p>El destino se elige con la propiedad del sistema {@code shapes.backend}:
+ * {@code swing} (por defecto) abre una ventana, {@code image} pinta en una
+ * imagen en memoria y {@code none} solo cuenta lo que se pinta. Los dos
+ * últimos no usan la pantalla.</p>
+ */
+public interface CanvasBackend {
+
+    /**
+     * Muestra u oculta el destino, si se puede ver.
+     *
+     * @param visible true para mostrarlo.
+     */
+    void setVisible(boolean visible);
+
+    /**
+     * Empieza a pintar la capa fija: las formas que se pinten hasta
+     * {@link #endBackground()} se guardan aparte y no van al cuadro.
+     *
+     * @param background El color de fondo.
+     */
+    void beginBackground(Color background);
+
+    /**
+     * Termina la capa fija; las formas siguientes van al cuadro.
+     */
+    void endBackground();
+
+    /**
+     * Empieza un cuadro nuevo copiando la última capa fija pintada.
+     */
+    void restoreBackground();
+
+    /**
+     * Pinta una forma rellena.
+     *
+     * @param shape La forma.
+     * @param color El color de la forma.
+     */
+    void paint(Shape shape, Color color);
+
+    /**
+     * Pinta un círculo relleno. No debe crear objetos cuando el círculo ya
+     * se pintó antes con el mismo color y diámetro.
+     *
+     * @param x        La posición en X de la esquina superior izquierda.
+     * @param y        La posición en Y de la esquina superior izquierda.
+     * @param diameter El diámetro.
+     * @param color    El color.
+     */
+    void paintCircle(int x, int y, int diameter, Color color);
+
+    /**
+     * Pinta un rectángulo relleno, con su borde.
+     *
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho.
+     * @param height La altura.
+     * @param color  El color.
+     */
+    void paintRectangle(int x, int y, int width, int height, Color color);
+
+    /**
+     * Pinta una imagen estirada al rectángulo dado, respetando su
+     * transparencia. Sirve para el mapa de densidad de las partículas.
+     *
+     * @param image  La imagen.
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho en pantalla.
+     * @param height La altura en pantalla.
+     */
+    void paintImage(Image image, int x, int y, int width, int height);
+
+    /**
+     * Termina el cuadro y lo muestra.
+     */
+    void show();
+}
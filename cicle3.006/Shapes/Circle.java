@@ -30,7 +30,7 @@ public class Circle extends Figure {
         if (isVisible) {
             Canvas canvas = Canvas.getCanvas(); // Obtiene la instancia del lienzo.
             // Dibuja el círculo en la posición (xPosition, yPosition) con el diámetro especificado.
-            canvas.draw(this, color, new java.awt.geom.Ellipse2D.Double(xPosition, yPosition, diameter, diameter));
+            canvas.drawCircle(this, color, xPosition, yPosition, diameter, isStatic);
         }
     }
 
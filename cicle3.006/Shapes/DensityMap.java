@@ -0,0 +1,251 @@
+package Shapes;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Clase que cuenta cuántas partículas rojas y azules caen en cada celda de
+ * una rejilla, para dibujar escenas enormes como una sola imagen en lugar de
+ * un círculo por partícula.
+ *
+ * <p>La rejilla cubre un rectángulo del mundo dividido en celdas cuadradas.
+ * Al pintarla, cada celda toma el color de la mayoría (rojo, azul o morado si
+ * empatan) y es más opaca cuantas más partículas tiene, hasta la más llena,
+ * que es opaca; las celdas vacías quedan transparentes.</p>
+ *
+ * <p>Contar no es seguro entre hilos: quien reparte el trabajo usa un mapa
+ * por hilo y luego los suma con {@link #addAll(DensityMap, int, int)}.</p>
+ */
+public class DensityMap {
+    private static final int RED = 0xff0000;
+    private static final int BLUE = 0x0000ff;
+    private static final int TIE = 0x800080; // Morado, cuando hay tantas rojas como azules
+    private static final int MIN_ALPHA = 96; // Opacidad de una celda con una sola partícula, si hay otras más llenas
+
+    private int x; // Esquina superior izquierda en el mundo
+    private int y;
+    private int width; // Medidas en el mundo, múltiplos del lado de la celda
+    private int height;
+    private int cell; // Lado de cada celda
+    private int columns;
+    private int rows;
+    private int[] red; // Partículas rojas de cada celda, fila por fila
+    private int[] blue;
+
+    /**
+     * Constructor para crear una rejilla vacía.
+     *
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho del rectángulo que cubre.
+     * @param height La altura del rectángulo que cubre.
+     * @param cell   El lado de cada celda, al menos 1.
+     */
+    public DensityMap(int x, int y, int width, int height, int cell) {
+        if (cell < 1) {
+            throw new IllegalArgumentException("El lado de la celda debe ser al menos 1");
+        }
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("El mapa debe cubrir al menos una celda");
+        }
+        this.x = x;
+        this.y = y;
+        this.cell = cell;
+        this.columns = (width + cell - 1) / cell;
+        this.rows = (height + cell - 1) / cell;
+        this.width = columns * cell;
+        this.height = rows * cell;
+        this.red = new int[columns * rows];
+        this.blue = new int[columns * rows];
+    }
+
+    /**
+     * Indica si otra rejilla cubre el mismo rectángulo con las mismas celdas.
+     *
+     * @param other La otra rejilla.
+     * @return true si se pueden sumar celda por celda.
+     */
+    public boolean sameGrid(DensityMap other) {
+        return other != null && x == other.x && y == other.y && cell == other.cell
+            && columns == other.columns && rows == other.rows;
+    }
+
+    /**
+     * Indica si la rejilla cubre el rectángulo dado con celdas del lado dado.
+     *
+     * @return true si una rejilla nueva con esas medidas sería igual.
+     */
+    public boolean covers(int x, int y, int width, int height, int cell) {
+        return this.x == x && this.y == y && this.cell == cell
+            && columns == (width + cell - 1) / cell && rows == (height + cell - 1) / cell;
+    }
+
+    /**
+     * Vacía todas las celdas.
+     */
+    public void clear() {
+        Arrays.fill(red, 0);
+        Arrays.fill(blue, 0);
+    }
+
+    /**
+     * Cuenta una partícula en la celda que contiene un punto. Los puntos
+     * fuera de la rejilla se ignoran.
+     *
+     * @param px    La posición en X del punto.
+     * @param py    La posición en Y del punto.
+     * @param isRed true si la partícula es roja.
+     */
+    public void add(int px, int py, boolean isRed) {
+        int column = Math.floorDiv(px - x, cell);
+        int row = Math.floorDiv(py - y, cell);
+        if (column < 0 || column >= columns || row < 0 || row >= rows) return;
+
+        int i = row * columns + column;
+        if (isRed) {
+            red[i]++;
+        } else {
+            blue[i]++;
+        }
+    }
+
+    /**
+     * Suma a esta rejilla las cuentas de otra igual en un tramo de celdas.
+     * Dos hilos pueden sumar a la vez tramos que no se cruzan.
+     *
+     * @param other La otra rejilla, con las mismas celdas.
+     * @param from  La primera celda del tramo, contando fila por fila.
+     * @param to    La celda siguiente a la última del tramo.
+     */
+    public void addAll(DensityMap other, int from, int to) {
+        if (!sameGrid(other)) {
+            throw new IllegalArgumentException("Las rejillas no tienen las mismas celdas");
+        }
+        for (int i = from; i < to; i++) {
+            red[i] += other.red[i];
+            blue[i] += other.blue[i];
+        }
+    }
+
+    /**
+     * Pinta la rejilla con un píxel por celda. Reutiliza la imagen dada si
+     * tiene el tamaño justo; si no, crea una.
+     *
+     * @param image La imagen de un cuadro anterior, o null.
+     * @return La imagen pintada, de tipo ARGB.
+     */
+    public BufferedImage paint(BufferedImage image) {
+        if (image == null || image.getWidth() != columns || image.getHeight() != rows
+            || image.getType() != BufferedImage.TYPE_INT_ARGB) {
+            image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB);
+        }
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        int max = 0;
+        for (int i = 0; i < red.length; i++) {
+            max = Math.max(max, red[i] + blue[i]);
+        }
+        double scale = (255 - MIN_ALPHA) / Math.log(Math.max(max, 2));
+        for (int i = 0; i < red.length; i++) {
+            int count = red[i] + blue[i];
+            if (count == 0) {
+                pixels[i] = 0;
+                continue;
+            }
+            int rgb = red[i] > blue[i] ? RED : red[i] < blue[i] ? BLUE : TIE;
+            int alpha = count == max ? 255 : MIN_ALPHA + (int) (scale * Math.log(count));
+            pixels[i] = alpha << 24 | rgb;
+        }
+        return image;
+    }
+
+    /**
+     * Obtiene la posición en X de la esquina superior izquierda.
+     *
+     * @return La posición en X.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Obtiene la posición en Y de la esquina superior izquierda.
+     *
+     * @return La posición en Y.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Obtiene el ancho que cubre la rejilla, redondeado a celdas completas.
+     *
+     * @return El ancho.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Obtiene la altura que cubre la rejilla, redondeada a celdas completas.
+     *
+     * @return La altura.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Obtiene el lado de cada celda.
+     *
+     * @return El lado.
+     */
+    public int getCell() {
+        return cell;
+    }
+
+    /**
+     * Obtiene la cantidad de celdas de la rejilla.
+     *
+     * @return Las columnas por las filas.
+     */
+    public int cells() {
+        return red.length;
+    }
+
+    /**
+     * Obtiene la cantidad de partículas rojas de una celda.
+     *
+     * @param column La columna.
+     * @param row    La fila.
+     * @return Las partículas rojas.
+     */
+    public int getRed(int column, int row) {
+        return red[row * columns + column];
+    }
+
+    /**
+     * Obtiene la cantidad de partículas azules de una celda.
+     *
+     * @param column La columna.
+     * @param row    La fila.
+     * @return Las partículas azules.
+     */
+    public int getBlue(int column, int row) {
+        return blue[row * columns + column];
+    }
+
+    /**
+     * Obtiene la cantidad de partículas contadas en toda la rejilla.
+     *
+     * @return La suma de todas las celdas.
+     */
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < red.length; i++) {
+            total += red[i] + blue[i];
+        }
+        return total;
+    }
+}
@@ -10,6 +10,7 @@ public abstract class Figure {
     protected int yPosition; // Posición en el eje Y de la figura.
     protected String color;  // Color de la figura.
     protected boolean isVisible; // Estado de visibilidad de la figura.
+    protected boolean isStatic; // Indica si la figura va en la capa fija del lienzo.
 
     /**
      * Constructor para inicializar una figura con una posición y color específicos.
@@ -61,6 +62,37 @@ public abstract class Figure {
     }
     
 
+    /**
+     * Indica si la figura está visible en el lienzo.
+     *
+     * @return true si la figura está visible.
+     */
+    public boolean isVisible() {
+        return isVisible;
+    }
+
+    /**
+     * Indica si la figura no se mueve. Las figuras fijas se pintan en una
+     * capa que el lienzo reutiliza en cada redibujo.
+     *
+     * @param isStatic true si la figura no se mueve.
+     */
+    public void setStatic(boolean isStatic) {
+        if (this.isStatic == isStatic) return;
+
+        erase();
+        this.isStatic = isStatic;
+        draw();
+    }
+
+    /**
+     * Vuelve a dibujar la figura en su posición actual.
+     * Se usa cuando la posición cambió sin pasar por el lienzo.
+     */
+    public void refresh() {
+        draw();
+    }
+
     /**
      * Mueve la figura a una nueva posición en el lienzo.
      *
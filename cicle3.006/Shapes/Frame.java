@@ -0,0 +1,398 @@
+package Shapes;
+
+import java.util.Arrays;
+
+/**
+ * Clase que guarda la posición de un conjunto de figuras en un instante,
+ * para dibujarlas después sin tocar las figuras.
+ *
+ * <p>Un cuadro se llena desde el hilo de la simulación y se dibuja desde el
+ * hilo del lienzo; {@link FrameBuffer} se encarga de que nunca lo usen los
+ * dos a la vez. Los arreglos se reutilizan de un cuadro al siguiente.</p>
+ *
+ * <p>En escenas enormes las partículas no van como entradas sino contadas
+ * en un {@link DensityMap}, que el lienzo pinta como una sola imagen.</p>
+ *
+ * <p>Un cuadro puede traer solo lo que se ve: quien lo llena marca la zona
+ * con {@link #cull(int, int, int, int)} y deja fuera las partículas que no
+ * la tocan, así que llenarlo y dibujarlo no depende del tamaño del mundo.</p>
+ */
+public class Frame {
+    public static final byte CIRCLE = 0; // La figura es un círculo
+    public static final byte RECTANGLE = 1; // La figura es un rectángulo
+
+    private long tick; // Tick de la simulación que muestra el cuadro
+    long sequence; // Número de publicación, asignado por FrameBuffer
+    private int size; // Cantidad de figuras en el cuadro
+    private Object[] keys; // Figura de la que se tomó cada entrada
+    private byte[] kinds;
+    private String[] colors;
+    private int[] x;
+    private int[] y;
+    private int[] width;
+    private int[] height;
+    private boolean[] visible;
+    private DensityMap density; // Mapa de las partículas, reutilizado entre cuadros
+    private boolean binned; // Indica si este cuadro usa el mapa
+    private int densityIndex; // Entradas que van debajo del mapa
+    private boolean culled; // Indica si el cuadro solo trae lo que toca la zona visible
+    private int viewX; // Zona visible del mundo cuando el cuadro está recortado
+    private int viewY;
+    private int viewWidth;
+    private int viewHeight;
+
+    /**
+     * Constructor para crear un cuadro vacío.
+     *
+     * @param capacity La cantidad de figuras que caben sin crecer.
+     */
+    public Frame(int capacity) {
+        capacity = Math.max(capacity, 16);
+        keys = new Object[capacity];
+        kinds = new byte[capacity];
+        colors = new String[capacity];
+        x = new int[capacity];
+        y = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        visible = new boolean[capacity];
+    }
+
+    /**
+     * Vacía el cuadro para llenarlo con otro tick.
+     *
+     * @param tick El tick de la simulación que va a mostrar.
+     */
+    public void clear(long tick) {
+        Arrays.fill(keys, 0, size, null);
+        this.tick = tick;
+        size = 0;
+        binned = false;
+        culled = false;
+    }
+
+    /**
+     * Marca el cuadro como recortado a una zona del mundo: las figuras que no
+     * la tocan pueden faltar, y el lienzo borra las que dejaron de tocarla.
+     *
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho de la zona.
+     * @param height La altura de la zona.
+     */
+    public void cull(int x, int y, int width, int height) {
+        culled = true;
+        viewX = x;
+        viewY = y;
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    /**
+     * Indica si el cuadro solo trae las figuras de una zona.
+     *
+     * @return true si se llenó con {@link #cull(int, int, int, int)}.
+     */
+    public boolean isCulled() {
+        return culled;
+    }
+
+    /**
+     * Obtiene la posición en X de la zona del cuadro recortado.
+     *
+     * @return La posición en X de la esquina superior izquierda.
+     */
+    public int getViewX() {
+        return viewX;
+    }
+
+    /**
+     * Obtiene la posición en Y de la zona del cuadro recortado.
+     *
+     * @return La posición en Y de la esquina superior izquierda.
+     */
+    public int getViewY() {
+        return viewY;
+    }
+
+    /**
+     * Obtiene el ancho de la zona del cuadro recortado.
+     *
+     * @return El ancho.
+     */
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    /**
+     * Obtiene la altura de la zona del cuadro recortado.
+     *
+     * @return La altura.
+     */
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    /**
+     * Indica si un rectángulo toca la zona del cuadro. Si el cuadro no está
+     * recortado, todo la toca.
+     *
+     * @param x      La posición en X del rectángulo.
+     * @param y      La posición en Y del rectángulo.
+     * @param width  El ancho.
+     * @param height La altura.
+     * @return true si el rectángulo toca la zona.
+     */
+    public boolean inView(int x, int y, int width, int height) {
+        return !culled || (x + width >= viewX && y + height >= viewY
+                           && x <= viewX + viewWidth && y <= viewY + viewHeight);
+    }
+
+    /**
+     * Pide el mapa de densidad del cuadro, vacío, para contar en él las
+     * partículas. Si el cuadro anterior usó un mapa con las mismas celdas, se
+     * reutiliza. El mapa va encima de las entradas agregadas hasta ahora y
+     * debajo de las siguientes.
+     *
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho que cubre el mapa.
+     * @param height La altura que cubre el mapa.
+     * @param cell   El lado de cada celda.
+     * @return El mapa vacío.
+     */
+    public DensityMap density(int x, int y, int width, int height, int cell) {
+        if (density == null || !density.covers(x, y, width, height, cell)) {
+            density = new DensityMap(x, y, width, height, cell);
+        } else {
+            density.clear();
+        }
+        binned = true;
+        densityIndex = size;
+        return density;
+    }
+
+    /**
+     * Agrega una figura con su posición, color y visibilidad actuales.
+     * Las figuras que no son círculos ni rectángulos se ignoran.
+     *
+     * @param figure La figura.
+     */
+    public void add(Figure figure) {
+        add(figure, figure.isVisible());
+    }
+
+    /**
+     * Agrega una figura con su posición y color actuales, indicando si se
+     * debe dibujar. Sirve para figuras que nunca se mostraron en el lienzo.
+     * Las figuras que no son círculos ni rectángulos se ignoran.
+     *
+     * @param figure  La figura.
+     * @param visible Indica si la figura se debe dibujar.
+     */
+    public void add(Figure figure, boolean visible) {
+        add(figure, figure.getXPosition(), figure.getYPosition(), visible);
+    }
+
+    /**
+     * Agrega una figura en la posición dada en lugar de la suya. Sirve para
+     * figuras cuyo estado se simula en otra parte y todavía no se les copió.
+     * Las figuras que no son círculos ni rectángulos se ignoran.
+     *
+     * @param figure  La figura.
+     * @param px      La posición en X de la entrada.
+     * @param py      La posición en Y de la entrada.
+     * @param visible Indica si la figura se debe dibujar.
+     */
+    public void add(Figure figure, int px, int py, boolean visible) {
+        if (figure instanceof Circle) {
+            int diameter = ((Circle) figure).getDiameter();
+            add(figure, CIRCLE, px, py, diameter, diameter, visible);
+        } else if (figure instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) figure;
+            add(figure, RECTANGLE, px, py, rectangle.getWidth(), rectangle.getHeight(), visible);
+        }
+    }
+
+    /**
+     * Agrega una entrada con la posición y las medidas dadas.
+     */
+    private void add(Figure figure, byte kind, int px, int py, int figureWidth, int figureHeight, boolean figureVisible) {
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = figure;
+        kinds[size] = kind;
+        colors[size] = figure.getColor();
+        x[size] = px;
+        y[size] = py;
+        width[size] = figureWidth;
+        height[size] = figureHeight;
+        visible[size] = figureVisible;
+        size++;
+    }
+
+    /**
+     * Duplica la capacidad de los arreglos.
+     */
+    private void grow() {
+        int capacity = 2 * keys.length;
+        keys = Arrays.copyOf(keys, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        visible = Arrays.copyOf(visible, capacity);
+    }
+
+    /**
+     * Crea la forma de una entrada en su posición.
+     *
+     * @param i La entrada.
+     * @return Un círculo o un rectángulo.
+     */
+    public java.awt.Shape shapeAt(int i) {
+        if (kinds[i] == CIRCLE) {
+            return new java.awt.geom.Ellipse2D.Double(x[i], y[i], width[i], height[i]);
+        }
+        return new java.awt.Rectangle(x[i], y[i], width[i], height[i]);
+    }
+
+    /**
+     * Obtiene el mapa de densidad del cuadro.
+     *
+     * @return El mapa, o null si las partículas van como entradas.
+     */
+    public DensityMap getDensity() {
+        return binned ? density : null;
+    }
+
+    /**
+     * Obtiene cuántas entradas van debajo del mapa de densidad.
+     *
+     * @return La primera entrada que va encima del mapa.
+     */
+    public int getDensityIndex() {
+        return densityIndex;
+    }
+
+    /**
+     * Obtiene el tick de la simulación que muestra el cuadro.
+     *
+     * @return El tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Obtiene la cantidad de figuras en el cuadro.
+     *
+     * @return La cantidad de entradas.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtiene la figura de la que se tomó una entrada. Sirve como clave en el lienzo.
+     *
+     * @param i La entrada.
+     * @return La figura.
+     */
+    public Object getKey(int i) {
+        return keys[i];
+    }
+
+    /**
+     * Obtiene el color de una entrada.
+     *
+     * @param i La entrada.
+     * @return El nombre del color.
+     */
+    public String getColor(int i) {
+        return colors[i];
+    }
+
+    /**
+     * Obtiene la posición en X de una entrada.
+     *
+     * @param i La entrada.
+     * @return La posición en X.
+     */
+    public int getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Obtiene la posición en Y de una entrada.
+     *
+     * @param i La entrada.
+     * @return La posición en Y.
+     */
+    public int getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Indica si una entrada es un círculo.
+     *
+     * @param i La entrada.
+     * @return true si es un círculo, false si es un rectángulo.
+     */
+    public boolean isCircle(int i) {
+        return kinds[i] == CIRCLE;
+    }
+
+    /**
+     * Obtiene el ancho de una entrada; en los círculos es el diámetro.
+     *
+     * @param i La entrada.
+     * @return El ancho.
+     */
+    public int getWidth(int i) {
+        return width[i];
+    }
+
+    /**
+     * Obtiene la altura de una entrada.
+     *
+     * @param i La entrada.
+     * @return La altura.
+     */
+    public int getHeight(int i) {
+        return height[i];
+    }
+
+    /**
+     * Obtiene el borde derecho de una entrada.
+     *
+     * @param i La entrada.
+     * @return La posición en X más el ancho.
+     */
+    public int getRight(int i) {
+        return x[i] + width[i];
+    }
+
+    /**
+     * Obtiene el borde inferior de una entrada.
+     *
+     * @param i La entrada.
+     * @return La posición en Y más la altura.
+     */
+    public int getBottom(int i) {
+        return y[i] + height[i];
+    }
+
+    /**
+     * Indica si una entrada estaba visible.
+     *
+     * @param i La entrada.
+     * @return true si la figura se debe dibujar.
+     */
+    public boolean isVisible(int i) {
+        return visible[i];
+    }
+}
@@ -0,0 +1,62 @@
+package Shapes;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Triple búfer de cuadros entre un hilo que los produce y otro que los dibuja.
+ *
+ * <p>El productor llena {@link #back()} y lo publica; el consumidor pide el
+ * último publicado con {@link #latest()}. Cada hilo tiene siempre su propio
+ * cuadro y el tercero queda en medio, así que ninguno espera al otro: si el
+ * productor publica más rápido de lo que se dibuja, los cuadros intermedios
+ * simplemente se saltan.</p>
+ */
+public class FrameBuffer {
+    private Frame back; // Cuadro que está llenando el productor
+    private Frame front; // Cuadro que está dibujando el consumidor
+    private final AtomicReference<Frame> middle; // Último cuadro publicado o devuelto
+    private long published; // Cuadros publicados por el productor
+    private long taken; // Número del último cuadro que tomó el consumidor
+
+    /**
+     * Constructor para crear el búfer.
+     *
+     * @param capacity La cantidad de figuras que caben en cada cuadro sin crecer.
+     */
+    public FrameBuffer(int capacity) {
+        back = new Frame(capacity);
+        front = new Frame(capacity);
+        middle = new AtomicReference<>(new Frame(capacity));
+    }
+
+    /**
+     * Obtiene el cuadro que debe llenar el productor. Solo lo usa el productor.
+     *
+     * @return El cuadro libre.
+     */
+    public Frame back() {
+        return back;
+    }
+
+    /**
+     * Publica el cuadro que llenó el productor y le entrega otro libre.
+     */
+    public void publish() {
+        back.sequence = ++published;
+        back = middle.getAndSet(back);
+    }
+
+    /**
+     * Toma el último cuadro publicado. Solo lo usa el consumidor, y el cuadro
+     * es suyo hasta la siguiente llamada.
+     *
+     * @return El cuadro, o null si no se publicó ninguno desde la última llamada.
+     */
+    public Frame latest() {
+        if (middle.get().sequence <= taken) return null;
+
+        front = middle.getAndSet(front);
+        taken = front.sequence;
+        return front;
+    }
+}
@@ -0,0 +1,169 @@
+package Shapes;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+
+/**
+ * Clase que guarda cuadros como una secuencia de imágenes PNG, sin ventana.
+ *
+ * <p>Cada cuadro se pinta en una imagen en memoria en el hilo que lo
+ * exporta, porque los cuadros se reutilizan; codificar y escribir el PNG, que
+ * es lo costoso, se hace en hilos aparte. Si los hilos se atrasan más de unas
+ * cuantas imágenes, el hilo que exporta codifica la siguiente él mismo, así
+ * que la memoria no crece sin límite.</p>
+ *
+ * <p>Los archivos se llaman frame-TTTTTTTT.png, con el tick del cuadro.</p>
+ */
+public class FrameExporter {
+    private File directory;
+    private int every; // Se exporta un cuadro cada tantos ticks
+    private ThreadPoolExecutor encoder; // Hilos que codifican y escriben las imágenes
+    private AtomicInteger written; // Imágenes ya escritas
+    private volatile IOException error; // Primer error al escribir
+
+    /**
+     * Constructor para crear un exportador.
+     *
+     * @param directory La carpeta donde se escriben las imágenes; se crea si no existe.
+     * @param every     Se exporta un cuadro cada tantos ticks, al menos 1.
+     * @param threads   Los hilos que codifican las imágenes, al menos 1.
+     */
+    public FrameExporter(File directory, int every, int threads) {
+        if (every < 1) {
+            throw new IllegalArgumentException("Se debe exportar al menos cada tick");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser al menos 1");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("No se pudo crear la carpeta " + directory);
+        }
+        this.directory = directory;
+        this.every = every;
+        this.written = new AtomicInteger();
+        this.encoder = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(2 * threads), r -> {
+                Thread thread = new Thread(r, "frame-exporter");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Obtiene el siguiente tick que se debe exportar.
+     *
+     * @param tick El tick actual.
+     * @return El primer múltiplo del intervalo mayor que el tick.
+     */
+    public long nextTick(long tick) {
+        return (tick / every + 1) * every;
+    }
+
+    /**
+     * Indica si el cuadro de un tick se debe exportar.
+     *
+     * @param tick El tick.
+     * @return true si el tick es múltiplo del intervalo.
+     */
+    public boolean wants(long tick) {
+        return tick % every == 0;
+    }
+
+    /**
+     * Pinta un cuadro y encarga escribirlo. Al volver, el cuadro se puede reutilizar.
+     *
+     * @param frame El cuadro.
+     */
+    public void export(Frame frame) {
+        BufferedImage image = paint(frame);
+        File file = new File(directory, String.format("frame-%08d.png", frame.getTick()));
+        encoder.execute(() -> write(image, file));
+    }
+
+    /**
+     * Pinta las figuras visibles de un cuadro en una imagen con fondo blanco
+     * del tamaño justo para que quepan todas. El mapa de densidad, si lo hay,
+     * va en el lugar del cuadro donde se pidió.
+     *
+     * @param frame El cuadro.
+     * @return La imagen.
+     */
+    public static BufferedImage paint(Frame frame) {
+        int width = 1;
+        int height = 1;
+        for (int i = 0; i < frame.size(); i++) {
+            width = Math.max(width, frame.getRight(i));
+            height = Math.max(height, frame.getBottom(i));
+        }
+        DensityMap density = frame.getDensity();
+        if (density != null) {
+            width = Math.max(width, density.getX() + density.getWidth());
+            height = Math.max(height, density.getY() + density.getHeight());
+        }
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphic = image.createGraphics();
+        graphic.setColor(Color.WHITE);
+        graphic.fillRect(0, 0, width, height);
+        for (int i = 0; i <= frame.size(); i++) {
+            if (density != null && i == frame.getDensityIndex()) {
+                graphic.drawImage(density.paint(null), density.getX(), density.getY(),
+                                  density.getWidth(), density.getHeight(), null);
+            }
+            if (i < frame.size() && frame.isVisible(i)) {
+                graphic.setColor(Canvas.colors().getOrDefault(frame.getColor(i), Color.BLACK));
+                graphic.fill(frame.shapeAt(i));
+            }
+        }
+        graphic.dispose();
+        return image;
+    }
+
+    /**
+     * Escribe una imagen y guarda el primer error.
+     */
+    private void write(BufferedImage image, File file) {
+        try {
+            ImageIO.write(image, "png", file);
+            written.incrementAndGet();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de imágenes ya escritas.
+     *
+     * @return Las imágenes escritas.
+     */
+    public int getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Espera a que se escriban las imágenes pendientes y detiene los hilos.
+     *
+     * @throws IOException Si alguna imagen no se pudo escribir.
+     */
+    public void close() throws IOException {
+        encoder.shutdown();
+        try {
+            encoder.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package Shapes;
+
+import java.lang.reflect.InvocationTargetException;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Clase que dibuja en el lienzo, a un ritmo fijo, el último cuadro publicado
+ * en un {@link FrameBuffer}.
+ *
+ * <p>Dibuja desde el hilo de eventos de Swing, así que la simulación puede
+ * avanzar a cualquier velocidad sin esperar a la pantalla: si produce más
+ * cuadros de los que se alcanzan a mostrar, se muestran solo los más recientes.</p>
+ */
+public class FrameRenderer {
+    private Canvas canvas;
+    private FrameBuffer buffer;
+    private Timer timer; // Dispara el dibujo en el hilo de eventos
+    private volatile long framesDrawn; // Cuadros dibujados desde que se creó
+
+    /**
+     * Constructor para crear el dibujante.
+     *
+     * @param canvas          El lienzo donde se dibuja.
+     * @param buffer          El búfer de donde se toman los cuadros.
+     * @param framesPerSecond Los cuadros por segundo que se intentan mostrar.
+     */
+    public FrameRenderer(Canvas canvas, FrameBuffer buffer, int framesPerSecond) {
+        if (framesPerSecond < 1) {
+            throw new IllegalArgumentException("Debe haber al menos un cuadro por segundo");
+        }
+        this.canvas = canvas;
+        this.buffer = buffer;
+        this.timer = new Timer(Math.max(1, 1000 / framesPerSecond), e -> drawLatest());
+        this.timer.setCoalesce(true);
+    }
+
+    /**
+     * Empieza a dibujar cuadros.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Deja de dibujar cuadros, después de mostrar el último publicado.
+     * Al volver, el lienzo ya no se toca desde el hilo de eventos.
+     */
+    public void stop() {
+        timer.stop();
+        if (SwingUtilities.isEventDispatchThread()) {
+            drawLatest();
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(this::drawLatest);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("No se pudo dibujar el último cuadro", e.getCause());
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de cuadros dibujados.
+     *
+     * @return Los cuadros dibujados.
+     */
+    public long getFramesDrawn() {
+        return framesDrawn;
+    }
+
+    /**
+     * Dibuja el último cuadro publicado, si hay uno nuevo.
+     */
+    private void drawLatest() {
+        Frame frame = buffer.latest();
+        if (frame != null) {
+            canvas.drawFrame(frame);
+            framesDrawn++;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package Shapes;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Destino del lienzo que pinta en una imagen en memoria, sin ventana.
+ * Sirve en servidores y para comparar cuadros en las pruebas.
+ */
+public class ImageBackend extends RasterBackend {
+    private BufferedImage image;
+
+    /**
+     * Constructor para crear la imagen.
+     *
+     * @param width  El ancho de la imagen.
+     * @param height La altura de la imagen.
+     */
+    public ImageBackend(int width, int height) {
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        setImage(image, width, height);
+    }
+
+    /**
+     * No hace nada: la imagen no se puede ver.
+     *
+     * @param visible Se ignora.
+     */
+    @Override
+    public void setVisible(boolean visible) {
+    }
+
+    /**
+     * No hace nada: la imagen ya tiene el cuadro.
+     */
+    @Override
+    public void show() {
+    }
+
+    /**
+     * Obtiene la imagen con el último cuadro pintado.
+     *
+     * @return La imagen.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+}
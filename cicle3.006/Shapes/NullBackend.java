@@ -0,0 +1,135 @@
+package Shapes;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.Shape;
+
+/**
+ * Destino del lienzo que no pinta nada y solo cuenta cuadros y formas.
+ * Las pruebas y los servidores lo usan para no tocar AWT.
+ */
+public class NullBackend implements CanvasBackend {
+    private long frames; // Cuadros mostrados
+    private long painted; // Formas pintadas en todos los cuadros y capas fijas
+    private long backgrounds; // Veces que se pintó la capa fija
+
+    /**
+     * No hace nada.
+     *
+     * @param visible Se ignora.
+     */
+    @Override
+    public void setVisible(boolean visible) {
+    }
+
+    /**
+     * Cuenta una capa fija.
+     *
+     * @param background Se ignora.
+     */
+    @Override
+    public void beginBackground(Color background) {
+        backgrounds++;
+    }
+
+    /**
+     * No hace nada.
+     */
+    @Override
+    public void endBackground() {
+    }
+
+    /**
+     * No hace nada.
+     */
+    @Override
+    public void restoreBackground() {
+    }
+
+    /**
+     * Cuenta una forma.
+     *
+     * @param shape Se ignora.
+     * @param color Se ignora.
+     */
+    @Override
+    public void paint(Shape shape, Color color) {
+        painted++;
+    }
+
+    /**
+     * Cuenta un círculo.
+     *
+     * @param x        Se ignora.
+     * @param y        Se ignora.
+     * @param diameter Se ignora.
+     * @param color    Se ignora.
+     */
+    @Override
+    public void paintCircle(int x, int y, int diameter, Color color) {
+        painted++;
+    }
+
+    /**
+     * Cuenta un rectángulo.
+     *
+     * @param x      Se ignora.
+     * @param y      Se ignora.
+     * @param width  Se ignora.
+     * @param height Se ignora.
+     * @param color  Se ignora.
+     */
+    @Override
+    public void paintRectangle(int x, int y, int width, int height, Color color) {
+        painted++;
+    }
+
+    /**
+     * Cuenta una imagen.
+     *
+     * @param image  Se ignora.
+     * @param x      Se ignora.
+     * @param y      Se ignora.
+     * @param width  Se ignora.
+     * @param height Se ignora.
+     */
+    @Override
+    public void paintImage(Image image, int x, int y, int width, int height) {
+        painted++;
+    }
+
+    /**
+     * Cuenta un cuadro.
+     */
+    @Override
+    public void show() {
+        frames++;
+    }
+
+    /**
+     * Obtiene la cantidad de cuadros mostrados.
+     *
+     * @return Los cuadros.
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Obtiene la cantidad de veces que se pintó la capa fija.
+     *
+     * @return Las capas fijas.
+     */
+    public long getBackgrounds() {
+        return backgrounds;
+    }
+
+    /**
+     * Obtiene la cantidad de formas pintadas en todos los cuadros.
+     *
+     * @return Las formas.
+     */
+    public long getPainted() {
+        return painted;
+    }
+}
@@ -0,0 +1,162 @@
+package Shapes;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Base de los destinos que pintan en una imagen. Guarda la capa fija en una
+ * imagen aparte del mismo tamaño, que se copia entera al empezar cada cuadro,
+ * y pinta los círculos copiando imágenes de una {@link SpriteCache}, salvo
+ * los muy grandes, que se pintan directamente.
+ */
+public abstract class RasterBackend implements CanvasBackend {
+    private Graphics2D graphic; // Pinta en la imagen del cuadro
+    private int width;
+    private int height;
+    private BufferedImage background; // Capa fija ya pintada
+    private Graphics2D target; // Donde se pinta ahora: el cuadro o la capa fija
+    private SpriteCache sprites = new SpriteCache(); // Círculos ya pintados
+
+    /**
+     * Asigna la imagen donde se componen los cuadros y la llena de blanco.
+     *
+     * @param image  La imagen.
+     * @param width  El ancho de la imagen.
+     * @param height La altura de la imagen.
+     */
+    protected void setImage(Image image, int width, int height) {
+        this.graphic = (Graphics2D) image.getGraphics();
+        this.width = width;
+        this.height = height;
+        this.target = graphic;
+        graphic.setColor(Color.white);
+        graphic.fillRect(0, 0, width, height);
+    }
+
+    /**
+     * Indica si ya hay una imagen donde pintar.
+     *
+     * @return true si la imagen existe.
+     */
+    protected boolean hasImage() {
+        return graphic != null;
+    }
+
+    /**
+     * Empieza a pintar la capa fija llenándola con el color de fondo.
+     *
+     * @param color El color de fondo.
+     */
+    @Override
+    public void beginBackground(Color color) {
+        if (!hasImage()) return;
+
+        if (background == null) {
+            background = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        target = background.createGraphics();
+        target.setColor(color);
+        target.fillRect(0, 0, width, height);
+    }
+
+    /**
+     * Termina la capa fija; lo que se pinte después va al cuadro.
+     */
+    @Override
+    public void endBackground() {
+        if (target != graphic) {
+            target.dispose();
+            target = graphic;
+        }
+    }
+
+    /**
+     * Empieza un cuadro copiando la capa fija.
+     */
+    @Override
+    public void restoreBackground() {
+        if (hasImage() && background != null) {
+            graphic.drawImage(background, 0, 0, null);
+        }
+    }
+
+    /**
+     * Pinta una forma con su borde.
+     *
+     * @param shape La forma.
+     * @param color El color de la forma.
+     */
+    @Override
+    public void paint(Shape shape, Color color) {
+        if (!hasImage()) return;
+
+        target.setColor(color);
+        target.draw(shape);
+        target.fill(shape);
+    }
+
+    /**
+     * Pinta un círculo copiando su imagen de la caché, o directamente si es
+     * más grande que {@link SpriteCache#MAX_DIAMETER}.
+     *
+     * @param x        La posición en X de la esquina superior izquierda.
+     * @param y        La posición en Y de la esquina superior izquierda.
+     * @param diameter El diámetro.
+     * @param color    El color.
+     */
+    @Override
+    public void paintCircle(int x, int y, int diameter, Color color) {
+        if (!hasImage()) return;
+
+        if (diameter > SpriteCache.MAX_DIAMETER) {
+            Object hint = target.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+            target.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            paint(new java.awt.geom.Ellipse2D.Double(x, y, diameter, diameter), color);
+            target.setRenderingHint(RenderingHints.KEY_ANTIALIASING, hint);
+            return;
+        }
+        target.drawImage(sprites.get(color, diameter), x, y, null);
+    }
+
+    /**
+     * Pinta un rectángulo con su borde, que ocupa un píxel más a la derecha y abajo.
+     *
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho.
+     * @param height La altura.
+     * @param color  El color.
+     */
+    @Override
+    public void paintRectangle(int x, int y, int width, int height, Color color) {
+        if (!hasImage()) return;
+
+        target.setColor(color);
+        target.fillRect(x, y, width + 1, height + 1);
+    }
+
+    /**
+     * Pinta una imagen estirada al rectángulo dado, sin suavizar sus píxeles.
+     *
+     * @param image  La imagen.
+     * @param x      La posición en X de la esquina superior izquierda.
+     * @param y      La posición en Y de la esquina superior izquierda.
+     * @param width  El ancho en pantalla.
+     * @param height La altura en pantalla.
+     */
+    @Override
+    public void paintImage(Image image, int x, int y, int width, int height) {
+        if (!hasImage()) return;
+
+        target.drawImage(image, x, y, width, height, null);
+    }
+
+    /**
+     * Obtiene la caché de círculos ya pintados.
+     *
+     * @return La caché.
+     */
+    public SpriteCache getSprites() {
+        return sprites;
+    }
+}
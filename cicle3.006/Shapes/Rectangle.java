@@ -33,7 +33,7 @@ public class Rectangle extends Figure {
         if (isVisible) {
             Canvas canvas = Canvas.getCanvas(); // Obtiene la instancia del lienzo.
             // Dibuja el rectángulo en la posición (xPosition, yPosition) con el ancho y alto especificados.
-            canvas.draw(this, color, new java.awt.Rectangle(xPosition, yPosition, width, height));
+            canvas.drawRectangle(this, color, xPosition, yPosition, width, height, isStatic);
         }
     }
 
@@ -0,0 +1,79 @@
+package Shapes;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Imágenes ya pintadas de círculos, una por color y diámetro.
+ *
+ * <p>Pintar un círculo con bordes suavizados es caro; copiar una imagen
+ * pequeña no. Cada aspecto se pinta la primera vez que se pide y después se
+ * reutiliza. Buscar una imagen que ya existe no crea objetos.</p>
+ */
+public class SpriteCache {
+    public static final int MAX_DIAMETER = 256; // Diámetro máximo que se guarda; los mayores se pintan directamente
+
+    private HashMap<Color, BufferedImage[]> sprites; // Imágenes de cada color, por diámetro
+    private int size; // Cantidad de imágenes pintadas
+
+    /**
+     * Constructor para crear la caché vacía.
+     */
+    public SpriteCache() {
+        sprites = new HashMap<>();
+    }
+
+    /**
+     * Obtiene la imagen de un círculo, pintándola si es la primera vez. La
+     * imagen mide un píxel más que el diámetro, por el borde. Los círculos
+     * más grandes que {@link #MAX_DIAMETER} no se guardan: con mucho
+     * acercamiento cada imagen ocuparía megabytes y casi no se repetiría.
+     *
+     * @param color    El color del círculo.
+     * @param diameter El diámetro del círculo, entre 0 y {@link #MAX_DIAMETER}.
+     * @return La imagen, transparente fuera del círculo.
+     */
+    public BufferedImage get(Color color, int diameter) {
+        if (diameter < 0 || diameter > MAX_DIAMETER) {
+            throw new IllegalArgumentException("El diámetro debe estar entre 0 y " + MAX_DIAMETER);
+        }
+        BufferedImage[] sizes = sprites.get(color);
+        if (sizes == null || sizes.length <= diameter) {
+            sizes = sizes == null ? new BufferedImage[diameter + 1] : Arrays.copyOf(sizes, diameter + 1);
+            sprites.put(color, sizes);
+        }
+        BufferedImage sprite = sizes[diameter];
+        if (sprite == null) {
+            sprite = render(color, diameter);
+            sizes[diameter] = sprite;
+            size++;
+        }
+        return sprite;
+    }
+
+    /**
+     * Obtiene la cantidad de imágenes pintadas.
+     *
+     * @return Las imágenes en la caché.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Pinta un círculo con su borde sobre una imagen transparente.
+     */
+    private static BufferedImage render(Color color, int diameter) {
+        BufferedImage sprite = new BufferedImage(diameter + 1, diameter + 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphic = sprite.createGraphics();
+        graphic.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphic.setColor(color);
+        java.awt.geom.Ellipse2D.Double circle = new java.awt.geom.Ellipse2D.Double(0, 0, diameter, diameter);
+        graphic.draw(circle);
+        graphic.fill(circle);
+        graphic.dispose();
+        return sprite;
+    }
+}
@@ -0,0 +1,67 @@
+package Shapes;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Destino del lienzo que muestra los cuadros en una ventana de Swing.
+ * Necesita pantalla.
+ */
+public class SwingBackend extends RasterBackend {
+    private JFrame frame;
+    private CanvasPane canvas;
+    private Image canvasImage;
+
+    /**
+     * Constructor para crear la ventana, todavía oculta.
+     *
+     * @param title  El título de la ventana.
+     * @param width  El ancho del área de dibujo.
+     * @param height La altura del área de dibujo.
+     */
+    public SwingBackend(String title, int width, int height) {
+        frame = new JFrame();
+        canvas = new CanvasPane();
+        frame.setContentPane(canvas);
+        frame.setTitle(title);
+        canvas.setPreferredSize(new Dimension(width, height));
+        frame.pack();
+    }
+
+    /**
+     * Muestra u oculta la ventana. La primera vez crea la imagen donde se pinta.
+     *
+     * @param visible true para mostrar la ventana.
+     */
+    @Override
+    public void setVisible(boolean visible) {
+        if (!hasImage()) {
+            Dimension size = canvas.getSize();
+            canvasImage = canvas.createImage(size.width, size.height);
+            setImage(canvasImage, size.width, size.height);
+        }
+        frame.setVisible(visible);
+    }
+
+    /**
+     * Pide a Swing que vuelva a pintar la ventana con la imagen.
+     */
+    @Override
+    public void show() {
+        canvas.repaint();
+    }
+
+    /**
+     * Clase interna que representa el panel donde se dibuja el lienzo.
+     */
+    private class CanvasPane extends JPanel {
+        /**
+         * Dibuja la imagen del lienzo en el panel.
+         *
+         * @param g El contexto gráfico en el que se dibuja.
+         */
+        public void paint(Graphics g) {
+            g.drawImage(canvasImage, 0, 0, null);
+        }
+    }
+}
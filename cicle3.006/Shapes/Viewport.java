@@ -0,0 +1,210 @@
+package Shapes;
+
+/**
+ * Cámara del lienzo: qué parte del mundo se ve y con cuánto acercamiento.
+ *
+ * <p>Las figuras se dibujan en coordenadas del mundo; la cámara las pasa a
+ * píxeles de la ventana. Lo que queda fuera de la ventana se descarta antes
+ * de pintarlo, así que el costo de un cuadro depende de lo que se ve y no del
+ * tamaño del mundo. Solo el lienzo cambia la cámara, con
+ * {@link Canvas#pan(int, int)}, {@link Canvas#zoom(double, int, int)} y
+ * {@link Canvas#fit(int, int)}.</p>
+ */
+public class Viewport {
+    public static final double MAX_ZOOM = 64; // Acercamiento máximo, en píxeles por unidad del mundo
+
+    private int screenWidth; // Ancho de la ventana en píxeles
+    private int screenHeight;
+    private double x; // Punto del mundo en la esquina superior izquierda
+    private double y;
+    private double zoom; // Píxeles por unidad del mundo
+
+    /**
+     * Constructor para crear una cámara sin desplazamiento ni acercamiento.
+     *
+     * @param screenWidth  El ancho de la ventana en píxeles.
+     * @param screenHeight La altura de la ventana en píxeles.
+     */
+    public Viewport(int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        reset();
+    }
+
+    /**
+     * Vuelve a mostrar el mundo desde el origen, un píxel por unidad.
+     */
+    void reset() {
+        x = 0;
+        y = 0;
+        zoom = 1;
+    }
+
+    /**
+     * Desplaza la cámara.
+     *
+     * @param dx Los píxeles que se mueve la vista hacia la derecha.
+     * @param dy Los píxeles que se mueve la vista hacia abajo.
+     */
+    void pan(int dx, int dy) {
+        x += dx / zoom;
+        y += dy / zoom;
+    }
+
+    /**
+     * Acerca o aleja la cámara dejando quieto el punto bajo un píxel. El
+     * acercamiento no pasa de {@link #MAX_ZOOM}.
+     *
+     * @param factor  Mayor que 1 acerca; menor que 1 aleja.
+     * @param screenX La posición en X del píxel que no se mueve.
+     * @param screenY La posición en Y del píxel que no se mueve.
+     */
+    void zoom(double factor, int screenX, int screenY) {
+        if (factor <= 0) {
+            throw new IllegalArgumentException("El factor de acercamiento debe ser positivo");
+        }
+        double worldX = x + screenX / zoom;
+        double worldY = y + screenY / zoom;
+        zoom = Math.min(zoom * factor, MAX_ZOOM);
+        x = worldX - screenX / zoom;
+        y = worldY - screenY / zoom;
+    }
+
+    /**
+     * Ajusta la cámara para que se vea completo un mundo que empieza en el
+     * origen, sin acercar más de {@link #MAX_ZOOM}.
+     *
+     * @param worldWidth  El ancho del mundo.
+     * @param worldHeight La altura del mundo.
+     */
+    void fit(int worldWidth, int worldHeight) {
+        x = 0;
+        y = 0;
+        zoom = Math.min(MAX_ZOOM, Math.min((double) screenWidth / Math.max(1, worldWidth),
+                                           (double) screenHeight / Math.max(1, worldHeight)));
+    }
+
+    /**
+     * Indica si la cámara muestra el mundo sin desplazar ni escalar.
+     *
+     * @return true si un punto del mundo es el mismo píxel de la ventana.
+     */
+    public boolean isIdentity() {
+        return x == 0 && y == 0 && zoom == 1;
+    }
+
+    /**
+     * Indica si un rectángulo del mundo se ve, aunque sea en parte.
+     *
+     * @param worldX La posición en X del rectángulo.
+     * @param worldY La posición en Y del rectángulo.
+     * @param width  El ancho.
+     * @param height La altura.
+     * @return true si toca la ventana.
+     */
+    public boolean intersects(int worldX, int worldY, int width, int height) {
+        return worldX + width >= x && worldY + height >= y
+            && worldX <= x + screenWidth / zoom && worldY <= y + screenHeight / zoom;
+    }
+
+    /**
+     * Indica si un rectángulo del mundo se ve completo.
+     *
+     * @param worldX La posición en X del rectángulo.
+     * @param worldY La posición en Y del rectángulo.
+     * @param width  El ancho.
+     * @param height La altura.
+     * @return true si no queda nada del rectángulo fuera de la ventana.
+     */
+    public boolean contains(int worldX, int worldY, int width, int height) {
+        return worldX >= x && worldY >= y
+            && worldX + width <= x + screenWidth / zoom && worldY + height <= y + screenHeight / zoom;
+    }
+
+    /**
+     * Obtiene el ancho del mundo que se ve.
+     *
+     * @return El ancho de la ventana en unidades del mundo.
+     */
+    public double getVisibleWidth() {
+        return screenWidth / zoom;
+    }
+
+    /**
+     * Obtiene la altura del mundo que se ve.
+     *
+     * @return La altura de la ventana en unidades del mundo.
+     */
+    public double getVisibleHeight() {
+        return screenHeight / zoom;
+    }
+
+    /**
+     * Pasa una posición en X del mundo a la ventana.
+     *
+     * @param worldX La posición en el mundo.
+     * @return El píxel.
+     */
+    public int toScreenX(int worldX) {
+        return (int) Math.floor((worldX - x) * zoom);
+    }
+
+    /**
+     * Pasa una posición en Y del mundo a la ventana.
+     *
+     * @param worldY La posición en el mundo.
+     * @return El píxel.
+     */
+    public int toScreenY(int worldY) {
+        return (int) Math.floor((worldY - y) * zoom);
+    }
+
+    /**
+     * Pasa una medida del mundo a píxeles, sin bajar de uno.
+     *
+     * @param length La medida en el mundo.
+     * @return Los píxeles.
+     */
+    public int scale(int length) {
+        return Math.max(1, (int) Math.round(length * zoom));
+    }
+
+    /**
+     * Pasa una forma cualquiera del mundo a la ventana.
+     *
+     * @param shape La forma en el mundo.
+     * @return La forma en píxeles.
+     */
+    public java.awt.Shape transform(java.awt.Shape shape) {
+        java.awt.geom.AffineTransform transform = java.awt.geom.AffineTransform.getScaleInstance(zoom, zoom);
+        transform.translate(-x, -y);
+        return transform.createTransformedShape(shape);
+    }
+
+    /**
+     * Obtiene el acercamiento.
+     *
+     * @return Los píxeles por unidad del mundo.
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Obtiene el punto del mundo en la esquina superior izquierda, en X.
+     *
+     * @return La posición en X.
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Obtiene el punto del mundo en la esquina superior izquierda, en Y.
+     *
+     * @return La posición en Y.
+     */
+    public double getY() {
+        return y;
+    }
+}
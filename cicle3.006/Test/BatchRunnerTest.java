@@ -0,0 +1,176 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para la simulación de escenarios por lotes.
+ * Ningún escenario usa el lienzo.
+ */
+public class BatchRunnerTest {
+    private BatchRunner runner;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        runner = new BatchRunner(4, 8);
+    }
+
+    /**
+     * Libera los hilos después de cada prueba.
+     */
+    @AfterEach
+    public void tearDown() {
+        runner.shutdown();
+    }
+
+    /**
+     * Prueba que el lote dé lo mismo que simular cada escenario por separado.
+     */
+    @Test
+    public void shouldMatchSingleContainers() {
+        List<Scenario> scenarios = randomScenarios(200, 7);
+        List<ScenarioResult> results = runner.runAll(scenarios);
+
+        assertEquals(scenarios.size(), results.size());
+        for (int k = 0; k < scenarios.size(); k++) {
+            MaxwellContainer container = scenarios.get(k).create();
+            container.run(scenarios.get(k).getTicks());
+
+            ScenarioResult result = results.get(k);
+            assertTrue(result.ok());
+            assertEquals(k, result.getIndex());
+            assertArrayEquals(container.particles(""), result.getParticles(), "Escenario " + k);
+            assertArrayEquals(container.holes(""), result.getHoles(), "Escenario " + k);
+            assertEquals(container.transfers(), result.getTransfers(), "Escenario " + k);
+        }
+    }
+
+    /**
+     * Prueba que se informe el primer tick en que se cumple el objetivo.
+     */
+    @Test
+    public void shouldReportGoalTick() {
+        // Partícula roja a la derecha yendo hacia el demonio: cruza a la izquierda
+        int[][] particles = {{50, 200, -5, 0}};
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario(400, 400, 200, 1, 0, particles, 50));
+        scenarios.add(new Scenario(400, 400, 200, 0, 0, new int[0][], 10));
+
+        List<ScenarioResult> results = runner.runAll(scenarios);
+
+        MaxwellContainer container = scenarios.get(0).create();
+        int expected = 0;
+        while (!container.isGoal()) {
+            container.run(1);
+            expected++;
+        }
+        assertEquals(expected, results.get(0).getGoalTick());
+        assertEquals(1, results.get(0).getTransfers());
+        assertEquals(0, results.get(1).getGoalTick(), "Sin partículas el objetivo se cumple desde el inicio");
+    }
+
+    /**
+     * Prueba que un escenario inválido no detenga el lote.
+     */
+    @Test
+    public void shouldReportInvalidScenario() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario(400, 400, 200, 0, 1, new int[][]{{50, 100, 3, 2}}, 0));
+        scenarios.add(new Scenario(400, 400, 200, 0, 1, new int[][]{{50, 100}}, 10));
+        scenarios.add(new Scenario(400, 400, 200, 0, 1, new int[][]{{50, 100, 3, 2}}, 10));
+
+        List<ScenarioResult> results = runner.runAll(scenarios);
+
+        assertFalse(results.get(0).ok(), "No debería simular 0 ticks");
+        assertFalse(results.get(1).ok(), "No debería aceptar una partícula incompleta");
+        assertTrue(results.get(2).ok());
+        assertNotNull(results.get(0).getError());
+        assertTrue(results.get(1).getError().getMessage().contains("fila 0"));
+        assertNull(results.get(2).getError());
+    }
+
+    /**
+     * Prueba que nunca haya más escenarios en curso que los de la ventana.
+     */
+    @Test
+    public void shouldBoundScenariosInFlight() {
+        BatchRunner narrow = new BatchRunner(4, 2);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger delivered = new AtomicInteger();
+        List<Scenario> scenarios = randomScenarios(100, 11);
+        int[] maxInFlight = {0};
+
+        narrow.run(new Iterator<Scenario>() {
+            private int next = 0;
+
+            public boolean hasNext() {
+                return next < scenarios.size();
+            }
+
+            public Scenario next() {
+                maxInFlight[0] = Math.max(maxInFlight[0], created.incrementAndGet() - delivered.get());
+                return scenarios.get(next++);
+            }
+        }, result -> delivered.incrementAndGet());
+        narrow.shutdown();
+
+        assertEquals(100, delivered.get());
+        assertTrue(maxInFlight[0] <= 2, "No debería haber más de 2 escenarios en curso");
+    }
+
+    /**
+     * Prueba que un error que no viene de los datos no se confunda con un
+     * escenario inválido, sino que se relance al terminar el lote.
+     */
+    @Test
+    public void shouldRethrowSimulationDefects() {
+        List<Scenario> scenarios = randomScenarios(3, 5);
+        scenarios.add(new Scenario(400, 400, 200, 0, 0, new int[0][], 10) {
+            @Override
+            public MaxwellContainer create() {
+                throw new IllegalStateException("defecto");
+            }
+        });
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> runner.runAll(scenarios));
+        assertEquals("defecto", e.getMessage());
+    }
+
+    /**
+     * Prueba que no se pueda crear un ejecutor sin hilos.
+     */
+    @Test
+    public void shouldNotCreateRunnerWithoutThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(0, 1));
+    }
+
+    /**
+     * Crea escenarios al azar con una semilla fija.
+     */
+    private static List<Scenario> randomScenarios(int count, long seed) {
+        Random random = new Random(seed);
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int k = 0; k < count; k++) {
+            int red = 1 + random.nextInt(10);
+            int blue = 1 + random.nextInt(10);
+            int[][] particles = new int[red + blue][];
+            for (int i = 0; i < particles.length; i++) {
+                // Las rojas empiezan a la derecha y las azules a la izquierda
+                int px = i < red ? random.nextInt(190) : -1 - random.nextInt(190);
+                particles[i] = new int[]{px, random.nextInt(200), random.nextInt(11) - 5, random.nextInt(11) - 5};
+            }
+            scenarios.add(new Scenario(200, 200, 1 + random.nextInt(198), red, blue, particles, 100 + random.nextInt(200)));
+        }
+        return scenarios;
+    }
+}
@@ -0,0 +1,100 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para la carga masiva de partículas, agujeros y demonios.
+ * Ninguna prueba usa el lienzo.
+ */
+public class BulkLoadTest {
+    private MaxwellContainer container;
+    private final int WIDTH = 400;
+    private final int HEIGHT = 400;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        container = new MaxwellContainer(HEIGHT, WIDTH);
+    }
+
+    /**
+     * Prueba que se carguen las filas válidas y se informen las demás con su motivo.
+     */
+    @Test
+    public void shouldReportRejectedParticles() {
+        LoadReport report = container.loadParticles(new int[][]{
+            {50, 100, 3, 2, 1},
+            {-50, 100, 3, 2, 0},
+            {50, 100, 3, 2},
+            {500, 100, 3, 2, 1},
+            {-50, 100, 3, 2, 1},
+        });
+
+        assertFalse(container.ok());
+        assertEquals(2, report.getAccepted());
+        assertEquals(3, report.getRejected());
+        assertEquals(2, report.getRejectedRow(0));
+        assertEquals(LoadReport.MALFORMED, report.getReason(0));
+        assertEquals(LoadReport.OUT_OF_BOUNDS, report.getReason(1));
+        assertEquals(LoadReport.WRONG_SIDE, report.getReason(2));
+        assertEquals(2, container.particles().length);
+    }
+
+    /**
+     * Prueba que las partículas cargadas en bloque se simulen como las agregadas una por una.
+     */
+    @Test
+    public void shouldSimulateLikeSingleAdds() {
+        MaxwellContainer single = new MaxwellContainer(HEIGHT, WIDTH);
+        single.addParticle("red", true, 50, 200, -5, 0);
+        single.addParticle("blue", false, -100, 300, 4, 0);
+        single.addDemon(200);
+        single.addHole(-60, 300, 1);
+
+        container.loadParticles(new int[][]{{50, 200, -5, 0, 1}, {-100, 300, 4, 0, 0}});
+        container.loadDemons(new int[]{200});
+        container.loadHoles(new int[][]{{-60, 300, 1}});
+        assertTrue(container.ok());
+
+        single.run(100);
+        container.run(100);
+        assertArrayEquals(single.particles(), container.particles());
+        assertArrayEquals(single.holes(), container.holes());
+    }
+
+    /**
+     * Prueba que se rechacen agujeros sin capacidad y demonios fuera del contenedor.
+     */
+    @Test
+    public void shouldReportRejectedHolesAndDemons() {
+        LoadReport holes = container.loadHoles(new int[][]{{10, 10, 0}, {10, 10, 2}, {10, 1000, 2}});
+        assertEquals(1, holes.getAccepted());
+        assertEquals(LoadReport.INVALID_CAPACITY, holes.getReason(0));
+        assertEquals(LoadReport.OUT_OF_BOUNDS, holes.getReason(1));
+
+        LoadReport demons = container.loadDemons(new int[]{0, 100, 400});
+        assertEquals(1, demons.getAccepted());
+        assertEquals(2, demons.getRejected());
+        assertArrayEquals(new int[]{100}, container.demons());
+    }
+
+    /**
+     * Prueba que cargar un millón de filas tome pocos segundos.
+     */
+    @Test
+    public void shouldLoadMillionParticlesQuickly() {
+        int[][] data = new int[1000000][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new int[]{-1 - i % 390, i % 390, 2, 3, 0};
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            LoadReport report = container.loadParticles(data);
+            assertEquals(data.length, report.getAccepted());
+        });
+    }
+}
@@ -0,0 +1,109 @@
+package Test;
+import MaxWellContainer.*;
+import Shapes.*;
+import org.junit.jupiter.api.Test;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.geom.Ellipse2D;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Clase de pruebas para los destinos del lienzo. Maven corre las pruebas
+ * con -Dshapes.backend=none, así que ninguna abre una ventana.
+ */
+public class CanvasBackendTest {
+
+    /**
+     * Prueba que el lienzo use el destino de la propiedad del sistema y que
+     * un tick visible componga un solo cuadro.
+     */
+    @Test
+    public void shouldComposeOneFramePerTick() {
+        CanvasBackend backend = Canvas.getCanvas().getBackend();
+        assumeTrue(backend instanceof NullBackend, "El lienzo no usa el destino vacío");
+        NullBackend counter = (NullBackend) backend;
+
+        MaxwellContainer container = new MaxwellContainer(100, 100);
+        for (int i = 0; i < 50; i++) {
+            container.addParticle("normal", "p" + i, i % 2 == 0, i % 2 == 0 ? 10 + i : -10 - i, 20 + i, 1, 1);
+        }
+        container.makeVisible();
+        long frames = counter.getFrames();
+
+        Canvas.getCanvas().beginFrame();
+        for (int i = 0; i < 50; i++) {
+            container.delParticle("p" + i);
+        }
+        Canvas.getCanvas().endFrame();
+
+        assertEquals(frames + 1, counter.getFrames(), "Los cambios dentro de un marco deberían dar un solo cuadro");
+        container.finish();
+    }
+
+    /**
+     * Prueba que el destino en memoria copie la capa fija y pinte encima las
+     * demás formas.
+     */
+    @Test
+    public void shouldPaintIntoImage() {
+        ImageBackend backend = new ImageBackend(40, 30);
+        backend.beginBackground(Color.WHITE);
+        backend.paint(new Rectangle(0, 0, 20, 30), Color.BLUE);
+        backend.endBackground();
+        backend.restoreBackground();
+        backend.paint(new Ellipse2D.Double(10, 10, 10, 10), Color.RED);
+        backend.show();
+
+        assertEquals(Color.RED.getRGB(), backend.getImage().getRGB(15, 15));
+        assertEquals(Color.BLUE.getRGB(), backend.getImage().getRGB(2, 2));
+        assertEquals(Color.WHITE.getRGB(), backend.getImage().getRGB(30, 2));
+
+        backend.restoreBackground();
+        assertEquals(Color.BLUE.getRGB(), backend.getImage().getRGB(15, 15), "Cada cuadro empieza con la capa fija");
+    }
+
+    /**
+     * Prueba que los agujeros y los contenedores se pinten una sola vez en la
+     * capa fija mientras las partículas se mueven.
+     */
+    @Test
+    public void shouldPaintStaticLayerOnce() {
+        CanvasBackend backend = Canvas.getCanvas().getBackend();
+        assumeTrue(backend instanceof NullBackend, "El lienzo no usa el destino vacío");
+        NullBackend counter = (NullBackend) backend;
+
+        MaxwellContainer container = new MaxwellContainer(200, 200);
+        container.setTickRate(1000);
+        for (int i = 0; i < 100; i++) {
+            container.addHole("normal", -190 + 3 * i, 10 + i, 1);
+        }
+        container.addParticle("normal", "red", true, 50, 150, 1, 1);
+        container.addParticle("normal", "blue", false, -50, 150, -1, 1);
+        container.makeVisible();
+        long backgrounds = counter.getBackgrounds();
+        long painted = counter.getPainted();
+
+        container.start(20);
+
+        assertEquals(backgrounds, counter.getBackgrounds(), "La capa fija no debería volver a pintarse");
+        long frames = 20 + 1;
+        assertTrue(counter.getPainted() - painted <= 2 * frames, "Cada cuadro solo debería pintar las partículas");
+        container.finish();
+    }
+
+    /**
+     * Prueba que el destino vacío solo cuente lo que se pinta.
+     */
+    @Test
+    public void shouldCountWithoutPainting() {
+        NullBackend backend = new NullBackend();
+        backend.restoreBackground();
+        backend.paint(new Ellipse2D.Double(0, 0, 5, 5), Color.RED);
+        backend.paint(new Ellipse2D.Double(5, 5, 5, 5), Color.BLUE);
+        backend.show();
+
+        assertEquals(1, backend.getFrames());
+        assertEquals(2, backend.getPainted());
+    }
+}
@@ -0,0 +1,135 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el índice de demonios ordenado por posición.
+ * Ninguna prueba usa el lienzo.
+ */
+public class DemonIndexTest {
+    private MaxwellContainer container;
+    private final int WIDTH = 400;
+    private final int HEIGHT = 400;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        container = new MaxwellContainer(HEIGHT, WIDTH);
+    }
+
+    /**
+     * Prueba que las posiciones salgan ordenadas y que se elimine el primer
+     * demonio agregado en una posición repetida.
+     */
+    @Test
+    public void shouldDeleteFirstDemonAtPosition() {
+        container.addDemon("weak", 200);
+        container.addDemon("blue", 50);
+        container.addDemon("normal", 200);
+        assertArrayEquals(new int[]{50, 200, 200}, container.demons());
+
+        container.delDemon(200);
+        assertTrue(container.ok());
+        assertArrayEquals(new int[]{50, 200}, container.demons());
+        assertEquals(0, container.demons("weak").length);
+        assertArrayEquals(new int[]{200}, container.demons("normal"));
+
+        container.delDemon(120);
+        assertFalse(container.ok());
+    }
+
+    /**
+     * Prueba la búsqueda del demonio más cercano, con empate hacia la menor posición.
+     */
+    @Test
+    public void shouldFindNearestDemon() {
+        assertEquals(-1, container.nearestDemon(100));
+        assertFalse(container.ok());
+
+        container.loadDemons(new int[]{300, 100, 200});
+        assertEquals(100, container.nearestDemon(20));
+        assertEquals(200, container.nearestDemon(240));
+        assertEquals(100, container.nearestDemon(150));
+        assertEquals(300, container.nearestDemon(399));
+        assertTrue(container.ok());
+    }
+
+    /**
+     * Prueba que el índice siga a un demonio que se mueve y que la colisión lo encuentre.
+     */
+    @Test
+    public void shouldFollowMovingDemon() {
+        List<Demon> demons = new ArrayList<>();
+        demons.add(new Demon(WIDTH - 5, 100, "black", 10, 10, container) {
+            {
+                speedY = 20;
+            }
+        });
+        DemonIndex index = new DemonIndex();
+        index.rebuild(demons, 2);
+        assertTrue(index.hasMoving());
+
+        demons.get(0).step(HEIGHT);
+        index.moved(demons.get(0));
+        assertNull(index.first(100));
+        assertSame(demons.get(0), index.first(120));
+        assertTrue(index.hasNear(130));
+        assertFalse(index.hasNear(100));
+        assertEquals(1, index.near(110, 130));
+    }
+
+    /**
+     * Prueba que eliminar miles de demonios uno por uno tome poco tiempo.
+     */
+    @Test
+    public void shouldDeleteManyDemonsQuickly() {
+        int[] data = new int[20000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1 + i % (HEIGHT - 1);
+        }
+        container.loadDemons(data);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < data.length; i++) {
+                container.delDemon(data[i]);
+                container.demons();
+            }
+            assertEquals(0, container.demons().length);
+        });
+    }
+
+    /**
+     * Prueba que eliminar cientos de miles de demonios no recorra la lista
+     * en cada eliminación y que los grupos por tipo queden al día.
+     */
+    @Test
+    public void shouldDeleteDemonsWithoutScanningTheList() {
+        int[] data = new int[200000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 1 + i % (HEIGHT - 1);
+        }
+        container.loadDemons(data);
+        container.addDemon("weak", 7);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < data.length; i++) {
+                container.delDemon(data[i]);
+            }
+        });
+
+        assertArrayEquals(new int[]{7}, container.demons());
+        assertArrayEquals(new int[]{7}, container.demons("weak"));
+        assertEquals(0, container.demons("normal").length);
+        container.run(1);
+        container.delDemon(7);
+        container.setEngine("event");
+        container.run(1);
+        assertEquals(0, container.demons().length);
+        assertEquals(0, container.demons("weak").length);
+    }
+}
@@ -0,0 +1,140 @@
+package Test;
+import MaxWellContainer.*;
+import Shapes.*;
+import org.junit.jupiter.api.Test;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Clase de pruebas para el dibujo de las partículas como mapa de densidad.
+ * Maven corre las pruebas con -Dshapes.backend=none, así que ninguna abre
+ * una ventana.
+ */
+public class DensityMapTest {
+
+    /**
+     * Prueba que cada celda cuente sus partículas y se pinte del color de la
+     * mayoría, con las celdas vacías transparentes.
+     */
+    @Test
+    public void shouldPaintMajorityColor() {
+        DensityMap map = new DensityMap(0, 0, 30, 10, 10);
+        map.add(1, 1, true);
+        map.add(5, 5, true);
+        map.add(9, 9, false);
+        map.add(15, 5, false);
+        map.add(-1, 5, true);
+        map.add(30, 5, true);
+
+        assertEquals(2, map.getRed(0, 0));
+        assertEquals(1, map.getBlue(0, 0));
+        assertEquals(4, map.total(), "Los puntos fuera del mapa no cuentan");
+
+        BufferedImage image = map.paint(null);
+        assertEquals(3, image.getWidth());
+        assertEquals(1, image.getHeight());
+        assertEquals(0xff0000, image.getRGB(0, 0) & 0xffffff);
+        assertEquals(0x0000ff, image.getRGB(1, 0) & 0xffffff);
+        assertEquals(0, image.getRGB(2, 0) >>> 24, "La celda vacía debería ser transparente");
+        assertTrue(image.getRGB(0, 0) >>> 24 > image.getRGB(1, 0) >>> 24, "Más partículas, más opaca");
+        assertSame(image, map.paint(image), "La imagen debería reutilizarse");
+    }
+
+    /**
+     * Prueba que contar con varios hilos dé lo mismo que con uno.
+     */
+    @Test
+    public void shouldBinInParallelLikeSequential() {
+        int width = 600;
+        int height = 400;
+        List<Particle> particles = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            int px = (i * 37) % (2 * width - 5) - width;
+            particles.add(new Particle(width + px, (i * 53) % (height - 5), "p" + i, px >= 0, 5, 1, 1, px));
+        }
+        SimulationEngine sequential = new SimulationEngine(width, height, particles, new ArrayList<>(), new ArrayList<>());
+        SimulationEngine parallel = new SimulationEngine(width, height, particles, new ArrayList<>(), new ArrayList<>());
+        parallel.setParallelism(4);
+
+        DensityMap expected = new DensityMap(0, 0, 2 * width, height, 8);
+        DensityMap actual = new DensityMap(0, 0, 2 * width, height, 8);
+        sequential.bin(expected);
+        parallel.bin(actual);
+        parallel.bin(actual);
+
+        assertEquals(50000, expected.total());
+        for (int row = 0; row < height / 8; row++) {
+            for (int column = 0; column < 2 * width / 8; column++) {
+                assertEquals(expected.getRed(column, row), actual.getRed(column, row));
+                assertEquals(expected.getBlue(column, row), actual.getBlue(column, row));
+            }
+        }
+    }
+
+    /**
+     * Prueba que en el modo de densidad las partículas se pinten como una
+     * sola imagen y que al volver a los círculos se pinte cada una.
+     */
+    @Test
+    public void shouldDrawParticlesAsOneImage() {
+        Canvas canvas = Canvas.getCanvas();
+        assumeTrue(canvas.getBackend() instanceof NullBackend, "El lienzo no usa el destino vacío");
+        NullBackend counter = (NullBackend) canvas.getBackend();
+        MaxwellContainer container = new MaxwellContainer(300, 300);
+        for (int i = 0; i < 2000; i++) {
+            int x = (i * 37) % 300 - 150;
+            container.addParticle("normal", "p" + i, x >= 0, x, 10 + (i * 53) % 280, 1, 1);
+        }
+        container.addDemon("normal", 150);
+
+        container.setRendering("density");
+        assertTrue(container.ok());
+        container.makeVisible();
+        long density = paintedPerRedraw(canvas, counter);
+        container.setRendering("circles");
+        long circles = paintedPerRedraw(canvas, counter);
+        container.finish();
+
+        assertEquals(1999, circles - density, "2000 círculos en lugar de una imagen");
+    }
+
+    /**
+     * Prueba que la exportación pinte el mapa encima de los contenedores.
+     */
+    @Test
+    public void shouldExportDensityFrame() {
+        Frame frame = new Frame(4);
+        frame.clear(0);
+        frame.add(new Rectangle(0, 0, "pink", 100, 200), true);
+        DensityMap map = frame.density(0, 0, 200, 100, 1);
+        map.add(152, 52, true);
+
+        BufferedImage image = FrameExporter.paint(frame);
+        assertEquals(0xff0000, image.getRGB(152, 52) & 0xffffff);
+        assertNotEquals(0xff0000, image.getRGB(20, 20) & 0xffffff, "Las demás celdas dejan ver el contenedor");
+    }
+
+    /**
+     * Prueba que no se acepte un modo de dibujo desconocido ni una celda vacía.
+     */
+    @Test
+    public void shouldNotAcceptInvalidRendering() {
+        MaxwellContainer container = new MaxwellContainer(100, 100);
+        container.setRendering("pixels");
+        assertFalse(container.ok());
+        assertThrows(IllegalArgumentException.class, () -> new DensityMap(0, 0, 10, 10, 0));
+    }
+
+    /**
+     * Cuenta las formas que pinta un redibujo.
+     */
+    private long paintedPerRedraw(Canvas canvas, NullBackend counter) {
+        canvas.redraw();
+        long before = counter.getPainted();
+        canvas.redraw();
+        return counter.getPainted() - before;
+    }
+}
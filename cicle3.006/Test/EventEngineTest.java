@@ -0,0 +1,118 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el motor de simulación por eventos.
+ * Compara cada corrida con la del motor por ticks sobre el mismo escenario.
+ */
+public class EventEngineTest {
+    private MaxwellContainer ticks;
+    private MaxwellContainer events;
+    private final int WIDTH = 400;
+    private final int HEIGHT = 400;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        ticks = new MaxwellContainer(HEIGHT, WIDTH);
+        events = new MaxwellContainer(HEIGHT, WIDTH);
+        events.setEngine("event");
+    }
+
+    /**
+     * Prueba que no se pueda elegir un motor desconocido.
+     */
+    @Test
+    public void shouldNotSetUnknownEngine() {
+        events.setEngine("quantum");
+        assertFalse(events.ok(), "No debería aceptar un motor desconocido");
+    }
+
+    /**
+     * Prueba que el motor nuevo siga la cuenta de ticks y los hilos del anterior.
+     */
+    @Test
+    public void shouldContinueFromPreviousEngine() {
+        SimulationEngine previous = new SimulationEngine(WIDTH, HEIGHT, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        previous.setParallelism(3);
+        previous.run(5);
+        EventEngine next = new EventEngine(WIDTH, HEIGHT, new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+
+        next.continueFrom(previous);
+
+        assertEquals(5, next.getTicks());
+        assertEquals(3, next.getParallelism());
+        assertEquals(1, previous.getParallelism(), "Los hilos del motor anterior deberían apagarse");
+    }
+
+    /**
+     * Prueba que rotadores y efímeras terminen igual que con el motor por ticks.
+     */
+    @Test
+    public void shouldMatchTickEngineForRotatorsAndEphemerals() {
+        for (MaxwellContainer c : new MaxwellContainer[] {ticks, events}) {
+            c.addParticle("rotator", "red", true, 50, 100, 3, -2);
+            c.addParticle("ephemeral", "blue", false, -120, 300, -4, 5);
+            c.addParticle("rotator", "green", false, -1, 0, 0, 3);
+            c.addParticle("ephemeral", "yellow", true, 0, 399, 2, 0);
+        }
+
+        ticks.run(5000);
+        events.run(5000);
+
+        assertTrue(events.ok());
+        assertArrayEquals(ticks.particles(""), events.particles(""), "Las partículas deberían terminar igual");
+    }
+
+    /**
+     * Prueba que demonios y agujeros actúen en los mismos ticks que con el motor por ticks.
+     */
+    @Test
+    public void shouldMatchTickEngineWithDemonsAndHoles() {
+        for (MaxwellContainer c : new MaxwellContainer[] {ticks, events}) {
+            for (int i = 0; i < 40; i++) {
+                int x = (i * 37) % WIDTH - WIDTH / 2;
+                c.addParticle(i % 3 == 0 ? "flying" : "normal", "p" + i, x >= 0, x, (i * 53) % HEIGHT, i % 7 - 3, i % 5 - 2);
+            }
+            c.addDemon("normal", 150);
+            c.addDemon("weak", 260);
+            c.addHole("normal", 40, 120, 5);
+            c.addHole("movil", -100, 300, 5);
+        }
+
+        ticks.run(3000);
+        events.run(3000);
+
+        assertArrayEquals(ticks.particles(""), events.particles(""), "Las partículas deberían terminar igual");
+        assertArrayEquals(ticks.holes(""), events.holes(""), "Los agujeros deberían atrapar las mismas partículas");
+    }
+
+    /**
+     * Prueba que con muchos agujeros, buscados por la rejilla a lo largo del
+     * tramo de cada partícula, se atrapen las mismas partículas que por ticks.
+     */
+    @Test
+    public void shouldMatchTickEngineWithManyHoles() {
+        for (MaxwellContainer c : new MaxwellContainer[] {ticks, events}) {
+            for (int i = 0; i < 60; i++) {
+                int x = (i * 41) % WIDTH - WIDTH / 2;
+                c.addParticle("normal", "p" + i, x >= 0, x, (i * 59) % HEIGHT, i % 9 - 4, i % 7 - 3);
+            }
+            for (int k = 0; k < 300; k++) {
+                c.addHole("normal", (k * 67) % WIDTH - WIDTH / 2, (k * 31) % HEIGHT, 1);
+            }
+        }
+
+        ticks.run(2000);
+        events.run(2000);
+
+        assertArrayEquals(ticks.particles(""), events.particles(""), "Las partículas deberían terminar igual");
+        assertArrayEquals(ticks.holes(""), events.holes(""), "Los agujeros deberían atrapar las mismas partículas");
+    }
+}
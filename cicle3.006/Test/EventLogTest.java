@@ -0,0 +1,196 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el registro de eventos de la simulación.
+ */
+public class EventLogTest {
+    private MaxwellContainer container;
+    private List<long[]> records;
+    private EventSink memory;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        container = new MaxwellContainer(400, 400);
+        records = new ArrayList<>();
+        memory = (tick, id, x, y, kind) -> records.add(new long[]{tick, id, x, y, kind});
+    }
+
+    /**
+     * Prueba que cada tick registre la posición de las partículas activas.
+     */
+    @Test
+    public void shouldRecordPositionsEveryTick() throws IOException {
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.addParticle("normal", "blue", false, -50, 100, -3, 2);
+        EventLog log = new EventLog(memory, 16);
+        container.setEventLog(log);
+        assertTrue(container.ok());
+
+        container.run(10);
+        log.close();
+
+        assertEquals(20, records.size());
+        long[] last = records.get(19);
+        int[][] particles = container.particles("");
+        assertEquals(10, last[0]);
+        assertEquals(EventLog.MOVE, last[4]);
+        assertEquals(particles[1][1], last[3], "La última posición debería ser la de la partícula roja");
+    }
+
+    /**
+     * Prueba que la transferencia y la captura queden en el mismo tick con ambos motores.
+     */
+    @Test
+    public void shouldRecordTransfersAndTrapsWithBothEngines() throws IOException {
+        List<long[]> ticks = events("tick");
+        List<long[]> events = events("event");
+
+        assertEquals(2, ticks.size());
+        assertEquals(EventLog.TRANSFER, ticks.get(0)[4]);
+        assertEquals(EventLog.TRAP, ticks.get(1)[4]);
+        for (int n = 0; n < ticks.size(); n++) {
+            assertArrayEquals(ticks.get(n), events.get(n));
+        }
+    }
+
+    /**
+     * Prueba que el motor por eventos y el salto de advance registren las
+     * mismas posiciones por tick que el motor por ticks, en el mismo orden.
+     */
+    @Test
+    public void shouldRecordSameStreamInEveryMode() throws IOException {
+        List<long[]> ticks = stream("tick");
+        List<long[]> events = stream("event");
+        List<long[]> advance = stream("advance");
+
+        assertTrue(ticks.size() > 200, "Debería haber una posición por partícula y tick");
+        assertEquals(ticks.size(), events.size());
+        assertEquals(ticks.size(), advance.size());
+        for (int n = 0; n < ticks.size(); n++) {
+            assertArrayEquals(ticks.get(n), events.get(n), "Registro " + n + " del motor por eventos");
+            assertArrayEquals(ticks.get(n), advance.get(n), "Registro " + n + " de advance");
+        }
+    }
+
+    /**
+     * Prueba que el archivo binario tenga un registro de tamaño fijo por evento.
+     */
+    @Test
+    public void shouldWriteBinaryFile() throws IOException {
+        File file = File.createTempFile("events", ".bin");
+        file.deleteOnExit();
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        EventLog log = new EventLog(new BinaryEventSink(file.getPath()), 8);
+        container.setEventLog(log);
+
+        container.run(100);
+        log.close();
+
+        assertEquals(100 * BinaryEventSink.RECORD_SIZE, file.length());
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            for (int tick = 1; tick <= 100; tick++) {
+                assertEquals(tick, in.readLong());
+                assertEquals(0, in.readInt());
+                in.readInt();
+                in.readInt();
+                assertEquals(EventLog.MOVE, in.readByte());
+            }
+        }
+    }
+
+    /**
+     * Prueba que un anillo lleno haga esperar a la simulación sin perder registros.
+     */
+    @Test
+    public void shouldNotLoseRecordsWhenFull() throws IOException {
+        EventLog log = new EventLog(memory, 4);
+        for (int i = 0; i < 10000; i++) {
+            log.record(i, i, 0, 0, EventLog.MOVE);
+        }
+        log.close();
+
+        assertEquals(10000, records.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, records.get(i)[1]);
+        }
+    }
+
+    /**
+     * Prueba que se informe el error del destino al cerrar el registro.
+     */
+    @Test
+    public void shouldReportSinkFailure() {
+        EventLog log = new EventLog((tick, id, x, y, kind) -> {
+            throw new IOException("Disco lleno");
+        }, 4);
+        for (int i = 0; i < 100; i++) {
+            log.record(i, i, 0, 0, EventLog.MOVE);
+        }
+        assertThrows(IOException.class, log::close);
+    }
+
+    /**
+     * Simula una transferencia y una captura con un motor y retorna los
+     * eventos que no son de posición.
+     */
+    private List<long[]> events(String engine) throws IOException {
+        MaxwellContainer scenario = new MaxwellContainer(400, 400);
+        scenario.setEngine(engine);
+        scenario.addParticle("normal", "red", true, 50, 200, -5, 0);
+        scenario.addParticle("normal", "blue", false, -100, 300, 4, 0);
+        scenario.addDemon("normal", 200);
+        scenario.addHole(-60, 300, 1);
+        List<long[]> found = new ArrayList<>();
+        EventLog log = new EventLog((tick, id, x, y, kind) -> {
+            if (kind != EventLog.MOVE) {
+                found.add(new long[]{tick, id, x, y, kind});
+            }
+        }, 64);
+        scenario.setEventLog(log);
+
+        scenario.run(100);
+        log.close();
+        return found;
+    }
+
+    /**
+     * Simula con una transferencia, una captura y partículas que nunca tocan
+     * nada, y retorna todos los registros. El modo es "tick", "event" o
+     * "advance".
+     */
+    private List<long[]> stream(String mode) throws IOException {
+        MaxwellContainer scenario = new MaxwellContainer(400, 400);
+        scenario.setEngine("advance".equals(mode) ? "tick" : mode);
+        scenario.addParticle("normal", "red", true, 50, 200, -5, 0);
+        scenario.addParticle("normal", "blue", false, -100, 300, 4, 0);
+        scenario.addParticle("normal", "green", true, 120, 20, 3, 7);
+        scenario.addParticle("flying", "yellow", false, -150, 350, -6, -2);
+        scenario.addDemon("normal", 200);
+        scenario.addHole(-60, 300, 1);
+        List<long[]> found = new ArrayList<>();
+        EventLog log = new EventLog((tick, id, x, y, kind) -> found.add(new long[]{tick, id, x, y, kind}), 64);
+        scenario.setEventLog(log);
+
+        if ("advance".equals(mode)) {
+            scenario.advance(150);
+        } else {
+            scenario.run(150);
+        }
+        log.close();
+        return found;
+    }
+}
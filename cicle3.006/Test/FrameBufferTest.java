@@ -0,0 +1,66 @@
+package Test;
+import Shapes.*;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para el triple búfer de cuadros que comparten la
+ * simulación y el lienzo. Ninguna prueba usa el lienzo.
+ */
+public class FrameBufferTest {
+
+    /**
+     * Prueba que el consumidor reciba solo el último cuadro publicado, una vez.
+     */
+    @Test
+    public void shouldReturnOnlyLatestFrame() {
+        FrameBuffer buffer = new FrameBuffer(4);
+        assertNull(buffer.latest(), "Sin publicar no hay cuadros");
+
+        for (long tick = 1; tick <= 3; tick++) {
+            buffer.back().clear(tick);
+            buffer.back().add(new Circle((int) tick, 20, "red", 5));
+            buffer.publish();
+        }
+
+        Frame frame = buffer.latest();
+        assertEquals(3, frame.getTick(), "Los cuadros intermedios se saltan");
+        assertEquals(1, frame.size());
+        assertEquals(3, frame.getX(0));
+        assertFalse(frame.isVisible(0));
+        assertNull(buffer.latest(), "El mismo cuadro no se entrega dos veces");
+    }
+
+    /**
+     * Prueba que con un productor y un consumidor en hilos distintos los
+     * cuadros lleguen siempre en orden y el último no se pierda.
+     */
+    @Test
+    public void shouldKeepFramesInOrderAcrossThreads() throws InterruptedException {
+        FrameBuffer buffer = new FrameBuffer(1);
+        int frames = 200000;
+        Thread producer = new Thread(() -> {
+            for (long tick = 1; tick <= frames; tick++) {
+                Frame frame = buffer.back();
+                frame.clear(tick);
+                for (int i = 0; i < 3; i++) {
+                    frame.add(new Rectangle((int) tick, i, "black", 10, 10));
+                }
+                buffer.publish();
+            }
+        });
+        producer.start();
+
+        long last = 0;
+        while (last < frames) {
+            Frame frame = buffer.latest();
+            if (frame == null) continue;
+            assertTrue(frame.getTick() > last, "Los cuadros deberían llegar en orden");
+            assertEquals(3, frame.size(), "El cuadro no debería estar a medio llenar");
+            assertEquals((int) frame.getTick(), frame.getX(2));
+            last = frame.getTick();
+        }
+        producer.join();
+        assertEquals(frames, last);
+    }
+}
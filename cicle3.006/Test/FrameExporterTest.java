@@ -0,0 +1,96 @@
+package Test;
+import MaxWellContainer.*;
+import Shapes.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para la exportación de cuadros como imágenes.
+ * Ninguna prueba abre una ventana.
+ */
+public class FrameExporterTest {
+    @TempDir
+    File directory;
+
+    /**
+     * Prueba que al simular se escriba una imagen cada tantos ticks, con los
+     * dos contenedores y las partículas activas.
+     */
+    @Test
+    public void shouldExportEveryNthTick() throws IOException {
+        MaxwellContainer container = new MaxwellContainer(100, 200);
+        container.addParticle("normal", "red", true, 50, 40, 0, 0);
+        FrameExporter exporter = new FrameExporter(directory, 10, 2);
+        container.setFrameExporter(exporter);
+
+        container.run(25);
+        container.run(15);
+        exporter.close();
+
+        assertEquals(4, exporter.getWritten());
+        for (int tick : new int[]{10, 20, 30, 40}) {
+            assertTrue(new File(directory, String.format("frame-%08d.png", tick)).isFile());
+        }
+        BufferedImage image = ImageIO.read(new File(directory, "frame-00000040.png"));
+        assertEquals(400, image.getWidth());
+        assertEquals(100, image.getHeight());
+        assertEquals(Color.RED.getRGB(), image.getRGB(252, 42), "La partícula debería estar en su posición");
+        assertEquals(new Color(173, 216, 230).getRGB(), image.getRGB(350, 90), "El contenedor derecho es azul claro");
+    }
+
+    /**
+     * Prueba que cambiar de motor no reinicie los nombres de las imágenes.
+     */
+    @Test
+    public void shouldKeepFrameNamesAfterEngineSwitch() throws IOException {
+        MaxwellContainer container = new MaxwellContainer(100, 200);
+        container.addParticle("normal", "red", true, 50, 40, 1, 0);
+        FrameExporter exporter = new FrameExporter(directory, 5, 1);
+        container.setFrameExporter(exporter);
+
+        container.run(10);
+        container.setEngine("event");
+        container.run(10);
+        exporter.close();
+
+        assertEquals(4, exporter.getWritten(), "Ninguna imagen debería sobrescribirse");
+        assertTrue(new File(directory, "frame-00000020.png").isFile());
+    }
+
+    /**
+     * Prueba que los cuadros de start muestren la posición simulada de cada
+     * tick y que al terminar las partículas queden igual que con run.
+     */
+    @Test
+    public void shouldExportSimulatedPositionsDuringStart() throws IOException {
+        MaxwellContainer container = new MaxwellContainer(100, 200);
+        container.addParticle("normal", "red", true, 50, 40, 2, 0);
+        MaxwellContainer expected = new MaxwellContainer(100, 200);
+        expected.addParticle("normal", "red", true, 50, 40, 2, 0);
+        FrameExporter exporter = new FrameExporter(directory, 10, 1);
+        container.setFrameExporter(exporter);
+        container.setTickRate(1000);
+
+        container.start(10);
+        expected.run(10);
+        exporter.close();
+
+        BufferedImage image = ImageIO.read(new File(directory, "frame-00000010.png"));
+        assertEquals(Color.RED.getRGB(), image.getRGB(272, 42), "La partícula debería haberse movido 20 píxeles");
+        assertArrayEquals(expected.particles(), container.particles());
+    }
+
+    /**
+     * Prueba que no se pueda crear un exportador con un intervalo inválido.
+     */
+    @Test
+    public void shouldNotCreateExporterWithInvalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameExporter(directory, 0, 1));
+    }
+}
@@ -0,0 +1,145 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para los identificadores de partícula.
+ * Ninguna prueba usa el lienzo.
+ */
+public class ParticleIdentityTest {
+    private MaxwellContainer container;
+    private final int WIDTH = 400;
+    private final int HEIGHT = 400;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        container = new MaxwellContainer(HEIGHT, WIDTH);
+    }
+
+    /**
+     * Prueba que el constructor por datos conserve todas las partículas
+     * aunque haya más partículas que colores.
+     */
+    @Test
+    public void shouldKeepEveryParticleFromData() {
+        int[][] data = new int[500][];
+        for (int i = 0; i < data.length; i++) {
+            // Las 250 rojas a la derecha y las 250 azules a la izquierda
+            data[i] = i < 250 ? new int[]{i % 200, i % 300, 1, 1} : new int[]{-1 - i % 200, i % 300, -1, 1};
+        }
+        MaxwellContainer loaded = new MaxwellContainer(WIDTH, HEIGHT, 100, 250, 250, data);
+
+        assertEquals(500, loaded.particles().length);
+    }
+
+    /**
+     * Prueba que los identificadores se asignen en orden y sirvan para eliminar.
+     */
+    @Test
+    public void shouldDeleteParticleById() {
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.addParticle("normal", "blue", false, -50, 100, -3, 2);
+        assertEquals(0, container.getParticleId("red"));
+        assertEquals(1, container.getParticleId("blue"));
+
+        container.delParticle(0);
+        assertTrue(container.ok());
+        assertEquals(1, container.particles().length);
+        assertEquals(-1, container.getParticleId("red"));
+        assertFalse(container.ok());
+
+        container.delParticle(0);
+        assertFalse(container.ok(), "No debería eliminar dos veces la misma partícula");
+    }
+
+    /**
+     * Prueba que un color no se pueda repetir al agregar partículas una por una,
+     * y que vuelva a estar libre al eliminar la partícula.
+     */
+    @Test
+    public void shouldRejectDuplicateColorUntilDeleted() {
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.addParticle("flying", "red", true, 60, 100, 3, 2);
+        assertFalse(container.ok());
+
+        container.delParticle("red");
+        container.addParticle("flying", "red", true, 60, 100, 3, 2);
+        assertTrue(container.ok());
+        assertEquals(1, container.getParticleId("red"), "Los identificadores no se reutilizan");
+    }
+
+    /**
+     * Prueba que cargar muchas partículas tome tiempo lineal.
+     */
+    @Test
+    public void shouldLoadManyParticlesQuickly() {
+        int[][] data = new int[200000][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new int[]{-1 - i % 390, i % 390, 2, 3};
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            MaxwellContainer loaded = new MaxwellContainer(WIDTH, HEIGHT, 100, 0, data.length, data);
+            assertEquals(data.length, loaded.particles().length);
+        });
+    }
+
+    /**
+     * Prueba que eliminar muchas partículas tome tiempo lineal y que después
+     * la simulación siga igual que en un contenedor que nunca las tuvo.
+     */
+    @Test
+    public void shouldDeleteManyParticlesQuickly() {
+        int[][] data = new int[100000][];
+        int[][] kept = new int[data.length / 2][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new int[]{-1 - i % 390, i % 390, 2, 3};
+            if (i % 2 == 1) {
+                kept[i / 2] = data[i];
+            }
+        }
+        MaxwellContainer loaded = new MaxwellContainer(WIDTH, HEIGHT, 100, 0, data.length, data);
+        MaxwellContainer expected = new MaxwellContainer(WIDTH, HEIGHT, 100, 0, kept.length, kept);
+        loaded.run(1);
+        expected.run(1);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int id = 0; id < data.length; id += 2) {
+                loaded.delParticle(id);
+            }
+        });
+        assertEquals(kept.length, loaded.particles().length);
+        loaded.run(20);
+        expected.run(20);
+        assertArrayEquals(expected.particles(), loaded.particles());
+        assertEquals(expected.isGoal(), loaded.isGoal());
+    }
+
+    /**
+     * Prueba que al eliminar por color se salten las partículas de ese color
+     * que ya se eliminaron por identificador.
+     */
+    @Test
+    public void shouldDeleteByColorAfterDeletingById() {
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.addParticle("normal", "blue", false, -50, 100, -3, 2);
+        container.delParticle(0);
+        container.addParticle("normal", "red", true, 60, 100, 3, 2);
+
+        assertEquals(2, container.getParticleId("red"));
+        container.delParticle("red");
+        assertTrue(container.ok());
+        container.delParticle("red");
+        assertFalse(container.ok());
+        assertEquals(1, container.particles().length);
+
+        assertFalse(container.isGoal(), "La azul sigue a la izquierda");
+        container.delParticle("blue");
+        assertTrue(container.isGoal(), "Sin la azul no queda ninguna fuera de lugar");
+    }
+}
@@ -0,0 +1,146 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para las copias ordenadas que responden las consultas.
+ */
+public class QuerySnapshotTest {
+    private MaxwellContainer container;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        container = new MaxwellContainer(400, 400);
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.addParticle("flying", "blue", false, -50, 300, -3, 0);
+        container.addDemon("weak", 150);
+        container.addHole("movil", 10, 10, 2);
+    }
+
+    /**
+     * Prueba que las consultas repetidas compartan el resultado hasta que el
+     * contenedor cambie, y que después del cambio den uno nuevo.
+     */
+    @Test
+    public void shouldShareResultsUntilChange() {
+        int[][] particles = container.particles();
+        assertSame(particles, container.particles());
+        assertSame(container.particles("flying"), container.particles("flying"));
+        assertSame(container.holes(), container.holes());
+        assertSame(container.demons("weak"), container.demons("weak"));
+        assertArrayEquals(new int[][]{{-50, 300, -3, 0}}, container.particles("flying"));
+
+        container.run(1);
+        int[][] after = container.particles();
+        assertNotSame(particles, after);
+        assertArrayEquals(new int[]{50, 100, 3, 2}, particles[1], "El resultado anterior no debería cambiar");
+        assertArrayEquals(new int[]{50, 102, 3, 2}, after[1], "La mezcla debería usar las filas guardadas");
+    }
+
+    /**
+     * Prueba que la copia se actualice después de simular y de agregar entidades.
+     */
+    @Test
+    public void shouldRefreshSnapshotAfterChanges() {
+        int[][] before = container.particles();
+        container.run(1);
+        int[][] after = container.particles();
+
+        assertNotSame(before, after);
+        assertArrayEquals(new int[]{-50, 300, -3, 0}, after[0]);
+        assertArrayEquals(new int[]{50, 102, 3, 2}, after[1]);
+
+        container.addDemon("normal", 50);
+        assertArrayEquals(new int[]{50, 150}, container.demons());
+        assertArrayEquals(new int[]{50}, container.demons("normal"));
+    }
+
+    /**
+     * Prueba que las consultas por tipo sigan a los grupos al agregar y eliminar.
+     */
+    @Test
+    public void shouldKeepTypedQueriesInSync() {
+        container.addParticle("rotator", "green", true, 80, 50, 1, 1);
+        container.addDemon("blue", 30);
+        container.addDemon("weak", 60);
+        assertArrayEquals(new int[][]{{80, 50, 1, 1}}, container.particles("rotator"));
+        assertArrayEquals(new int[]{60, 150}, container.demons("weak"));
+        assertArrayEquals(new int[]{30}, container.demons("blue"));
+        assertEquals(0, container.holes("normal").length);
+        assertArrayEquals(new int[][]{{10, 10, 2}}, container.holes("movil"));
+
+        container.delParticle("green");
+        container.delDemon(150);
+        assertEquals(0, container.particles("rotator").length);
+        assertArrayEquals(new int[][]{{50, 100, 3, 2}}, container.particles("normal"));
+        assertArrayEquals(new int[]{60}, container.demons("weak"));
+        assertArrayEquals(new int[]{30, 60}, container.demons());
+    }
+
+    /**
+     * Prueba que al cambiar pocas filas se mezclen en el lugar correcto.
+     */
+    @Test
+    public void shouldMergeChangedRows() {
+        QuerySnapshot snapshot = new QuerySnapshot(2, 1);
+        String[] entities = {"a", "b", "c", "d"};
+        put(snapshot, 1, entities, new int[]{5, 1, 3, 7});
+        assertArrayEquals(new int[][]{{1, 0}, {3, 0}, {5, 0}, {7, 0}}, snapshot.rows());
+
+        put(snapshot, 2, entities, new int[]{5, 9, 3, 2});
+        assertArrayEquals(new int[][]{{2, 0}, {3, 0}, {5, 0}, {9, 0}}, snapshot.rows());
+        assertArrayEquals(new int[]{2, 3, 5, 9}, snapshot.column());
+    }
+
+    /**
+     * Prueba que las entidades nuevas se mezclen con las demás, que las que
+     * faltan salgan del orden y que las consultas por tipo filtren el mismo orden.
+     */
+    @Test
+    public void shouldMergeInsertedAndDeletedRows() {
+        QuerySnapshot snapshot = new QuerySnapshot(1, 2);
+        int[] row = new int[1];
+        snapshot.begin(1);
+        for (int k = 0; k < 6; k++) {
+            row[0] = 10 * k;
+            snapshot.put(k, (byte) (k % 2), row);
+        }
+        snapshot.end();
+        int[] before = snapshot.column();
+
+        Integer inserted = 100;
+        snapshot.begin(2);
+        for (int k = 0; k < 6; k++) {
+            if (k == 2 || k == 3) continue;
+            row[0] = 10 * k;
+            snapshot.put(k, (byte) (k % 2), row);
+        }
+        row[0] = 25;
+        snapshot.put(inserted, (byte) 0, row);
+        snapshot.end();
+
+        assertArrayEquals(new int[]{0, 10, 40, 50}, new int[]{before[0], before[1], before[4], before[5]});
+        assertArrayEquals(new int[]{0, 10, 25, 40, 50}, snapshot.column());
+        assertArrayEquals(new int[]{0, 25, 40}, snapshot.column((byte) 0));
+        assertArrayEquals(new int[][]{{10}, {50}}, snapshot.rows((byte) 1));
+        assertSame(snapshot.column((byte) 0), snapshot.column((byte) 0));
+    }
+
+    /**
+     * Entrega a una copia un valor por entidad, con la segunda columna en 0.
+     */
+    private static void put(QuerySnapshot snapshot, long version, String[] entities, int[] values) {
+        int[] row = new int[2];
+        snapshot.begin(version);
+        for (int k = 0; k < entities.length; k++) {
+            row[0] = values[k];
+            snapshot.put(entities[k], (byte) 0, row);
+        }
+        snapshot.end();
+    }
+}
@@ -0,0 +1,207 @@
+package Test;
+import MaxWellContainer.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para la simulación sin interfaz gráfica.
+ * Todas las pruebas usan run(), que no toca el lienzo, por lo que
+ * pueden ejecutarse en equipos sin pantalla.
+ */
+public class SimulationEngineTest {
+    private MaxwellContainer container;
+    private final int WIDTH = 400;
+    private final int HEIGHT = 400;
+
+    /**
+     * Configura el entorno antes de cada prueba.
+     */
+    @BeforeEach
+    public void setUp() {
+        container = new MaxwellContainer(HEIGHT, WIDTH);
+    }
+
+    /**
+     * Prueba que se pueda simular sin hacer visible el contenedor.
+     */
+    @Test
+    public void shouldRunWithoutCanvas() {
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.run(1000);
+        assertTrue(container.ok(), "Debería simular sin lienzo");
+    }
+
+    /**
+     * Prueba que no se pueda simular un número inválido de ticks.
+     */
+    @Test
+    public void shouldNotRunWithInvalidTicks() {
+        container.run(0);
+        assertFalse(container.ok(), "No debería simular 0 ticks");
+    }
+
+    /**
+     * Prueba que el demonio transfiera la partícula sin dibujar nada.
+     */
+    @Test
+    public void shouldTransferParticleWhenRunningHeadless() {
+        container.addParticle("normal", "red", true, 50, 200, -5, 0);
+        container.addDemon("normal", 200);
+        assertFalse(container.isGoal());
+
+        container.run(50);
+
+        assertTrue(container.isGoal(), "La partícula roja debería quedar a la izquierda");
+    }
+
+    /**
+     * Prueba que el agujero atrape la partícula sin dibujar nada.
+     */
+    @Test
+    public void shouldTrapParticleWhenRunningHeadless() {
+        container.addHole("normal", 80, 100, 1);
+        container.addParticle("normal", "red", true, 50, 100, 3, 0);
+
+        container.run(50);
+
+        assertEquals(0, container.holes("normal")[0][2], "El agujero debería quedar lleno");
+    }
+
+    /**
+     * Prueba que simular con varios hilos dé el mismo resultado que con uno.
+     */
+    @Test
+    public void shouldMatchSequentialWhenRunningInParallel() {
+        MaxwellContainer parallel = new MaxwellContainer(HEIGHT, WIDTH);
+        for (MaxwellContainer c : new MaxwellContainer[] {container, parallel}) {
+            for (int i = 0; i < 6000; i++) {
+                int x = (i * 37) % WIDTH - WIDTH / 2;
+                c.addParticle("normal", "p" + i, x >= 0, x, (i * 53) % HEIGHT, i % 7 - 3, i % 5 - 2);
+            }
+            c.addDemon("normal", 150);
+            c.addHole("normal", 40, 120, 100);
+        }
+
+        parallel.setParallelism(4);
+        assertTrue(parallel.ok());
+        container.run(200);
+        parallel.run(200);
+
+        assertArrayEquals(container.particles(""), parallel.particles(""), "Las partículas deberían terminar igual");
+        assertArrayEquals(container.holes("normal"), parallel.holes("normal"), "Los agujeros deberían atrapar las mismas partículas");
+    }
+
+    /**
+     * Prueba que no se pueda simular con menos de un hilo.
+     */
+    @Test
+    public void shouldNotSetInvalidParallelism() {
+        container.setParallelism(0);
+        assertFalse(container.ok(), "No debería aceptar 0 hilos");
+    }
+
+    /**
+     * Prueba que adelantar muchos ticks de una vez dé lo mismo que simularlos uno por uno.
+     */
+    @Test
+    public void shouldAdvanceLikeRun() {
+        MaxwellContainer advanced = new MaxwellContainer(HEIGHT, WIDTH);
+        for (MaxwellContainer c : new MaxwellContainer[] {container, advanced}) {
+            c.addParticle("normal", "red", true, 50, 100, 3, 2);
+            c.addParticle("flying", "blue", false, -120, 300, -2, 5);
+            c.addParticle("rotator", "green", true, 150, 20, 4, -1);
+            c.addParticle("normal", "yellow", false, -30, 210, 1, 0);
+            c.addDemon("weak", 200);
+            c.addHole("normal", 100, 160, 1);
+        }
+
+        container.run(20000);
+        advanced.advance(20000);
+
+        assertTrue(advanced.ok());
+        assertArrayEquals(container.particles(""), advanced.particles(""), "Las partículas deberían terminar igual");
+        assertArrayEquals(container.holes(""), advanced.holes(""), "Los agujeros deberían terminar igual");
+    }
+
+    /**
+     * Prueba que adelantar mil millones de ticks sin interacciones sea inmediato.
+     */
+    @Test
+    public void shouldAdvanceBillionTicksQuickly() {
+        container.addParticle("normal", "red", true, 50, 100, 3, 2);
+        container.addParticle("flying", "blue", false, -120, 300, -2, 5);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> container.advance(1_000_000_000L));
+        assertTrue(container.ok());
+    }
+
+    /**
+     * Prueba que el objetivo se actualice al transferir, agregar y eliminar partículas.
+     */
+    @Test
+    public void shouldTrackGoalIncrementally() {
+        container.addParticle("normal", "red", true, 50, 200, -5, 0);
+        container.addDemon("normal", 200);
+        container.run(50);
+        assertTrue(container.isGoal());
+
+        container.addParticle("normal", "blue", false, -50, 100, 0, 0);
+        assertFalse(container.isGoal(), "La azul a la izquierda está en el lado equivocado");
+        assertTrue(container.getContainerInfo().contains("Partículas: 2"));
+
+        container.delParticle("blue");
+        assertTrue(container.isGoal());
+    }
+
+    /**
+     * Prueba que las consultas sigan reportando el demonio débil que
+     * desapareció, el agujero lleno y la partícula atrapada.
+     */
+    @Test
+    public void shouldReportRetiredEntities() {
+        container.addDemon("weak", 200);
+        container.addHole("normal", 80, 100, 1);
+        container.addParticle("normal", "red", true, 50, 200, -5, 0);
+        container.addParticle("normal", "green", true, 50, 100, 3, 0);
+        container.addParticle("normal", "orange", true, 60, 200, -5, 0);
+
+        container.run(100);
+
+        assertArrayEquals(new int[]{200}, container.demons("weak"));
+        assertEquals(0, container.holes()[0][2]);
+        assertEquals(3, container.particles().length);
+        assertEquals(1, container.transfers(), "Solo la primera roja debería pasar");
+    }
+
+    /**
+     * Prueba que compactar saque del almacén las partículas inactivas de la
+     * lista de activas sin borrarlas.
+     */
+    @Test
+    public void shouldCompactInactiveParticles() {
+        ParticleStore store = new ParticleStore(5, WIDTH);
+        for (int i = 0; i < 4; i++) {
+            store.add(new Particle(WIDTH + 10 * i, 100, "red", true, 5, 1, 0, 10 * i));
+        }
+        store.trap(1);
+        store.trap(2);
+        assertEquals(4, store.liveCount());
+
+        assertEquals(2, store.compact());
+        assertEquals(2, store.liveCount());
+        assertEquals(3, store.liveAt(1));
+        assertEquals(4, store.size());
+        assertEquals(0, store.compact(), "Sin cambios no hay nada que compactar");
+    }
+
+    /**
+     * Prueba que no se pueda adelantar un número inválido de ticks.
+     */
+    @Test
+    public void shouldNotAdvanceInvalidTicks() {
+        container.advance(-1);
+        assertFalse(container.ok(), "No debería adelantar ticks negativos");
+    }
+}
@@ -0,0 +1,109 @@
+package Test;
+import Shapes.*;
+import org.junit.jupiter.api.Test;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Clase de pruebas para los círculos ya pintados y el dibujo sin crear
+ * objetos. Ninguna prueba abre una ventana.
+ */
+public class SpriteCacheTest {
+
+    /**
+     * Prueba que cada color y diámetro se pinte una sola vez.
+     */
+    @Test
+    public void shouldReuseSpritePerColorAndDiameter() {
+        SpriteCache cache = new SpriteCache();
+        BufferedImage red = cache.get(Color.RED, 10);
+
+        assertSame(red, cache.get(Color.RED, 10));
+        assertNotSame(red, cache.get(Color.RED, 4));
+        assertNotSame(red, cache.get(Color.BLUE, 10));
+        assertEquals(3, cache.size());
+        assertEquals(11, red.getWidth(), "La imagen incluye el borde");
+        assertEquals(Color.RED.getRGB(), red.getRGB(5, 5));
+        assertEquals(0, red.getRGB(0, 0) >>> 24, "Las esquinas son transparentes");
+    }
+
+    /**
+     * Prueba que el destino en memoria pinte los círculos desde la caché.
+     */
+    @Test
+    public void shouldPaintCirclesFromCache() {
+        ImageBackend backend = new ImageBackend(100, 100);
+        backend.beginBackground(Color.WHITE);
+        backend.endBackground();
+        backend.restoreBackground();
+        for (int i = 0; i < 50; i++) {
+            backend.paintCircle(2 * i, 40, 5, Color.RED);
+        }
+
+        assertEquals(1, backend.getSprites().size());
+        assertEquals(Color.RED.getRGB(), backend.getImage().getRGB(42, 42));
+        assertEquals(Color.WHITE.getRGB(), backend.getImage().getRGB(42, 80));
+    }
+
+    /**
+     * Prueba que los círculos enormes se pinten sin guardarse en la caché.
+     */
+    @Test
+    public void shouldPaintHugeCirclesDirectly() {
+        ImageBackend backend = new ImageBackend(100, 100);
+        backend.beginBackground(Color.WHITE);
+        backend.endBackground();
+        backend.restoreBackground();
+        backend.paintCircle(-200, -200, 600, Color.RED);
+
+        assertEquals(0, backend.getSprites().size());
+        assertEquals(Color.RED.getRGB(), backend.getImage().getRGB(50, 50));
+        assertThrows(IllegalArgumentException.class,
+                     () -> new SpriteCache().get(Color.RED, SpriteCache.MAX_DIAMETER + 1));
+    }
+
+    /**
+     * Prueba que volver a dibujar círculos que ya estaban en el lienzo no cree objetos.
+     */
+    @Test
+    public void shouldRedrawWithoutAllocating() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        Canvas canvas = Canvas.getCanvas();
+        Object[] keys = new Object[2000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+        }
+        for (int round = 0; round < 200; round++) {
+            redraw(canvas, keys, round);
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int round = 0; round < 20; round++) {
+            redraw(canvas, keys, round);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        for (Object key : keys) {
+            canvas.erase(key);
+        }
+        assertTrue(allocated < 64 * 1024, "Se crearon " + allocated + " bytes al redibujar");
+    }
+
+    /**
+     * Mueve todos los círculos y compone un cuadro.
+     */
+    private static void redraw(Canvas canvas, Object[] keys, int round) {
+        canvas.beginFrame();
+        for (int i = 0; i < keys.length; i++) {
+            canvas.drawCircle(keys[i], i % 2 == 0 ? "red" : "blue", (i + round) % 1000, i % 800, 5, false);
+        }
+        canvas.endFrame();
+    }
+}
@@ -0,0 +1,202 @@
+package Test;
+import MaxWellContainer.*;
+import Shapes.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Clase de pruebas para la cámara del lienzo. Maven corre las pruebas con
+ * -Dshapes.backend=none, así que ninguna abre una ventana.
+ */
+public class ViewportTest {
+
+    /**
+     * Deja la vista como estaba para las demás pruebas.
+     */
+    @AfterEach
+    public void tearDown() {
+        Canvas.getCanvas().resetView();
+    }
+
+    /**
+     * Prueba que acercar deje quieto el punto bajo el píxel y que desplazar
+     * mueva la vista en píxeles.
+     */
+    @Test
+    public void shouldZoomAroundPointAndPan() {
+        Canvas canvas = Canvas.getCanvas();
+        Viewport viewport = canvas.getViewport();
+        assertTrue(viewport.isIdentity());
+
+        canvas.zoom(2, 100, 50);
+        assertEquals(100, viewport.toScreenX(100));
+        assertEquals(50, viewport.toScreenY(50));
+        assertEquals(120, viewport.toScreenX(110));
+        assertEquals(10, viewport.scale(5));
+
+        canvas.pan(20, 0);
+        assertEquals(100, viewport.toScreenX(110));
+        assertFalse(viewport.intersects(0, 0, 10, 10), "El origen quedó fuera de la vista");
+    }
+
+    /**
+     * Prueba que solo se pinten las figuras que se ven.
+     */
+    @Test
+    public void shouldCullFiguresOutsideView() {
+        Canvas canvas = Canvas.getCanvas();
+        assumeTrue(canvas.getBackend() instanceof NullBackend, "El lienzo no usa el destino vacío");
+        NullBackend counter = (NullBackend) canvas.getBackend();
+        canvas.zoom(10, 0, 0);
+
+        Object[] keys = new Object[1000];
+        canvas.redraw();
+        long before = counter.getPainted();
+        canvas.redraw();
+        long others = counter.getPainted() - before;
+
+        canvas.beginFrame();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+            canvas.drawCircle(keys[i], "red", 12 * i, 9 * i, 5, false);
+        }
+        canvas.endFrame();
+        long painted = counter.getPainted() - before - others;
+
+        canvas.beginFrame();
+        for (Object key : keys) {
+            canvas.erase(key);
+        }
+        canvas.endFrame();
+        assertEquals(11, painted, "Solo se ven los círculos hasta (120, 90)");
+    }
+
+    /**
+     * Prueba que una figura de un cuadro que quedó fuera de la vista vuelva
+     * a pintarse al desplazar la vista, aunque no lleguen más cuadros.
+     */
+    @Test
+    public void shouldShowFrameFigureAfterPan() {
+        Canvas canvas = Canvas.getCanvas();
+        assumeTrue(canvas.getBackend() instanceof NullBackend, "El lienzo no usa el destino vacío");
+        NullBackend counter = (NullBackend) canvas.getBackend();
+        Circle circle = new Circle(2000, 100, "red", 10);
+        Frame frame = new Frame(1);
+        frame.clear(0);
+        frame.add(circle, true);
+
+        canvas.drawFrame(frame);
+        canvas.pan(1500, 0);
+        long before = counter.getPainted();
+        canvas.redraw();
+        long withCircle = counter.getPainted() - before;
+        canvas.erase(circle);
+        before = counter.getPainted();
+        canvas.redraw();
+        long withoutCircle = counter.getPainted() - before;
+
+        assertEquals(1, withCircle - withoutCircle, "El círculo debería pintarse después de desplazar la vista");
+    }
+
+    /**
+     * Prueba que el acercamiento no pase del máximo, ni al acercar ni al ajustar.
+     */
+    @Test
+    public void shouldClampZoom() {
+        Canvas canvas = Canvas.getCanvas();
+        Viewport viewport = canvas.getViewport();
+
+        canvas.zoom(1000, 0, 0);
+        assertEquals(Viewport.MAX_ZOOM, viewport.getZoom());
+        canvas.zoom(2, 0, 0);
+        assertEquals(Viewport.MAX_ZOOM, viewport.getZoom());
+        canvas.fit(1, 1);
+        assertEquals(Viewport.MAX_ZOOM, viewport.getZoom());
+    }
+
+    /**
+     * Prueba que un cuadro recortado solo lleve las partículas que tocan la
+     * zona, las mismas que daría revisarlas todas.
+     */
+    @Test
+    public void shouldFillCulledFrameWithVisibleParticles() {
+        int width = 600;
+        int height = 400;
+        List<Particle> particles = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            particles.add(new Particle((i * 37) % (2 * width - 5), (i * 53) % (height - 5), "red", true, 5, 1, 1, 0));
+        }
+        SimulationEngine engine = new SimulationEngine(width, height, particles, new ArrayList<>(), new ArrayList<>());
+        Frame frame = new Frame(16);
+        frame.clear(0);
+        frame.cull(300, 100, 120, 80);
+        engine.addParticles(frame);
+
+        int expected = 0;
+        for (Particle particle : particles) {
+            if (frame.inView(particle.getXPosition(), particle.getYPosition(), 5, 5)) {
+                expected++;
+            }
+        }
+        assertTrue(expected > 0 && expected < particles.size());
+        assertEquals(expected, frame.size());
+        for (int i = 0; i < frame.size(); i++) {
+            assertTrue(frame.inView(frame.getX(i), frame.getY(i), 5, 5));
+        }
+    }
+
+    /**
+     * Prueba que el lienzo borre las figuras que un cuadro recortado ya no
+     * trae y conserve las que no vinieron de un cuadro.
+     */
+    @Test
+    public void shouldEraseFiguresThatLeaveCulledView() {
+        Canvas canvas = Canvas.getCanvas();
+        assumeTrue(canvas.getBackend() instanceof NullBackend, "El lienzo no usa el destino vacío");
+        NullBackend counter = (NullBackend) canvas.getBackend();
+        Circle stays = new Circle(10, 10, "red", 10);
+        Circle leaves = new Circle(50, 50, "blue", 10);
+        Object other = new Object();
+        canvas.drawCircle(other, "green", 80, 80, 5, false);
+
+        Frame frame = new Frame(2);
+        frame.clear(0);
+        frame.cull(0, 0, 100, 100);
+        frame.add(stays, true);
+        frame.add(leaves, true);
+        canvas.drawFrame(frame);
+        long before = counter.getPainted();
+        canvas.redraw();
+        long withBoth = counter.getPainted() - before;
+
+        frame.clear(1);
+        frame.cull(0, 0, 100, 100);
+        frame.add(stays, true);
+        canvas.drawFrame(frame);
+        before = counter.getPainted();
+        canvas.redraw();
+        long withOne = counter.getPainted() - before;
+
+        canvas.erase(stays);
+        canvas.erase(other);
+        assertEquals(1, withBoth - withOne, "Solo debería borrarse la figura que el cuadro ya no trae");
+    }
+
+    /**
+     * Prueba que un contenedor más grande que la ventana se muestre completo.
+     */
+    @Test
+    public void shouldFitLargeContainer() {
+        MaxwellContainer container = new MaxwellContainer(20000, 20000);
+        container.makeVisible();
+        Viewport viewport = Canvas.getCanvas().getViewport();
+
+        assertEquals(Canvas.getCanvas().getWidth() / 40000.0, viewport.getZoom(), 1e-9);
+        assertTrue(viewport.intersects(39990, 19990, 5, 5), "La esquina opuesta debería verse");
+        container.finish();
+    }
+}